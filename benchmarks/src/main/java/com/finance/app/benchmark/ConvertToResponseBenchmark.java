@@ -0,0 +1,86 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.dto.response.BudgetResponse;
+import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.dto.response.IncomeResponse;
+import com.finance.app.model.Budget;
+import com.finance.app.model.Expense;
+import com.finance.app.model.Income;
+import com.finance.app.model.User;
+import com.finance.app.service.impl.BudgetServiceImpl;
+import com.finance.app.service.impl.ExpanseServiceImpl;
+import com.finance.app.service.impl.IncomeServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Konversi entity ke DTO response di setiap service impl. Method-nya private, sehingga dipanggil lewat
+ * {@link MethodHandle} yang diikat ke instance service tanpa dependensi (konversi tidak menyentuh dependensi).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertToResponseBenchmark {
+    private MethodHandle convertExpense;
+    private MethodHandle convertIncome;
+    private MethodHandle convertBudget;
+    private Expense expense;
+    private Income income;
+    private Budget budget;
+
+    @Setup
+    public void setUp() throws Exception {
+        User user = User.builder().id(1L).username("user1").email("user1@example.com").build();
+        expense = Expense.builder().id(10L).description("kopi pagi").amount(25000.0).date(LocalDate.of(2024, 5, 17)).user(user).build();
+        income = Income.builder().id(11L).description("gaji bulanan").source("Salary").amount(8_000_000.0)
+                .date(LocalDate.of(2024, 5, 25)).user(user).build();
+        budget = Budget.builder().id(12L).description("budget makan").category("food").amount(1_500_000.0)
+                .month(YearMonth.of(2024, 5)).user(user).build();
+
+        convertExpense = converter(ExpanseServiceImpl.class, Expense.class, ExpenseResponse.class);
+        convertIncome = converter(IncomeServiceImpl.class, Income.class, IncomeResponse.class);
+        convertBudget = converter(BudgetServiceImpl.class, Budget.class, BudgetResponse.class);
+    }
+
+    @Benchmark
+    public ExpenseResponse expense() throws Throwable {
+        return (ExpenseResponse) convertExpense.invokeExact(expense);
+    }
+
+    @Benchmark
+    public IncomeResponse income() throws Throwable {
+        return (IncomeResponse) convertIncome.invokeExact(income);
+    }
+
+    @Benchmark
+    public BudgetResponse budget() throws Throwable {
+        return (BudgetResponse) convertBudget.invokeExact(budget);
+    }
+
+    private static MethodHandle converter(Class<?> serviceType, Class<?> entityType, Class<?> responseType) throws Exception {
+        Constructor<?> constructor = serviceType.getDeclaredConstructors()[0];
+        Object service = constructor.newInstance(new Object[constructor.getParameterCount()]);
+        return MethodHandles.privateLookupIn(serviceType, MethodHandles.lookup())
+                .findVirtual(serviceType, "convertToResponse", MethodType.methodType(responseType, entityType))
+                .bindTo(service);
+    }
+}
@@ -0,0 +1,121 @@
+package com.finance.app.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.finance.app.dto.response.CommonResponse;
+import com.finance.app.dto.response.ExpenseResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialisasi envelope {@link CommonResponse} berisi list besar dalam setiap format yang bisa dinegosiasikan
+ * (JSON, Smile, CBOR), dengan ObjectMapper yang dikonfigurasi seperti milik Spring MVC (JavaTimeModule, tanggal
+ * sebagai string ISO). Waktu mengukur CPU per respons untuk encode, encode + gzip (seperti server.compression), dan
+ * decode di sisi klien; ukuran payload mentah dan setelah gzip untuk kombinasi parameter yang sama ditulis oleh
+ * {@link PayloadSizeReport}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvelopeSerializationBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private CommonResponse<List<ExpenseResponse>> response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = objectMapper(format);
+        writer = objectMapper.writerFor(CommonResponse.class);
+        reader = objectMapper.readerFor(new TypeReference<CommonResponse<List<ExpenseResponse>>>() {
+        });
+        response = envelope(size);
+        encoded = writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws Exception {
+        return gzip(writer.writeValueAsBytes(response));
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    static ObjectMapper objectMapper(String format) {
+        return switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    static CommonResponse<List<ExpenseResponse>> envelope(int size) {
+        SplittableRandom random = new SplittableRandom(42L);
+        List<ExpenseResponse> expenses = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            String[] descriptions = SyntheticDataGenerator.EXPENSE_DESCRIPTIONS;
+            expenses.add(ExpenseResponse.builder()
+                    .id(id)
+                    .amount(Math.round(random.nextDouble() * 50_000_000) / 100.0)
+                    .date(LocalDate.of(2022, 1, 1).plusDays(random.nextInt(3 * 365)))
+                    .description(descriptions[random.nextInt(descriptions.length)])
+                    .userId(1L)
+                    .username("user1")
+                    .build());
+        }
+        return CommonResponse.<List<ExpenseResponse>>builder()
+                .status("success")
+                .message("Expenses retrieved successfully")
+                .data(expenses)
+                .code(200)
+                .build();
+    }
+
+    static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
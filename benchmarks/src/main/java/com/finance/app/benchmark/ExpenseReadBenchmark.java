@@ -0,0 +1,90 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.dto.response.PageResponse;
+import com.finance.app.repository.ExpenseRepository;
+import com.finance.app.repository.projection.AmountTotals;
+import com.finance.app.service.ExpanseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jalur baca expense end-to-end dari service sampai database: listing, agregat (dengan dan tanpa cache), dan
+ * pencarian deskripsi. Setiap pemanggilan berpindah ke user berikutnya agar tidak hanya mengukur satu user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseReadBenchmark {
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "date"));
+
+    @State(Scope.Thread)
+    public static class Users {
+        private int users;
+        private long next;
+
+        @Setup
+        public void setUp(SeededApplication application) {
+            users = application.users;
+        }
+
+        long nextUserId() {
+            return next++ % users + 1;
+        }
+    }
+
+    private ExpanseService expanseService;
+    private ExpenseRepository expenseRepository;
+
+    @Setup
+    public void setUp(SeededApplication application) {
+        expanseService = application.getBean(ExpanseService.class);
+        expenseRepository = application.getBean(ExpenseRepository.class);
+    }
+
+    @Benchmark
+    public PageResponse<ExpenseResponse> listFirstPage(Users users) {
+        return expanseService.getAllExpensesByUserId(users.nextUserId(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Object listFirstCursorPage(Users users) {
+        return expanseService.getExpensesByUserIdAfterCursor(users.nextUserId(), "date", null, 50);
+    }
+
+    @Benchmark
+    public AmountTotals totalsQuery(Users users) {
+        return expenseRepository.findAmountTotalsByUserId(users.nextUserId());
+    }
+
+    @Benchmark
+    public Double totalCached(Users users) {
+        return expanseService.getTotalAmountByUserId(users.nextUserId());
+    }
+
+    @Benchmark
+    public ExpenseResponse maxCached(Users users) {
+        return expanseService.getMaxAmountExpenseByUserId(users.nextUserId());
+    }
+
+    @Benchmark
+    public List<ExpenseResponse> searchDescription(Users users) {
+        return expanseService.getExpensesByDescriptionContainingIgnoreCase(users.nextUserId(), "kopi", 20);
+    }
+}
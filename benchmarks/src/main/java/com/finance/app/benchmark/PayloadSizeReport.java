@@ -0,0 +1,56 @@
+package com.finance.app.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Param;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Menulis ukuran payload {@link EnvelopeSerializationBenchmark} (mentah dan setelah gzip) sebagai JSON, untuk setiap
+ * kombinasi {@code @Param} benchmark tersebut. Ukuran bersifat deterministik (data sintetis memakai seed tetap),
+ * sehingga tidak perlu diukur di dalam JMH dan bisa dibandingkan langsung antar rilis seperti {@code jmh-result.json}.
+ *
+ * <p>Argumen pertama adalah lokasi file hasil (default {@code target/payload-sizes.json}).</p>
+ */
+public final class PayloadSizeReport {
+    private PayloadSizeReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File output = new File(args.length > 0 ? args[0] : "target/payload-sizes.json");
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String format : params("format")) {
+            ObjectMapper objectMapper = EnvelopeSerializationBenchmark.objectMapper(format);
+            for (String size : params("size")) {
+                byte[] encoded = objectMapper.writeValueAsBytes(EnvelopeSerializationBenchmark.envelope(Integer.parseInt(size)));
+
+                Map<String, String> params = new LinkedHashMap<>();
+                params.put("format", format);
+                params.put("size", size);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("benchmark", EnvelopeSerializationBenchmark.class.getName());
+                result.put("params", params);
+                result.put("encodedBytes", encoded.length);
+                result.put("gzipBytes", EnvelopeSerializationBenchmark.gzip(encoded).length);
+                results.add(result);
+            }
+        }
+
+        File directory = output.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + directory);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, results);
+        System.out.println("Payload sizes saved to " + output);
+    }
+
+    private static String[] params(String field) throws NoSuchFieldException {
+        return EnvelopeSerializationBenchmark.class.getField(field).getAnnotation(Param.class).value();
+    }
+}
@@ -0,0 +1,67 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.PersonalfinanceApplication;
+import com.finance.app.service.MonthlyRollupService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Konteks aplikasi lengkap (service, cache, repository) di atas PostgreSQL yang dikonfigurasi aplikasi
+ * ({@code DB_URL}, {@code DB_NAME}, ...), diisi data sintetis sekali per trial. Skema dibangun oleh migrasi Flyway
+ * aplikasi (termasuk seluruh index) di schema terpisah {@value #SCHEMA}, yang dikosongkan setiap awal trial;
+ * schema lain di database tidak disentuh.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+    static final String SCHEMA = "benchmark";
+
+    @Param("200")
+    public int users;
+
+    @Param("500")
+    public int rowsPerUser;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(PersonalfinanceApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .initializers(applicationContext -> applicationContext.getBeanFactory().registerSingleton(
+                        "benchmarkMigrationStrategy", (FlywayMigrationStrategy) flyway -> {
+                            flyway.clean();
+                            flyway.migrate();
+                        }))
+                // Argumen baris perintah mengalahkan application.properties milik aplikasi
+                .run("--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.hikari.schema=" + SCHEMA,
+                        "--spring.flyway.schemas=" + SCHEMA,
+                        "--spring.flyway.clean-disabled=false",
+                        "--spring.jpa.show-sql=false");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        new SyntheticDataGenerator(jdbcTemplate, 42L).generate(users, rowsPerUser);
+        context.getBean(MonthlyRollupService.class).rebuildAll();
+        // Statistik planner diperbarui agar rencana query sama dengan database yang sudah berjalan lama
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,95 @@
+package com.finance.app.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Mengisi database benchmark dengan data sintetis yang deterministik (seed tetap), sehingga hasil antar rilis dapat
+ * dibandingkan. Baris dimasukkan langsung dengan JDBC batch dan ID eksplisit; benchmark hanya membaca data ini.
+ */
+public class SyntheticDataGenerator {
+    static final String[] EXPENSE_DESCRIPTIONS = {
+            "kopi pagi", "makan siang", "bensin motor", "tagihan listrik", "belanja bulanan", "pulsa telepon",
+            "parkir kantor", "langganan internet", "obat apotek", "tiket kereta", "servis mobil", "buku kuliah"
+    };
+    private static final String[] INCOME_DESCRIPTIONS = {"gaji bulanan", "bonus proyek", "bunga deposito", "penjualan barang"};
+    private static final String[] INCOME_SOURCES = {"Salary", "Bonus", "Investment", "Other"};
+    private static final String[] BUDGET_CATEGORIES = {"food", "transport", "utilities", "entertainment", "health"};
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+    private static final int DAYS = 3 * 365;
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SplittableRandom random;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public void generate(int users, int rowsPerUser) {
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (long userId = 1; userId <= users; userId++) {
+            userRows.add(new Object[]{userId, "user" + userId, "secret", "user" + userId + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO app_user (id, username, password, email) VALUES (?, ?, ?, ?)", userRows);
+
+        long id = 1;
+        List<Object[]> expenses = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> incomes = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> budgets = new ArrayList<>(BATCH_SIZE);
+        for (long userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < rowsPerUser; i++, id++) {
+                expenses.add(new Object[]{id, pick(EXPENSE_DESCRIPTIONS) + " " + random.nextInt(1000), amount(5, 500), date(), userId});
+                // Income dan budget lebih jarang dari expense, seperti data nyata
+                if (i % 10 == 0) {
+                    incomes.add(new Object[]{id, pick(INCOME_DESCRIPTIONS), pick(INCOME_SOURCES), amount(500, 20000), date(), userId});
+                }
+                if (i % 20 == 0) {
+                    YearMonth month = YearMonth.from(START.plusDays(random.nextInt(DAYS)));
+                    budgets.add(new Object[]{id, "budget " + pick(BUDGET_CATEGORIES), pick(BUDGET_CATEGORIES), amount(100, 5000),
+                            Date.valueOf(month.atDay(1)), userId});
+                }
+                flushIfFull(expenses, incomes, budgets, false);
+            }
+        }
+        flushIfFull(expenses, incomes, budgets, true);
+    }
+
+    private void flushIfFull(List<Object[]> expenses, List<Object[]> incomes, List<Object[]> budgets, boolean force) {
+        if (force || expenses.size() >= BATCH_SIZE) {
+            flush("INSERT INTO expense (id, description, amount, date, user_id) VALUES (?, ?, ?, ?, ?)", expenses);
+        }
+        if (force || incomes.size() >= BATCH_SIZE) {
+            flush("INSERT INTO income (id, description, source, amount, date, user_id) VALUES (?, ?, ?, ?, ?, ?)", incomes);
+        }
+        if (force || budgets.size() >= BATCH_SIZE) {
+            flush("INSERT INTO budget (id, description, category, amount, month, user_id) VALUES (?, ?, ?, ?, ?, ?)", budgets);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private double amount(double min, double max) {
+        return Math.round((min + random.nextDouble() * (max - min)) * 100) / 100.0;
+    }
+
+    private Date date() {
+        return Date.valueOf(START.plusDays(random.nextInt(DAYS)));
+    }
+}
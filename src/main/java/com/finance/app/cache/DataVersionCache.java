@@ -0,0 +1,64 @@
+package com.finance.app.cache;
+
+import com.finance.app.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versi data per user untuk ETag: setiap penulisan transaksi milik user menaikkan versinya setelah commit, sehingga
+ * GET bersyarat cukup membandingkan ETag dengan satu nilai in-memory tanpa menyentuh database.
+ *
+ * <p>Nilai versi diambil dari satu sequence global. User yang belum tercatat (baru pertama dibaca atau entry-nya
+ * sudah di-evict) mendapat nilai sequence berikutnya, yang selalu lebih besar dari versi mana pun yang pernah
+ * diberikan, sehingga ETag lama tidak pernah cocok lagi. ETag juga memuat epoch acak per proses agar ETag dari
+ * sebelum restart tidak cocok dengan versi yang dihitung ulang dari nol.</p>
+ *
+ * <p>Versi dinaikkan setelah commit, bukan sebelumnya: pembaca yang sempat melihat data baru dengan versi lama
+ * hanya menyebabkan 200 berikutnya, sedangkan sebaliknya akan menyajikan 304 untuk data yang sudah basi.</p>
+ */
+public class DataVersionCache {
+    private final Cache<Long, Long> versions;
+    private final AtomicLong sequence = new AtomicLong();
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    public DataVersionCache(long maximumSize) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public long current(Long userId) {
+        return versions.get(userId, id -> sequence.incrementAndGet());
+    }
+
+    /**
+     * @return ETag kuat (sudah diberi tanda kutip) untuk versi data user saat ini
+     */
+    public String etag(Long userId) {
+        return etag(userId, null);
+    }
+
+    /**
+     * @param variant Pembeda representasi (misalnya format biner) agar setiap representasi punya ETag sendiri;
+     *                null untuk representasi default
+     * @return ETag kuat (sudah diberi tanda kutip) untuk versi data user saat ini
+     */
+    public String etag(Long userId, String variant) {
+        String tag = epoch + "-" + Long.toString(current(userId), 36);
+        return "\"" + (variant == null ? tag : tag + "-" + variant) + "\"";
+    }
+
+    /**
+     * Menaikkan versi data user setelah transaksi aktif commit (atau langsung jika tidak ada transaksi).
+     */
+    public void bump(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        // merge dengan max: dua commit yang selesai hampir bersamaan tidak bisa menurunkan versi
+        AfterCommit.run(() -> versions.asMap().merge(userId, sequence.incrementAndGet(), Math::max));
+    }
+}
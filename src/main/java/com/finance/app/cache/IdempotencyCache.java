@@ -0,0 +1,39 @@
+package com.finance.app.cache;
+
+import com.finance.app.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Cache respons Idempotency-Key terbaru, agar retry klien dijawab dari memori tanpa menyentuh database. Ukurannya
+ * dibatasi dan setiap entry kedaluwarsa setelah {@code ttl} sejak ditulis, sama dengan masa berlaku baris di tabel
+ * {@code idempotency_key} yang menjadi sumber kebenarannya.
+ */
+public class IdempotencyCache {
+    private final Cache<String, StoredResponse> responses;
+
+    public IdempotencyCache(long maximumSize, Duration ttl) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public StoredResponse get(String scope, String key) {
+        return responses.getIfPresent(cacheKey(scope, key));
+    }
+
+    /**
+     * Menyimpan respons setelah transaksi aktif commit, sehingga respons dari create yang di-rollback tidak pernah
+     * disajikan ulang.
+     */
+    public void put(String scope, String key, StoredResponse response) {
+        AfterCommit.run(() -> responses.put(cacheKey(scope, key), response));
+    }
+
+    private static String cacheKey(String scope, String key) {
+        return scope + '\n' + key;
+    }
+}
@@ -0,0 +1,35 @@
+package com.finance.app.cache;
+
+import com.finance.app.importer.ImportJob;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Daftar job import yang bisa dipolling. Job hanya ada di memori proses yang menjalankannya; entry dibuang setelah
+ * tidak dibaca selama {@code retention}, sehingga job selesai yang tidak lagi dipolling tidak menumpuk.
+ */
+public class ImportJobCache {
+    private final Cache<String, ImportJob> jobs;
+
+    public ImportJobCache(long maximumSize, Duration retention) {
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(retention)
+                .build();
+    }
+
+    public Optional<ImportJob> get(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    public void put(ImportJob job) {
+        jobs.put(job.getId(), job);
+    }
+
+    public void invalidate(String jobId) {
+        jobs.invalidate(jobId);
+    }
+}
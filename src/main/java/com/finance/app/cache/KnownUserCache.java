@@ -0,0 +1,71 @@
+package com.finance.app.cache;
+
+import com.finance.app.exception.UserNotFoundException;
+import com.finance.app.repository.UserRepository;
+import com.finance.app.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Collection;
+
+/**
+ * Cache ID user yang diketahui ada beserta username-nya, agar service tidak perlu memuat entity {@code User}
+ * di setiap request hanya untuk memastikan user tersebut ada. Entry dibuang saat user diubah atau dihapus.
+ */
+public class KnownUserCache {
+    private final Cache<Long, String> usernames;
+    private final UserRepository userRepository;
+
+    public KnownUserCache(long maximumSize, UserRepository userRepository) {
+        this.usernames = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @return Username dari user tersebut
+     * @throws UserNotFoundException jika user tidak ada
+     */
+    public String requireUsername(Long userId) {
+        if (userId == null) {
+            throw new UserNotFoundException("User not found with id: null");
+        }
+        String username = usernames.getIfPresent(userId);
+        if (username != null) {
+            return username;
+        }
+        username = userRepository.findUsernameById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        usernames.put(userId, username);
+        return username;
+    }
+
+    public void requireExists(Long userId) {
+        requireUsername(userId);
+    }
+
+    /**
+     * Hasil kosong dari query yang difilter per user bisa berarti user belum punya data atau user tidak ada;
+     * hanya pada kasus itu keberadaan user perlu diperiksa.
+     */
+    public <T extends Collection<?>> T requireExistsIfEmpty(Long userId, T rows) {
+        if (rows.isEmpty()) {
+            requireExists(userId);
+        }
+        return rows;
+    }
+
+    public void remember(Long userId, String username) {
+        usernames.put(userId, username);
+    }
+
+    /**
+     * Dibuang segera dan sekali lagi setelah commit, agar pembaca yang mengisi ulang sebelum commit tidak meninggalkan
+     * username lama.
+     */
+    public void forget(Long userId) {
+        usernames.invalidate(userId);
+        AfterCommit.run(() -> usernames.invalidate(userId));
+    }
+}
@@ -0,0 +1,17 @@
+package com.finance.app.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Respons create yang disimpan untuk satu Idempotency-Key: status, content type, dan body apa adanya, serta hash
+ * body request yang menghasilkannya.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredResponse {
+    private final byte[] requestHash;
+    private final int statusCode;
+    private final String contentType;
+    private final byte[] body;
+}
@@ -0,0 +1,270 @@
+package com.finance.app.cache;
+
+import com.finance.app.repository.projection.AmountTotals;
+import com.finance.app.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache agregat per user (jumlah baris, total amount, baris dengan amount maksimum dan minimum) untuk satu jenis
+ * transaksi. Setiap nilai diisi dari database saat pertama kali dibaca, lalu diperbarui secara inkremental oleh
+ * create/update/delete setelah transaksinya commit, sehingga pembacaan berikutnya tidak perlu agregasi SQL.
+ *
+ * <p>Nilai yang tidak bisa diturunkan secara inkremental (misalnya baris maksimum dihapus) ditandai belum diketahui
+ * dan dimuat ulang pada pembacaan berikutnya. Entry kedaluwarsa setelah {@code ttl} sejak dibuat (bukan sejak
+ * diperbarui), sehingga selisih pembulatan total maupun perubahan di luar service ini paling lama bertahan satu TTL.</p>
+ *
+ * @param <R> Tipe response yang disimpan sebagai baris maksimum/minimum
+ */
+public class UserAggregateCache<R> {
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    private final Cache<Long, Entry<R>> cache;
+    private final Function<R, Long> idOf;
+    private final Function<R, Double> amountOf;
+
+    public UserAggregateCache(long maximumSize, Duration ttl, Function<R, Long> idOf, Function<R, Double> amountOf) {
+        this(maximumSize, ttl, idOf, amountOf, Ticker.systemTicker());
+    }
+
+    UserAggregateCache(long maximumSize, Duration ttl, Function<R, Long> idOf, Function<R, Double> amountOf, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpireAfterCreate<Long, Entry<R>>(ttl))
+                .ticker(ticker)
+                .build();
+        this.idOf = idOf;
+        this.amountOf = amountOf;
+    }
+
+    public AmountTotals getTotals(Long userId, Supplier<AmountTotals> loader) {
+        Entry<R> entry = cache.get(userId, id -> Entry.empty());
+        if (entry.getCount() != null && entry.getTotal() != null) {
+            return new Totals(entry.getCount(), entry.getTotal());
+        }
+
+        AmountTotals loaded = loader.get();
+        Totals totals = new Totals(loaded.getCount(), loaded.getTotal() == null ? 0.0 : loaded.getTotal());
+        fill(userId, entry, current -> current.withCount(totals.getCount()).withTotal(totals.getTotal()));
+        return totals;
+    }
+
+    public Optional<R> getMax(Long userId, Supplier<Optional<R>> loader) {
+        return read(userId, Entry::getMax, loader, Entry::withMax);
+    }
+
+    public Optional<R> getMin(Long userId, Supplier<Optional<R>> loader) {
+        return read(userId, Entry::getMin, loader, Entry::withMin);
+    }
+
+    public void recordCreated(Long userId, R row) {
+        recordCreated(userId, List.of(row));
+    }
+
+    public void recordCreated(Long userId, List<R> rows) {
+        record(userId, entry -> {
+            for (R row : rows) {
+                entry = entry.withCount(entry.getCount() == null ? null : entry.getCount() + 1)
+                        .withTotal(add(entry.getTotal(), amountOf.apply(row)))
+                        .withMax(extend(entry.getMax(), row, 1))
+                        .withMin(extend(entry.getMin(), row, -1));
+            }
+            return entry;
+        });
+    }
+
+    public void recordUpdated(Long userId, Double previousAmount, R row) {
+        Double amount = amountOf.apply(row);
+        record(userId, entry -> entry
+                .withTotal(add(add(entry.getTotal(), amount), previousAmount == null ? null : -previousAmount))
+                .withMax(replace(entry.getMax(), previousAmount, row, 1))
+                .withMin(replace(entry.getMin(), previousAmount, row, -1)));
+    }
+
+    public void recordDeleted(Long userId, Long id, Double amount) {
+        record(userId, entry -> entry
+                .withCount(entry.getCount() == null ? null : entry.getCount() - 1)
+                .withTotal(add(entry.getTotal(), amount == null ? null : -amount))
+                .withMax(isRow(entry.getMax(), id) ? null : entry.getMax())
+                .withMin(isRow(entry.getMin(), id) ? null : entry.getMin()));
+    }
+
+    /**
+     * Membuang seluruh agregat user setelah transaksi aktif commit, misalnya saat user diubah atau dihapus.
+     */
+    public void invalidate(Long userId) {
+        AfterCommit.run(() -> cache.invalidate(userId));
+    }
+
+    private <V> V read(Long userId, Function<Entry<R>, V> getter, Supplier<V> loader,
+                       BiFunction<Entry<R>, V, Entry<R>> setter) {
+        Entry<R> entry = cache.get(userId, id -> Entry.empty());
+        V value = getter.apply(entry);
+        if (value != null) {
+            return value;
+        }
+
+        V loaded = loader.get();
+        fill(userId, entry, current -> setter.apply(current, loaded));
+        return loaded;
+    }
+
+    /**
+     * Menyimpan hasil query hanya jika tidak ada penulisan yang berjalan atau terjadi sejak snapshot diambil;
+     * jika ada, hasil query bisa sudah atau belum memuat penulisan tersebut sehingga tidak aman di-cache.
+     */
+    private void fill(Long userId, Entry<R> snapshot, UnaryOperator<Entry<R>> setter) {
+        if (snapshot.getPending() > 0) {
+            return;
+        }
+        cache.asMap().computeIfPresent(userId, (id, current) ->
+                current.getGeneration() == snapshot.getGeneration() && current.getVersion() == snapshot.getVersion()
+                        ? setter.apply(current)
+                        : current);
+    }
+
+    /**
+     * Menandai penulisan sedang berjalan, lalu menerapkan delta setelah transaksi commit (atau langsung jika tidak
+     * ada transaksi aktif). Rollback hanya melepas tanda tersebut.
+     */
+    private void record(Long userId, UnaryOperator<Entry<R>> delta) {
+        Entry<R> started = cache.asMap().compute(userId, (id, current) -> {
+            Entry<R> entry = current == null ? Entry.empty() : current;
+            return entry.withPending(entry.getPending() + 1).withVersion(entry.getVersion() + 1);
+        });
+        long generation = started.getGeneration();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(userId, generation, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(userId, generation, status == STATUS_COMMITTED ? delta : UnaryOperator.identity());
+            }
+        });
+    }
+
+    private void complete(Long userId, long generation, UnaryOperator<Entry<R>> delta) {
+        cache.asMap().computeIfPresent(userId, (id, current) -> {
+            // Entry sempat di-evict dan dibuat ulang tanpa mengetahui penulisan ini; isinya tidak bisa dipercaya
+            if (current.getGeneration() != generation) {
+                return null;
+            }
+            Entry<R> released = current.withPending(current.getPending() - 1).withVersion(current.getVersion() + 1);
+            return delta.apply(released);
+        });
+    }
+
+    private Optional<R> extend(Optional<R> extreme, R row, int direction) {
+        Double amount = amountOf.apply(row);
+        if (extreme == null || amount == null) {
+            return extreme;
+        }
+        if (extreme.isEmpty() || compare(row, extreme.get()) * direction > 0) {
+            return Optional.of(row);
+        }
+        return extreme;
+    }
+
+    /**
+     * Urutan yang sama dengan query top/bottom di repository ({@code amount, id}), sehingga pada amount yang sama
+     * max adalah baris dengan ID terbesar dan min baris dengan ID terkecil, persis seperti hasil top/bottom k=1.
+     */
+    private int compare(R row, R other) {
+        int byAmount = Double.compare(amountOf.apply(row), amountOf.apply(other));
+        return byAmount != 0 ? byAmount : Long.compare(idOf.apply(row), idOf.apply(other));
+    }
+
+    private Optional<R> replace(Optional<R> extreme, Double previousAmount, R row, int direction) {
+        if (extreme == null || extreme.isEmpty()) {
+            return null;
+        }
+        if (!isRow(extreme, idOf.apply(row))) {
+            return extend(extreme, row, direction);
+        }
+        // Baris yang sedang menjadi maksimum/minimum berubah: tetap ekstrem hanya jika bergerak ke arah yang sama
+        Double amount = amountOf.apply(row);
+        if (amount != null && previousAmount != null && Double.compare(amount, previousAmount) * direction >= 0) {
+            return Optional.of(row);
+        }
+        return null;
+    }
+
+    private boolean isRow(Optional<R> extreme, Long id) {
+        return extreme != null && extreme.isPresent() && Objects.equals(idOf.apply(extreme.get()), id);
+    }
+
+    private static Double add(Double total, Double amount) {
+        if (total == null || amount == null) {
+            return total;
+        }
+        return total + amount;
+    }
+
+    /**
+     * Snapshot agregat satu user. Field bernilai null berarti belum diketahui dan harus dimuat dari database;
+     * {@code Optional.empty()} pada max/min berarti user memang belum memiliki data.
+     */
+    @Getter
+    @With
+    @AllArgsConstructor
+    private static class Entry<R> {
+        private final long generation;
+        private final long version;
+        private final int pending;
+        private final Long count;
+        private final Double total;
+        private final Optional<R> max;
+        private final Optional<R> min;
+
+        static <R> Entry<R> empty() {
+            return new Entry<>(GENERATIONS.incrementAndGet(), 0, 0, null, null, null, null);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Totals implements AmountTotals {
+        private final Long count;
+        private final Double total;
+    }
+
+    @AllArgsConstructor
+    private static class ExpireAfterCreate<K, V> implements Expiry<K, V> {
+        private final Duration ttl;
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.finance.app.config;
+
+import com.finance.app.cache.DataVersionCache;
+import com.finance.app.cache.IdempotencyCache;
+import com.finance.app.cache.KnownUserCache;
+import com.finance.app.cache.UserAggregateCache;
+import com.finance.app.dto.response.BudgetResponse;
+import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.dto.response.IncomeResponse;
+import com.finance.app.repository.UserRepository;
+import com.finance.app.search.DescriptionSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+    @Value("${app.idempotency.cache.maximum-size:10000}")
+    private long idempotencyMaximumSize;
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration idempotencyTtl;
+
+    @Value("${app.cache.known-users.maximum-size:100000}")
+    private long knownUsersMaximumSize;
+
+    @Value("${app.cache.data-version.maximum-size:100000}")
+    private long dataVersionMaximumSize;
+
+    @Value("${app.cache.aggregate.maximum-size:10000}")
+    private long aggregateMaximumSize;
+
+    @Value("${app.cache.aggregate.ttl:10m}")
+    private Duration aggregateTtl;
+
+    @Value("${app.search.description.maximum-weight:5000000}")
+    private long descriptionIndexMaximumWeight;
+
+    @Value("${app.search.description.idle-timeout:30m}")
+    private Duration descriptionIndexIdleTimeout;
+
+    @Bean
+    public IdempotencyCache idempotencyCache() {
+        return new IdempotencyCache(idempotencyMaximumSize, idempotencyTtl);
+    }
+
+    @Bean
+    public KnownUserCache knownUserCache(UserRepository userRepository) {
+        return new KnownUserCache(knownUsersMaximumSize, userRepository);
+    }
+
+    @Bean
+    public DataVersionCache dataVersionCache() {
+        return new DataVersionCache(dataVersionMaximumSize);
+    }
+
+    @Bean
+    public UserAggregateCache<ExpenseResponse> expenseAggregateCache() {
+        return new UserAggregateCache<>(aggregateMaximumSize, aggregateTtl, ExpenseResponse::getId, ExpenseResponse::getAmount);
+    }
+
+    @Bean
+    public UserAggregateCache<IncomeResponse> incomeAggregateCache() {
+        return new UserAggregateCache<>(aggregateMaximumSize, aggregateTtl, IncomeResponse::getId, IncomeResponse::getAmount);
+    }
+
+    @Bean
+    public UserAggregateCache<BudgetResponse> budgetAggregateCache() {
+        return new UserAggregateCache<>(aggregateMaximumSize, aggregateTtl, BudgetResponse::getId, BudgetResponse::getAmount);
+    }
+
+    @Bean
+    public DescriptionSearchIndex expenseDescriptionIndex() {
+        return new DescriptionSearchIndex(descriptionIndexMaximumWeight, descriptionIndexIdleTimeout);
+    }
+
+    @Bean
+    public DescriptionSearchIndex incomeDescriptionIndex() {
+        return new DescriptionSearchIndex(descriptionIndexMaximumWeight, descriptionIndexIdleTimeout);
+    }
+
+    @Bean
+    public DescriptionSearchIndex budgetDescriptionIndex() {
+        return new DescriptionSearchIndex(descriptionIndexMaximumWeight, descriptionIndexIdleTimeout);
+    }
+}
@@ -0,0 +1,96 @@
+package com.finance.app.config;
+
+import com.finance.app.cache.DataVersionCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * GET bersyarat untuk endpoint baca data transaksi. ETag diturunkan dari versi data user pada path variable
+ * {@code userId}; jika cocok dengan {@code If-None-Match}, request dijawab 304 sebelum controller dipanggil.
+ * Representasi biner (CBOR/Smile) mendapat ETag sendiri karena byte-nya berbeda dari JSON.
+ */
+@RequiredArgsConstructor
+class DataVersionEtagInterceptor implements HandlerInterceptor {
+    private static final String USER_ID_VARIABLE = "userId";
+    private static final HeaderContentNegotiationStrategy ACCEPT_HEADER = new HeaderContentNegotiationStrategy();
+
+    private final DataVersionCache dataVersionCache;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        Long userId = userIdOf(request);
+        if (userId == null) {
+            return true;
+        }
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = dataVersionCache.etag(userId, binaryFormatOf(webRequest));
+        // Tomcat tidak mengompresi respons ber-ETag kuat (byte terkompresi berbeda dari yang diwakili ETag-nya);
+        // klien yang menerima gzip mendapat ETag lemah. If-None-Match tetap dibandingkan secara lemah.
+        if (acceptsGzip(request)) {
+            etag = "W/" + etag;
+        }
+        // Menulis header ETag, atau status 304 jika ETag klien masih berlaku
+        return !webRequest.checkNotModified(etag);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    /**
+     * Menebak representasi yang akan dipilih content negotiation dari header Accept (terurut menurut kualitas):
+     * JSON didahulukan seperti urutan converter, sehingga {@code *}{@code /*} tetap menghasilkan JSON.
+     */
+    private static String binaryFormatOf(ServletWebRequest webRequest) {
+        List<MediaType> accepted;
+        try {
+            accepted = ACCEPT_HEADER.resolveMediaTypes(webRequest);
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return null;
+        }
+        for (MediaType mediaType : accepted) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+            if (mediaType.isCompatibleWith(WebConfig.APPLICATION_SMILE)) {
+                return "smile";
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long userIdOf(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get(USER_ID_VARIABLE) == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(variables.get(USER_ID_VARIABLE));
+        } catch (NumberFormatException e) {
+            // Dibiarkan ke controller agar menghasilkan error 400 seperti biasa
+            return null;
+        }
+    }
+}
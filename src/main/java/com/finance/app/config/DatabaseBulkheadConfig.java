@@ -0,0 +1,41 @@
+package com.finance.app.config;
+
+import com.finance.app.util.BulkheadDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DatabaseBulkheadConfig {
+
+    /**
+     * Membungkus DataSource aplikasi dengan {@link BulkheadDataSource}. Batas konkurensi default mengikuti ukuran
+     * pool Hikari sehingga antrean terjadi di bulkhead (terukur dan dapat ditolak) dan bukan di dalam pool.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource
+                        || !environment.getProperty("app.db.bulkhead.enabled", Boolean.class, true)) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                return new BulkheadDataSource(dataSource,
+                        environment.getProperty("app.db.bulkhead.max-concurrent", Integer.class, poolSize),
+                        environment.getProperty("app.db.bulkhead.max-waiters", Integer.class, 200),
+                        environment.getProperty("app.db.bulkhead.max-wait", Duration.class, Duration.ofSeconds(2)),
+                        meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+            }
+        };
+    }
+}
@@ -0,0 +1,199 @@
+package com.finance.app.config;
+
+import com.finance.app.cache.StoredResponse;
+import com.finance.app.exception.DatabaseBusyException;
+import com.finance.app.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Header {@code Idempotency-Key} untuk endpoint create. Retry dengan key yang sama mendapat respons yang tersimpan
+ * (status, content type, dan body yang sama, ditandai {@code Idempotent-Replayed: true}) tanpa menjalankan create lagi:
+ * dari cache in-memory, atau dari tabel {@code idempotency_key} lewat SELECT biasa tanpa kunci tulis.
+ *
+ * <p>Request pertama mengklaim key di transaksi yang sama dengan create-nya, lalu menyimpan respons 2xx sebelum commit.
+ * Request kembar yang tiba bersamaan menunggu klaim tersebut selesai lalu mendapat respons yang sama; respons gagal
+ * (non-2xx) ikut di-rollback sehingga request boleh diulang. Key yang dipakai ulang dengan body berbeda ditolak 422.</p>
+ */
+@RequiredArgsConstructor
+class IdempotencyFilter extends OncePerRequestFilter {
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        String scope = request.getMethod() + " " + request.getRequestURI();
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        byte[] requestHash = sha256(body);
+
+        try {
+            Optional<StoredResponse> stored = idempotencyService.find(scope, key);
+            if (stored.isPresent()) {
+                replay(stored.get(), requestHash, response);
+                return;
+            }
+            execute(scope, key, requestHash, new CachedBodyRequest(request, body), response, filterChain);
+        } catch (RuntimeException e) {
+            // Bulkhead database penuh saat membaca atau mengklaim key; dijawab sama seperti GlobalExceptionHandler
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof DatabaseBusyException busy) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(response, HttpStatus.SERVICE_UNAVAILABLE, busy.getMessage());
+                return;
+            }
+            throw e;
+        }
+    }
+
+    private void execute(String scope, String key, byte[] requestHash, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        try {
+            Optional<StoredResponse> claimedByOther = idempotencyService.claim(scope, key, requestHash);
+            if (claimedByOther.isPresent()) {
+                transactionManager.commit(transaction);
+                replay(claimedByOther.get(), requestHash, response);
+                return;
+            }
+
+            // Service create ikut transaksi ini, sehingga klaim key dan baris yang dibuat commit atau rollback bersama
+            filterChain.doFilter(request, captured);
+            if (HttpStatus.valueOf(captured.getStatus()).is2xxSuccessful()) {
+                idempotencyService.complete(scope, key, new StoredResponse(requestHash, captured.getStatus(), captured.getContentType(),
+                        captured.getContentAsByteArray()));
+                transactionManager.commit(transaction);
+            } else {
+                transactionManager.rollback(transaction);
+            }
+        } catch (ServletException | IOException | RuntimeException | Error e) {
+            if (!transaction.isCompleted()) {
+                transactionManager.rollback(transaction);
+            }
+            throw e;
+        }
+        captured.copyBodyToResponse();
+    }
+
+    private static void replay(StoredResponse stored, byte[] requestHash, HttpServletResponse response) throws IOException {
+        if (!Arrays.equals(stored.getRequestHash(), requestHash)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY + " was already used with a different request body");
+            return;
+        }
+        response.setStatus(stored.getStatusCode());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status.value());
+        response.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8).toString());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Request dengan body yang sudah dibaca ke memori (untuk dihitung hash-nya), agar controller tetap bisa membacanya.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
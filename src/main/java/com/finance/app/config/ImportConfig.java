@@ -0,0 +1,40 @@
+package com.finance.app.config;
+
+import com.finance.app.cache.ImportJobCache;
+import com.finance.app.importer.StatementImportPipeline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ImportConfig {
+    @Value("${app.import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${app.import.max-queued-jobs:8}")
+    private int maxQueuedJobs;
+
+    @Value("${app.import.queue-capacity:2000}")
+    private int queueCapacity;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.job-retention:1h}")
+    private Duration jobRetention;
+
+    @Value("${app.import.maximum-jobs:1000}")
+    private long maximumJobs;
+
+    @Bean
+    public StatementImportPipeline statementImportPipeline() {
+        return new StatementImportPipeline(maxConcurrentJobs, maxQueuedJobs, queueCapacity, batchSize);
+    }
+
+    @Bean
+    public ImportJobCache importJobCache() {
+        return new ImportJobCache(maximumJobs, jobRetention);
+    }
+}
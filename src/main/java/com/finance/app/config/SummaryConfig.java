@@ -0,0 +1,39 @@
+package com.finance.app.config;
+
+import com.finance.app.util.SectionExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+@Configuration
+public class SummaryConfig {
+    @Value("${app.summary.pool-size:8}")
+    private int poolSize;
+
+    @Value("${app.summary.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.summary.section-timeout:2s}")
+    private Duration sectionTimeout;
+
+    @Bean
+    public SectionExecutor summarySectionExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Satu virtual thread per section; konkurensi ke database dibatasi oleh BulkheadDataSource
+            return new SectionExecutor(new VirtualThreadTaskExecutor("summary-"), sectionTimeout);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("summary-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return new SectionExecutor(executor, sectionTimeout);
+    }
+}
@@ -0,0 +1,54 @@
+package com.finance.app.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.finance.app.cache.DataVersionCache;
+import com.finance.app.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final DataVersionCache dataVersionCache;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DataVersionEtagInterceptor(dataVersionCache))
+                .addPathPatterns("/api/expenses/**", "/api/incomes/**", "/api/budgets/**");
+    }
+
+    // Idempotency-Key hanya untuk endpoint create (POST); pola URL servlet dicocokkan persis
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyService idempotencyService,
+                                                                       PlatformTransactionManager transactionManager) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, transactionManager));
+        registration.addUrlPatterns("/api/users", "/api/expenses", "/api/expenses/batch", "/api/incomes", "/api/incomes/batch",
+                "/api/budgets", "/api/budgets/batch");
+        return registration;
+    }
+
+    // Representasi biner di samping JSON, dipilih lewat header Accept (application/cbor atau application/x-jackson-smile).
+    // Mapper dibangun dari builder Spring Boot agar pengaturan spring.jackson.* sama dengan JSON; JSON tetap default.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -1,14 +1,30 @@
 package com.finance.app.controller;
 
+import com.finance.app.dto.request.BudgetPatchRequest;
 import com.finance.app.dto.request.BudgetRequest;
+import com.finance.app.dto.response.BatchResponse;
 import com.finance.app.dto.response.BudgetResponse;
+import com.finance.app.dto.response.BudgetVarianceResponse;
+import com.finance.app.dto.response.ColumnarTotalsResponse;
 import com.finance.app.dto.response.CommonResponse;
+import com.finance.app.dto.response.CursorPageResponse;
+import com.finance.app.dto.response.MonthTotalResponse;
+import com.finance.app.dto.response.NamedTotalResponse;
+import com.finance.app.dto.response.PageResponse;
 import com.finance.app.service.BudgetService;
+import com.finance.app.util.ExportFormat;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -18,12 +34,13 @@ public class BudgetController {
     private final BudgetService budgetService;
 
     /**
-     * Mendapatkan semua budget berdasarkan ID user.
+     * Mendapatkan budget berdasarkan ID user per halaman (parameter page, size, sort).
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<CommonResponse<List<BudgetResponse>>> getAllBudgetsByUserId(@PathVariable Long userId) {
-        List<BudgetResponse> budgets = budgetService.getAllBudgetsByUserId(userId);
-        CommonResponse<List<BudgetResponse>> response = CommonResponse.<List<BudgetResponse>>builder()
+    public ResponseEntity<CommonResponse<PageResponse<BudgetResponse>>> getAllBudgetsByUserId(
+            @PathVariable Long userId, @ParameterObject @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        PageResponse<BudgetResponse> budgets = budgetService.getAllBudgetsByUserId(userId, pageable);
+        CommonResponse<PageResponse<BudgetResponse>> response = CommonResponse.<PageResponse<BudgetResponse>>builder()
                 .status("success")
                 .message("Budgets retrieved successfully")
                 .data(budgets)
@@ -32,6 +49,55 @@ public class BudgetController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Mendapatkan budget berdasarkan ID user pada rentang bulan tertentu (format yyyy-MM, inklusif) per halaman.
+     */
+    @GetMapping("/user/{userId}/range")
+    public ResponseEntity<CommonResponse<PageResponse<BudgetResponse>>> getBudgetsByUserIdAndMonthRange(
+            @PathVariable Long userId, @RequestParam YearMonth from, @RequestParam YearMonth to,
+            @ParameterObject @PageableDefault(size = 20, sort = "month") Pageable pageable) {
+        PageResponse<BudgetResponse> budgets = budgetService.getBudgetsByUserIdAndMonthRange(userId, from, to, pageable);
+        CommonResponse<PageResponse<BudgetResponse>> response = CommonResponse.<PageResponse<BudgetResponse>>builder()
+                .status("success")
+                .message("Budgets retrieved successfully")
+                .data(budgets)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Mendapatkan budget berdasarkan ID user dengan paginasi cursor (aktif bila parameter cursor dikirim,
+     * kosong untuk halaman pertama). sortBy: "month" atau "amount", urut menurun.
+     */
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    public ResponseEntity<CommonResponse<List<BudgetResponse>>> getBudgetsByUserIdAfterCursor(
+            @PathVariable Long userId, @RequestParam String cursor,
+            @RequestParam(defaultValue = "month") String sortBy, @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponse<BudgetResponse> budgets = budgetService.getBudgetsByUserIdAfterCursor(userId, sortBy, cursor, size);
+        CommonResponse<List<BudgetResponse>> response = CommonResponse.<List<BudgetResponse>>builder()
+                .status("success")
+                .message("Budgets retrieved successfully")
+                .data(budgets.getContent())
+                .code(HttpStatus.OK.value())
+                .nextCursor(budgets.getNextCursor())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Mengekspor seluruh budget milik user sebagai NDJSON atau CSV (di-stream baris per baris).
+     */
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportBudgetsByUserId(@PathVariable Long userId, @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = outputStream -> budgetService.exportBudgetsByUserId(userId, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"budgets-user-" + userId + "." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
     /**
      * Mendapatkan budget berdasarkan ID budget dan ID user.
      */
@@ -63,6 +129,22 @@ public class BudgetController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Membuat banyak budget sekaligus; 207 bila ada item yang gagal.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<CommonResponse<BatchResponse<BudgetResponse>>> createBudgets(@RequestBody List<BudgetRequest> budgetRequests) {
+        BatchResponse<BudgetResponse> budgets = budgetService.createBudgets(budgetRequests);
+        HttpStatus status = budgets.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        CommonResponse<BatchResponse<BudgetResponse>> response = CommonResponse.<BatchResponse<BudgetResponse>>builder()
+                .status("success")
+                .message(budgets.getCreated() + " budgets created, " + budgets.getFailed() + " failed")
+                .data(budgets)
+                .code(status.value())
+                .build();
+        return ResponseEntity.status(status).body(response);
+    }
+
     /**
      * Mengupdate budget yang ada.
      */
@@ -79,6 +161,23 @@ public class BudgetController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Mengubah sebagian field budget milik user; field yang tidak dikirim tidak diubah, dan version yang tertinggal
+     * menghasilkan 409 Conflict.
+     */
+    @PatchMapping("/{budgetId}")
+    public ResponseEntity<CommonResponse<BudgetResponse>> patchBudget(
+            @PathVariable Long budgetId, @RequestBody BudgetPatchRequest patchRequest) {
+        BudgetResponse budget = budgetService.patchBudget(budgetId, patchRequest);
+        CommonResponse<BudgetResponse> response = CommonResponse.<BudgetResponse>builder()
+                .status("success")
+                .message("Budget updated successfully")
+                .data(budget)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Menghapus budget berdasarkan ID.
      */
@@ -94,6 +193,42 @@ public class BudgetController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Menghapus seluruh budget milik user pada rentang bulan (format yyyy-MM, inklusif) dalam satu statement.
+     */
+    @DeleteMapping(value = "/user/{userId}", params = {"from", "to"})
+    public ResponseEntity<CommonResponse<Integer>> deleteBudgetsByMonthRange(
+            @PathVariable Long userId, @RequestParam YearMonth from, @RequestParam YearMonth to) {
+        return bulkDeleted(budgetService.deleteBudgetsByMonthRange(userId, from, to));
+    }
+
+    /**
+     * Menghapus seluruh budget milik user dengan amount pada rentang tertentu (inklusif) dalam satu statement.
+     */
+    @DeleteMapping(value = "/user/{userId}", params = {"minAmount", "maxAmount"})
+    public ResponseEntity<CommonResponse<Integer>> deleteBudgetsByAmountRange(
+            @PathVariable Long userId, @RequestParam Double minAmount, @RequestParam Double maxAmount) {
+        return bulkDeleted(budgetService.deleteBudgetsByAmountRange(userId, minAmount, maxAmount));
+    }
+
+    /**
+     * Menghapus budget milik user berdasarkan daftar ID (ids=1,2,3) dalam satu statement; ID milik user lain diabaikan.
+     */
+    @DeleteMapping(value = "/user/{userId}", params = "ids")
+    public ResponseEntity<CommonResponse<Integer>> deleteBudgetsByIds(@PathVariable Long userId, @RequestParam List<Long> ids) {
+        return bulkDeleted(budgetService.deleteBudgetsByIds(userId, ids));
+    }
+
+    private ResponseEntity<CommonResponse<Integer>> bulkDeleted(int deleted) {
+        CommonResponse<Integer> response = CommonResponse.<Integer>builder()
+                .status("success")
+                .message(deleted + " budgets deleted")
+                .data(deleted)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     // Native Query Operations
 
     @GetMapping("/user/{userId}/max-amount")
@@ -120,6 +255,30 @@ public class BudgetController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/user/{userId}/top")
+    public ResponseEntity<CommonResponse<List<BudgetResponse>>> getTopAmountBudgetsByUserId(@PathVariable Long userId, @RequestParam(defaultValue = "10") int k) {
+        List<BudgetResponse> budgets = budgetService.getTopAmountBudgetsByUserId(userId, k);
+        CommonResponse<List<BudgetResponse>> response = CommonResponse.<List<BudgetResponse>>builder()
+                .status("success")
+                .message("Top " + k + " budgets by amount retrieved successfully")
+                .data(budgets)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/user/{userId}/bottom")
+    public ResponseEntity<CommonResponse<List<BudgetResponse>>> getBottomAmountBudgetsByUserId(@PathVariable Long userId, @RequestParam(defaultValue = "10") int k) {
+        List<BudgetResponse> budgets = budgetService.getBottomAmountBudgetsByUserId(userId, k);
+        CommonResponse<List<BudgetResponse>> response = CommonResponse.<List<BudgetResponse>>builder()
+                .status("success")
+                .message("Bottom " + k + " budgets by amount retrieved successfully")
+                .data(budgets)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user/{userId}/greater-than/{amount}")
     public ResponseEntity<CommonResponse<List<BudgetResponse>>> getBudgetsGreaterThanAmountByUserId(
             @PathVariable Long userId, @PathVariable Double amount) {
@@ -146,9 +305,10 @@ public class BudgetController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/description/{keyword}")
-    public ResponseEntity<CommonResponse<List<BudgetResponse>>> getBudgetsByDescriptionContaining(@PathVariable String keyword) {
-        List<BudgetResponse> budgets = budgetService.getBudgetsByDescriptionContaining(keyword);
+    @GetMapping("/user/{userId}/description/{keyword}")
+    public ResponseEntity<CommonResponse<List<BudgetResponse>>> getBudgetsByDescriptionContaining(@PathVariable Long userId, @PathVariable String keyword,
+                                                                                                  @RequestParam(defaultValue = "50") int limit) {
+        List<BudgetResponse> budgets = budgetService.getBudgetsByDescriptionContaining(userId, keyword, limit);
         CommonResponse<List<BudgetResponse>> response = CommonResponse.<List<BudgetResponse>>builder()
                 .status("success")
                 .message("Budgets by description retrieved successfully")
@@ -171,9 +331,9 @@ public class BudgetController {
     }
 
     @GetMapping("/user/{userId}/budget-count-by-month")
-    public ResponseEntity<CommonResponse<List<Object[]>>> getBudgetCountByMonthForUser(@PathVariable Long userId) {
-        List<Object[]> budgetCounts = budgetService.getBudgetCountByMonthForUser(userId);
-        CommonResponse<List<Object[]>> response = CommonResponse.<List<Object[]>>builder()
+    public ResponseEntity<CommonResponse<List<MonthTotalResponse>>> getBudgetCountByMonthForUser(@PathVariable Long userId) {
+        List<MonthTotalResponse> budgetCounts = budgetService.getBudgetCountByMonthForUser(userId);
+        CommonResponse<List<MonthTotalResponse>> response = CommonResponse.<List<MonthTotalResponse>>builder()
                 .status("success")
                 .message("Budget count by month retrieved successfully")
                 .data(budgetCounts)
@@ -182,10 +342,42 @@ public class BudgetController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Sama seperti {@link #getBudgetCountByMonthForUser(Long)} dalam bentuk kolom (array paralel), untuk deret yang panjang.
+     */
+    @GetMapping(value = "/user/{userId}/budget-count-by-month", params = "layout=columnar")
+    public ResponseEntity<CommonResponse<ColumnarTotalsResponse<String>>> getBudgetCountByMonthForUserColumnar(@PathVariable Long userId) {
+        List<MonthTotalResponse> budgetCounts = budgetService.getBudgetCountByMonthForUser(userId);
+        CommonResponse<ColumnarTotalsResponse<String>> response = CommonResponse.<ColumnarTotalsResponse<String>>builder()
+                .status("success")
+                .message("Budget count by month retrieved successfully")
+                .data(ColumnarTotalsResponse.of(budgetCounts, MonthTotalResponse::getMonth, MonthTotalResponse::getCount, MonthTotalResponse::getSum))
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Membandingkan budget dengan realisasi expense per bulan dan kategori: budgeted, spent, remaining, dan
+     * persentase terpakai. Parameter from/to (format yyyy-MM, inklusif) opsional.
+     */
+    @GetMapping("/user/{userId}/variance")
+    public ResponseEntity<CommonResponse<List<BudgetVarianceResponse>>> getBudgetVarianceForUser(
+            @PathVariable Long userId, @RequestParam(required = false) YearMonth from, @RequestParam(required = false) YearMonth to) {
+        List<BudgetVarianceResponse> variance = budgetService.getBudgetVarianceForUser(userId, from, to);
+        CommonResponse<List<BudgetVarianceResponse>> response = CommonResponse.<List<BudgetVarianceResponse>>builder()
+                .status("success")
+                .message("Budget variance retrieved successfully")
+                .data(variance)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user/{userId}/budget-count-by-category")
-    public ResponseEntity<CommonResponse<List<Object[]>>> getBudgetCountByCategoryForUser(@PathVariable Long userId) {
-        List<Object[]> budgetCounts = budgetService.getBudgetCountByCategoryForUser(userId);
-        CommonResponse<List<Object[]>> response = CommonResponse.<List<Object[]>>builder()
+    public ResponseEntity<CommonResponse<List<NamedTotalResponse>>> getBudgetCountByCategoryForUser(@PathVariable Long userId) {
+        List<NamedTotalResponse> budgetCounts = budgetService.getBudgetCountByCategoryForUser(userId);
+        CommonResponse<List<NamedTotalResponse>> response = CommonResponse.<List<NamedTotalResponse>>builder()
                 .status("success")
                 .message("Budget count by category retrieved successfully")
                 .data(budgetCounts)
@@ -193,4 +385,19 @@ public class BudgetController {
                 .build();
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Sama seperti {@link #getBudgetCountByCategoryForUser(Long)} dalam bentuk kolom (array paralel), untuk deret yang panjang.
+     */
+    @GetMapping(value = "/user/{userId}/budget-count-by-category", params = "layout=columnar")
+    public ResponseEntity<CommonResponse<ColumnarTotalsResponse<String>>> getBudgetCountByCategoryForUserColumnar(@PathVariable Long userId) {
+        List<NamedTotalResponse> budgetCounts = budgetService.getBudgetCountByCategoryForUser(userId);
+        CommonResponse<ColumnarTotalsResponse<String>> response = CommonResponse.<ColumnarTotalsResponse<String>>builder()
+                .status("success")
+                .message("Budget count by category retrieved successfully")
+                .data(ColumnarTotalsResponse.of(budgetCounts, NamedTotalResponse::getName, NamedTotalResponse::getCount, NamedTotalResponse::getSum))
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,15 +1,34 @@
 package com.finance.app.controller;
 
+import com.finance.app.dto.request.ExpensePatchRequest;
 import com.finance.app.dto.request.ExpenseRequest;
+import com.finance.app.dto.response.BatchResponse;
+import com.finance.app.dto.response.ColumnarTotalsResponse;
 import com.finance.app.dto.response.CommonResponse;
+import com.finance.app.dto.response.CursorPageResponse;
 import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.dto.response.HistogramBucketResponse;
+import com.finance.app.dto.response.MonthOfYearTotalResponse;
+import com.finance.app.dto.response.NamedTotalResponse;
+import com.finance.app.dto.response.PageResponse;
+import com.finance.app.dto.response.YearTotalResponse;
 import com.finance.app.service.ExpanseService;
+import com.finance.app.util.ExportFormat;
+import com.finance.app.util.HistogramBucket;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,14 +39,40 @@ public class ExpenseController {
     private final ExpanseService expanseService;
 
     /**
-     * Mendapatkan semua expense berdasarkan user
+     * Mendapatkan expense berdasarkan user per halaman
      * @param userId ID dari user
-     * @return CommonResponse yang berisi daftar expense untuk user tertentu
+     * @param pageable Parameter page, size, dan sort (contoh: sort=date,desc)
+     * @return CommonResponse yang berisi satu halaman expense untuk user tertentu beserta metadata halaman
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<CommonResponse<List<ExpenseResponse>>> getAllExpensesByUserId(@PathVariable Long userId) {
-        List<ExpenseResponse> expenses = expanseService.getAllExpensesByUserId(userId);
-        CommonResponse<List<ExpenseResponse>> response = CommonResponse.<List<ExpenseResponse>>builder()
+    public ResponseEntity<CommonResponse<PageResponse<ExpenseResponse>>> getAllExpensesByUserId(
+            @PathVariable Long userId, @ParameterObject @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        PageResponse<ExpenseResponse> expenses = expanseService.getAllExpensesByUserId(userId, pageable);
+        CommonResponse<PageResponse<ExpenseResponse>> response = CommonResponse.<PageResponse<ExpenseResponse>>builder()
+                .status("success")
+                .message("Expenses fetched successfully")
+                .data(expenses)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Mendapatkan expense berdasarkan user pada rentang tanggal tertentu per halaman
+     * @param userId ID dari user
+     * @param from Tanggal awal (inklusif), format yyyy-MM-dd
+     * @param to Tanggal akhir (inklusif), format yyyy-MM-dd
+     * @param pageable Parameter page, size, dan sort
+     * @return CommonResponse yang berisi satu halaman expense pada rentang tanggal tersebut
+     */
+    @GetMapping("/range/{userId}")
+    public ResponseEntity<CommonResponse<PageResponse<ExpenseResponse>>> getExpensesByUserIdAndDateRange(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @ParameterObject @PageableDefault(size = 20, sort = "date") Pageable pageable) {
+        PageResponse<ExpenseResponse> expenses = expanseService.getExpensesByUserIdAndDateRange(userId, from, to, pageable);
+        CommonResponse<PageResponse<ExpenseResponse>> response = CommonResponse.<PageResponse<ExpenseResponse>>builder()
                 .status("success")
                 .message("Expenses fetched successfully")
                 .data(expenses)
@@ -36,6 +81,48 @@ public class ExpenseController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Mendapatkan expense berdasarkan user dengan paginasi cursor (aktif bila parameter cursor dikirim).
+     * Kirim cursor kosong untuk halaman pertama, lalu nextCursor dari respons untuk halaman berikutnya.
+     * Data dengan nilai kolom urutan kosong (null) tidak ikut pada mode ini.
+     * @param userId ID dari user
+     * @param cursor Token dari respons sebelumnya
+     * @param sortBy Kolom urutan menurun: "date" atau "amount"
+     * @param size Jumlah data per halaman
+     * @return CommonResponse yang berisi daftar expense dan nextCursor
+     */
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    public ResponseEntity<CommonResponse<List<ExpenseResponse>>> getExpensesByUserIdAfterCursor(
+            @PathVariable Long userId, @RequestParam String cursor,
+            @RequestParam(defaultValue = "date") String sortBy, @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponse<ExpenseResponse> expenses = expanseService.getExpensesByUserIdAfterCursor(userId, sortBy, cursor, size);
+        CommonResponse<List<ExpenseResponse>> response = CommonResponse.<List<ExpenseResponse>>builder()
+                .status("success")
+                .message("Expenses fetched successfully")
+                .data(expenses.getContent())
+                .code(HttpStatus.OK.value())
+                .nextCursor(expenses.getNextCursor())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Mengekspor seluruh expense milik user sebagai NDJSON atau CSV.
+     * Data ditulis langsung ke respons baris per baris sehingga penggunaan memori tetap datar berapapun jumlah datanya.
+     * @param userId ID dari user
+     * @param format Format ekspor: "ndjson" (default) atau "csv"
+     * @return Body respons yang di-stream
+     */
+    @GetMapping("/export/{userId}")
+    public ResponseEntity<StreamingResponseBody> exportExpensesByUserId(@PathVariable Long userId, @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = outputStream -> expanseService.exportExpensesByUserId(userId, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses-user-" + userId + "." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
     /**
      * Mendapatkan expense berdasarkan ID expense dan user
      * @param expenseId ID dari expense
@@ -71,6 +158,24 @@ public class ExpenseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Membuat banyak expense sekaligus (misalnya dari sinkronisasi bank) dalam satu transaksi
+     * @param expenseRequests Daftar request expense, maksimal 5000 item
+     * @return CommonResponse yang berisi hasil per item; 207 bila ada item yang gagal
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<CommonResponse<BatchResponse<ExpenseResponse>>> createExpenses(@RequestBody List<ExpenseRequest> expenseRequests) {
+        BatchResponse<ExpenseResponse> expenses = expanseService.createExpenses(expenseRequests);
+        HttpStatus status = expenses.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        CommonResponse<BatchResponse<ExpenseResponse>> response = CommonResponse.<BatchResponse<ExpenseResponse>>builder()
+                .status("success")
+                .message(expenses.getCreated() + " expenses created, " + expenses.getFailed() + " failed")
+                .data(expenses)
+                .code(status.value())
+                .build();
+        return ResponseEntity.status(status).body(response);
+    }
+
     /**
      * Mengupdate expense berdasarkan user
      * @param expenseId ID dari expense yang akan diupdate
@@ -89,6 +194,26 @@ public class ExpenseController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Mengubah sebagian field expense berdasarkan user dalam satu statement UPDATE.
+     * Field yang tidak dikirim (null) tidak diubah. Jika version dikirim dan sudah tidak sama dengan version di database,
+     * respons bernilai 409 Conflict.
+     * @param expenseId ID dari expense yang akan diubah
+     * @param patchRequest Request yang berisi userId, field yang akan diubah, dan version (opsional)
+     * @return CommonResponse yang berisi detail expense setelah diubah beserta version barunya
+     */
+    @PatchMapping("/{expenseId}")
+    public ResponseEntity<CommonResponse<ExpenseResponse>> patchExpense(@PathVariable Long expenseId, @RequestBody ExpensePatchRequest patchRequest) {
+        ExpenseResponse expense = expanseService.patchExpense(expenseId, patchRequest);
+        CommonResponse<ExpenseResponse> response = CommonResponse.<ExpenseResponse>builder()
+                .status("success")
+                .message("Expense updated successfully")
+                .data(expense)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Menghapus expense berdasarkan user
      * @param expenseId ID dari expense yang akan dihapus
@@ -106,6 +231,55 @@ public class ExpenseController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Menghapus seluruh expense milik user pada rentang tanggal dalam satu statement
+     * @param userId ID dari user
+     * @param from Tanggal awal (inklusif), format yyyy-MM-dd
+     * @param to Tanggal akhir (inklusif), format yyyy-MM-dd
+     * @return CommonResponse yang berisi jumlah expense yang dihapus
+     */
+    @DeleteMapping(value = "/user/{userId}", params = {"from", "to"})
+    public ResponseEntity<CommonResponse<Integer>> deleteExpensesByDateRange(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return bulkDeleted(expanseService.deleteExpensesByDateRange(userId, from, to));
+    }
+
+    /**
+     * Menghapus seluruh expense milik user dengan amount pada rentang tertentu dalam satu statement
+     * @param userId ID dari user
+     * @param minAmount Amount minimum (inklusif)
+     * @param maxAmount Amount maksimum (inklusif)
+     * @return CommonResponse yang berisi jumlah expense yang dihapus
+     */
+    @DeleteMapping(value = "/user/{userId}", params = {"minAmount", "maxAmount"})
+    public ResponseEntity<CommonResponse<Integer>> deleteExpensesByAmountRange(
+            @PathVariable Long userId, @RequestParam Double minAmount, @RequestParam Double maxAmount) {
+        return bulkDeleted(expanseService.deleteExpensesByAmountRange(userId, minAmount, maxAmount));
+    }
+
+    /**
+     * Menghapus expense milik user berdasarkan daftar ID dalam satu statement; ID milik user lain diabaikan
+     * @param userId ID dari user
+     * @param ids Daftar ID expense, misalnya ids=1,2,3
+     * @return CommonResponse yang berisi jumlah expense yang dihapus
+     */
+    @DeleteMapping(value = "/user/{userId}", params = "ids")
+    public ResponseEntity<CommonResponse<Integer>> deleteExpensesByIds(@PathVariable Long userId, @RequestParam List<Long> ids) {
+        return bulkDeleted(expanseService.deleteExpensesByIds(userId, ids));
+    }
+
+    private ResponseEntity<CommonResponse<Integer>> bulkDeleted(int deleted) {
+        CommonResponse<Integer> response = CommonResponse.<Integer>builder()
+                .status("success")
+                .message(deleted + " expenses deleted")
+                .data(deleted)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     // Native Query Operations
 
     @GetMapping("/max/{userId}")
@@ -132,6 +306,30 @@ public class ExpenseController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/top/{userId}")
+    public ResponseEntity<CommonResponse<List<ExpenseResponse>>> getTopAmountExpensesByUserId(@PathVariable Long userId, @RequestParam(defaultValue = "10") int k) {
+        List<ExpenseResponse> expenses = expanseService.getTopAmountExpensesByUserId(userId, k);
+        CommonResponse<List<ExpenseResponse>> response = CommonResponse.<List<ExpenseResponse>>builder()
+                .status("success")
+                .message("Top " + k + " expenses by amount fetched successfully")
+                .data(expenses)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/bottom/{userId}")
+    public ResponseEntity<CommonResponse<List<ExpenseResponse>>> getBottomAmountExpensesByUserId(@PathVariable Long userId, @RequestParam(defaultValue = "10") int k) {
+        List<ExpenseResponse> expenses = expanseService.getBottomAmountExpensesByUserId(userId, k);
+        CommonResponse<List<ExpenseResponse>> response = CommonResponse.<List<ExpenseResponse>>builder()
+                .status("success")
+                .message("Bottom " + k + " expenses by amount fetched successfully")
+                .data(expenses)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/greater-than/{userId}/{amount}")
     public ResponseEntity<CommonResponse<List<ExpenseResponse>>> getExpensesGreaterThanAmountByUserId(@PathVariable Long userId, @PathVariable Double amount) {
         List<ExpenseResponse> expenses = expanseService.getExpensesGreaterThanAmountByUserId(userId, amount);
@@ -157,8 +355,9 @@ public class ExpenseController {
     }
 
     @GetMapping("/description/{userId}/{keyword}")
-    public ResponseEntity<CommonResponse<List<ExpenseResponse>>> getExpensesByDescriptionContainingIgnoreCase(@PathVariable Long userId, @PathVariable String keyword) {
-        List<ExpenseResponse> expenses = expanseService.getExpensesByDescriptionContainingIgnoreCase(userId, keyword);
+    public ResponseEntity<CommonResponse<List<ExpenseResponse>>> getExpensesByDescriptionContainingIgnoreCase(@PathVariable Long userId, @PathVariable String keyword,
+                                                                                                              @RequestParam(defaultValue = "50") int limit) {
+        List<ExpenseResponse> expenses = expanseService.getExpensesByDescriptionContainingIgnoreCase(userId, keyword, limit);
         CommonResponse<List<ExpenseResponse>> response = CommonResponse.<List<ExpenseResponse>>builder()
                 .status("success")
                 .message("Expenses with description containing keyword fetched successfully")
@@ -181,9 +380,9 @@ public class ExpenseController {
     }
 
     @GetMapping("/count-by-month/{userId}")
-    public ResponseEntity<CommonResponse<List<Object[]>>> getExpenseCountByMonthForUser(@PathVariable Long userId) {
-        List<Object[]> countByMonth = expanseService.getExpenseCountByMonthForUser(userId);
-        CommonResponse<List<Object[]>> response = CommonResponse.<List<Object[]>>builder()
+    public ResponseEntity<CommonResponse<List<MonthOfYearTotalResponse>>> getExpenseCountByMonthForUser(@PathVariable Long userId) {
+        List<MonthOfYearTotalResponse> countByMonth = expanseService.getExpenseCountByMonthForUser(userId);
+        CommonResponse<List<MonthOfYearTotalResponse>> response = CommonResponse.<List<MonthOfYearTotalResponse>>builder()
                 .status("success")
                 .message("Expense count by month fetched successfully")
                 .data(countByMonth)
@@ -192,10 +391,25 @@ public class ExpenseController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Sama seperti {@link #getExpenseCountByMonthForUser(Long)} dalam bentuk kolom (array paralel), untuk deret yang panjang.
+     */
+    @GetMapping(value = "/count-by-month/{userId}", params = "layout=columnar")
+    public ResponseEntity<CommonResponse<ColumnarTotalsResponse<Integer>>> getExpenseCountByMonthForUserColumnar(@PathVariable Long userId) {
+        List<MonthOfYearTotalResponse> countByMonth = expanseService.getExpenseCountByMonthForUser(userId);
+        CommonResponse<ColumnarTotalsResponse<Integer>> response = CommonResponse.<ColumnarTotalsResponse<Integer>>builder()
+                .status("success")
+                .message("Expense count by month fetched successfully")
+                .data(ColumnarTotalsResponse.of(countByMonth, MonthOfYearTotalResponse::getMonth, MonthOfYearTotalResponse::getCount, MonthOfYearTotalResponse::getSum))
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/count-by-year/{userId}")
-    public ResponseEntity<CommonResponse<List<Object[]>>> getExpenseCountByYearForUser(@PathVariable Long userId) {
-        List<Object[]> countByYear = expanseService.getExpenseCountByYearForUser(userId);
-        CommonResponse<List<Object[]>> response = CommonResponse.<List<Object[]>>builder()
+    public ResponseEntity<CommonResponse<List<YearTotalResponse>>> getExpenseCountByYearForUser(@PathVariable Long userId) {
+        List<YearTotalResponse> countByYear = expanseService.getExpenseCountByYearForUser(userId);
+        CommonResponse<List<YearTotalResponse>> response = CommonResponse.<List<YearTotalResponse>>builder()
                 .status("success")
                 .message("Expense count by year fetched successfully")
                 .data(countByYear)
@@ -203,4 +417,68 @@ public class ExpenseController {
                 .build();
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Sama seperti {@link #getExpenseCountByYearForUser(Long)} dalam bentuk kolom (array paralel), untuk deret yang panjang.
+     */
+    @GetMapping(value = "/count-by-year/{userId}", params = "layout=columnar")
+    public ResponseEntity<CommonResponse<ColumnarTotalsResponse<Integer>>> getExpenseCountByYearForUserColumnar(@PathVariable Long userId) {
+        List<YearTotalResponse> countByYear = expanseService.getExpenseCountByYearForUser(userId);
+        CommonResponse<ColumnarTotalsResponse<Integer>> response = CommonResponse.<ColumnarTotalsResponse<Integer>>builder()
+                .status("success")
+                .message("Expense count by year fetched successfully")
+                .data(ColumnarTotalsResponse.of(countByYear, YearTotalResponse::getYear, YearTotalResponse::getCount, YearTotalResponse::getSum))
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/count-by-category/{userId}")
+    public ResponseEntity<CommonResponse<List<NamedTotalResponse>>> getExpenseCountByCategoryForUser(@PathVariable Long userId) {
+        List<NamedTotalResponse> countByCategory = expanseService.getExpenseCountByCategoryForUser(userId);
+        CommonResponse<List<NamedTotalResponse>> response = CommonResponse.<List<NamedTotalResponse>>builder()
+                .status("success")
+                .message("Expense count by category fetched successfully")
+                .data(countByCategory)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Sama seperti {@link #getExpenseCountByCategoryForUser(Long)} dalam bentuk kolom (array paralel), untuk deret yang panjang.
+     */
+    @GetMapping(value = "/count-by-category/{userId}", params = "layout=columnar")
+    public ResponseEntity<CommonResponse<ColumnarTotalsResponse<String>>> getExpenseCountByCategoryForUserColumnar(@PathVariable Long userId) {
+        List<NamedTotalResponse> countByCategory = expanseService.getExpenseCountByCategoryForUser(userId);
+        CommonResponse<ColumnarTotalsResponse<String>> response = CommonResponse.<ColumnarTotalsResponse<String>>builder()
+                .status("success")
+                .message("Expense count by category fetched successfully")
+                .data(ColumnarTotalsResponse.of(countByCategory, NamedTotalResponse::getName, NamedTotalResponse::getCount, NamedTotalResponse::getSum))
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Histogram expense per bucket tanggal dengan count, sum, dan avg per bucket; bucket tanpa data tetap dikembalikan.
+     * @param bucket day, week, month, quarter, atau year
+     * @param from Tanggal awal (inklusif), format yyyy-MM-dd; diperluas ke awal bucket-nya
+     * @param to Tanggal akhir (inklusif), format yyyy-MM-dd; diperluas ke akhir bucket-nya
+     */
+    @GetMapping("/histogram/{userId}")
+    public ResponseEntity<CommonResponse<List<HistogramBucketResponse>>> getExpenseHistogram(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "month") String bucket,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<HistogramBucketResponse> histogram = expanseService.getExpenseHistogram(userId, HistogramBucket.from(bucket), from, to);
+        CommonResponse<List<HistogramBucketResponse>> response = CommonResponse.<List<HistogramBucketResponse>>builder()
+                .status("success")
+                .message("Expense histogram fetched successfully")
+                .data(histogram)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
 }
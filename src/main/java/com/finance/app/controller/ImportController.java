@@ -0,0 +1,56 @@
+package com.finance.app.controller;
+
+import com.finance.app.dto.response.CommonResponse;
+import com.finance.app.dto.response.ImportJobResponse;
+import com.finance.app.service.StatementImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+public class ImportController {
+    private final StatementImportService statementImportService;
+
+    /**
+     * Mengunggah file mutasi rekening (CSV atau OFX) untuk diimpor sebagai income dan expense milik user.
+     * File diproses di latar belakang; gunakan jobId pada respons untuk memantau progresnya.
+     * @param format csv atau ofx; jika kosong ditebak dari ekstensi nama file
+     */
+    @PostMapping(value = "/user/{userId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CommonResponse<ImportJobResponse>> startImport(@PathVariable Long userId,
+                                                                         @RequestParam("file") MultipartFile file,
+                                                                         @RequestParam(required = false) String format) throws IOException {
+        ImportJobResponse job = statementImportService.startImport(userId, file, format);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/imports/" + job.getJobId())
+                .body(CommonResponse.<ImportJobResponse>builder()
+                        .status("success")
+                        .message("Import started")
+                        .data(job)
+                        .code(HttpStatus.ACCEPTED.value())
+                        .build());
+    }
+
+    /**
+     * Mendapatkan status dan progres job import.
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<CommonResponse<ImportJobResponse>> getImportJob(@PathVariable String jobId) {
+        ImportJobResponse job = statementImportService.getImportJob(jobId);
+        CommonResponse<ImportJobResponse> response = CommonResponse.<ImportJobResponse>builder()
+                .status("success")
+                .message("Import job retrieved successfully")
+                .data(job)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,15 +1,33 @@
 package com.finance.app.controller;
 
+import com.finance.app.dto.request.IncomePatchRequest;
 import com.finance.app.dto.request.IncomeRequest;
+import com.finance.app.dto.response.BatchResponse;
+import com.finance.app.dto.response.ColumnarTotalsResponse;
 import com.finance.app.dto.response.CommonResponse;
+import com.finance.app.dto.response.CursorPageResponse;
+import com.finance.app.dto.response.HistogramBucketResponse;
 import com.finance.app.dto.response.IncomeResponse;
+import com.finance.app.dto.response.MonthOfYearTotalResponse;
+import com.finance.app.dto.response.NamedTotalResponse;
+import com.finance.app.dto.response.PageResponse;
 import com.finance.app.service.IncomeService;
+import com.finance.app.util.ExportFormat;
+import com.finance.app.util.HistogramBucket;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,10 +37,11 @@ public class IncomeController {
     private final IncomeService incomeService;
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<CommonResponse<List<IncomeResponse>>> getAllIncomesByUserId(@PathVariable Long userId) {
-        List<IncomeResponse> incomes = incomeService.getAllIncomesByUserId(userId);
+    public ResponseEntity<CommonResponse<PageResponse<IncomeResponse>>> getAllIncomesByUserId(
+            @PathVariable Long userId, @ParameterObject @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        PageResponse<IncomeResponse> incomes = incomeService.getAllIncomesByUserId(userId, pageable);
         return ResponseEntity.ok(
-                CommonResponse.<List<IncomeResponse>>builder()
+                CommonResponse.<PageResponse<IncomeResponse>>builder()
                         .status("success")
                         .message("Fetched all incomes for user id: " + userId)
                         .data(incomes)
@@ -31,6 +50,49 @@ public class IncomeController {
         );
     }
 
+    @GetMapping("/range/user/{userId}")
+    public ResponseEntity<CommonResponse<PageResponse<IncomeResponse>>> getIncomesByUserIdAndDateRange(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @ParameterObject @PageableDefault(size = 20, sort = "date") Pageable pageable) {
+        PageResponse<IncomeResponse> incomes = incomeService.getIncomesByUserIdAndDateRange(userId, from, to, pageable);
+        return ResponseEntity.ok(
+                CommonResponse.<PageResponse<IncomeResponse>>builder()
+                        .status("success")
+                        .message("Fetched incomes from " + from + " to " + to + " for user id: " + userId)
+                        .data(incomes)
+                        .code(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    public ResponseEntity<CommonResponse<List<IncomeResponse>>> getIncomesByUserIdAfterCursor(
+            @PathVariable Long userId, @RequestParam String cursor,
+            @RequestParam(defaultValue = "date") String sortBy, @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponse<IncomeResponse> incomes = incomeService.getIncomesByUserIdAfterCursor(userId, sortBy, cursor, size);
+        return ResponseEntity.ok(
+                CommonResponse.<List<IncomeResponse>>builder()
+                        .status("success")
+                        .message("Fetched incomes for user id: " + userId)
+                        .data(incomes.getContent())
+                        .code(HttpStatus.OK.value())
+                        .nextCursor(incomes.getNextCursor())
+                        .build()
+        );
+    }
+
+    @GetMapping("/export/user/{userId}")
+    public ResponseEntity<StreamingResponseBody> exportIncomesByUserId(@PathVariable Long userId, @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = outputStream -> incomeService.exportIncomesByUserId(userId, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"incomes-user-" + userId + "." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{incomeId}/user/{userId}")
     public ResponseEntity<CommonResponse<IncomeResponse>> getIncomeByIdAndUserId(@PathVariable Long incomeId, @PathVariable Long userId) {
         IncomeResponse income = incomeService.getIncomeByIdAndUserId(incomeId, userId);
@@ -57,6 +119,20 @@ public class IncomeController {
         );
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<CommonResponse<BatchResponse<IncomeResponse>>> createIncomes(@RequestBody List<IncomeRequest> incomeRequests) {
+        BatchResponse<IncomeResponse> createdIncomes = incomeService.createIncomes(incomeRequests);
+        HttpStatus status = createdIncomes.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(
+                CommonResponse.<BatchResponse<IncomeResponse>>builder()
+                        .status("success")
+                        .message(createdIncomes.getCreated() + " incomes created, " + createdIncomes.getFailed() + " failed")
+                        .data(createdIncomes)
+                        .code(status.value())
+                        .build()
+        );
+    }
+
     @PutMapping("/{incomeId}")
     public ResponseEntity<CommonResponse<IncomeResponse>> updateIncome(@PathVariable Long incomeId, @RequestBody IncomeRequest incomeRequest) {
         IncomeResponse updatedIncome = incomeService.updateIncome(incomeId, incomeRequest);
@@ -70,6 +146,19 @@ public class IncomeController {
         );
     }
 
+    @PatchMapping("/{incomeId}")
+    public ResponseEntity<CommonResponse<IncomeResponse>> patchIncome(@PathVariable Long incomeId, @RequestBody IncomePatchRequest patchRequest) {
+        IncomeResponse patchedIncome = incomeService.patchIncome(incomeId, patchRequest);
+        return ResponseEntity.ok(
+                CommonResponse.<IncomeResponse>builder()
+                        .status("success")
+                        .message("Income updated successfully")
+                        .data(patchedIncome)
+                        .code(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
     @DeleteMapping("/{incomeId}")
     public ResponseEntity<CommonResponse<Void>> deleteIncome(@PathVariable Long incomeId) {
         incomeService.deleteIncome(incomeId);
@@ -82,6 +171,37 @@ public class IncomeController {
         );
     }
 
+    // Bulk delete milik user dalam satu statement: rentang tanggal, rentang amount, atau daftar ID (ids=1,2,3)
+    @DeleteMapping(value = "/user/{userId}", params = {"from", "to"})
+    public ResponseEntity<CommonResponse<Integer>> deleteIncomesByDateRange(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return bulkDeleted(incomeService.deleteIncomesByDateRange(userId, from, to));
+    }
+
+    @DeleteMapping(value = "/user/{userId}", params = {"minAmount", "maxAmount"})
+    public ResponseEntity<CommonResponse<Integer>> deleteIncomesByAmountRange(
+            @PathVariable Long userId, @RequestParam Double minAmount, @RequestParam Double maxAmount) {
+        return bulkDeleted(incomeService.deleteIncomesByAmountRange(userId, minAmount, maxAmount));
+    }
+
+    @DeleteMapping(value = "/user/{userId}", params = "ids")
+    public ResponseEntity<CommonResponse<Integer>> deleteIncomesByIds(@PathVariable Long userId, @RequestParam List<Long> ids) {
+        return bulkDeleted(incomeService.deleteIncomesByIds(userId, ids));
+    }
+
+    private ResponseEntity<CommonResponse<Integer>> bulkDeleted(int deleted) {
+        return ResponseEntity.ok(
+                CommonResponse.<Integer>builder()
+                        .status("success")
+                        .message(deleted + " incomes deleted")
+                        .data(deleted)
+                        .code(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
     @GetMapping("/max/user/{userId}")
     public ResponseEntity<CommonResponse<IncomeResponse>> getMaxAmountIncomeByUserId(@PathVariable Long userId) {
         IncomeResponse maxIncome = incomeService.getMaxAmountIncomeByUserId(userId);
@@ -108,6 +228,32 @@ public class IncomeController {
         );
     }
 
+    @GetMapping("/top/user/{userId}")
+    public ResponseEntity<CommonResponse<List<IncomeResponse>>> getTopAmountIncomesByUserId(@PathVariable Long userId, @RequestParam(defaultValue = "10") int k) {
+        List<IncomeResponse> incomes = incomeService.getTopAmountIncomesByUserId(userId, k);
+        return ResponseEntity.ok(
+                CommonResponse.<List<IncomeResponse>>builder()
+                        .status("success")
+                        .message("Fetched top " + k + " incomes by amount for user id: " + userId)
+                        .data(incomes)
+                        .code(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
+    @GetMapping("/bottom/user/{userId}")
+    public ResponseEntity<CommonResponse<List<IncomeResponse>>> getBottomAmountIncomesByUserId(@PathVariable Long userId, @RequestParam(defaultValue = "10") int k) {
+        List<IncomeResponse> incomes = incomeService.getBottomAmountIncomesByUserId(userId, k);
+        return ResponseEntity.ok(
+                CommonResponse.<List<IncomeResponse>>builder()
+                        .status("success")
+                        .message("Fetched bottom " + k + " incomes by amount for user id: " + userId)
+                        .data(incomes)
+                        .code(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
     @GetMapping("/greater-than/user/{userId}/{amount}")
     public ResponseEntity<CommonResponse<List<IncomeResponse>>> getIncomesGreaterThanAmountByUserId(@PathVariable Long userId, @PathVariable Double amount) {
         List<IncomeResponse> incomes = incomeService.getIncomesGreaterThanAmountByUserId(userId, amount);
@@ -135,8 +281,9 @@ public class IncomeController {
     }
 
     @GetMapping("/description/user/{userId}")
-    public ResponseEntity<CommonResponse<List<IncomeResponse>>> getIncomesByDescriptionContainingIgnoreCase(@PathVariable Long userId, @RequestParam String keyword) {
-        List<IncomeResponse> incomes = incomeService.getIncomesByDescriptionContainingIgnoreCase(userId, keyword);
+    public ResponseEntity<CommonResponse<List<IncomeResponse>>> getIncomesByDescriptionContainingIgnoreCase(@PathVariable Long userId, @RequestParam String keyword,
+                                                                                                            @RequestParam(defaultValue = "50") int limit) {
+        List<IncomeResponse> incomes = incomeService.getIncomesByDescriptionContainingIgnoreCase(userId, keyword, limit);
         return ResponseEntity.ok(
                 CommonResponse.<List<IncomeResponse>>builder()
                         .status("success")
@@ -161,10 +308,10 @@ public class IncomeController {
     }
 
     @GetMapping("/sum-by-month/user/{userId}")
-    public ResponseEntity<CommonResponse<List<Object[]>>> getIncomeSumByMonthForUser(@PathVariable Long userId) {
-        List<Object[]> incomeSumByMonth = incomeService.getIncomeSumByMonthForUser(userId);
+    public ResponseEntity<CommonResponse<List<MonthOfYearTotalResponse>>> getIncomeSumByMonthForUser(@PathVariable Long userId) {
+        List<MonthOfYearTotalResponse> incomeSumByMonth = incomeService.getIncomeSumByMonthForUser(userId);
         return ResponseEntity.ok(
-                CommonResponse.<List<Object[]>>builder()
+                CommonResponse.<List<MonthOfYearTotalResponse>>builder()
                         .status("success")
                         .message("Fetched income sum by month for user id: " + userId)
                         .data(incomeSumByMonth)
@@ -173,11 +320,27 @@ public class IncomeController {
         );
     }
 
+    /**
+     * Sama seperti {@link #getIncomeSumByMonthForUser(Long)} dalam bentuk kolom (array paralel), untuk deret yang panjang.
+     */
+    @GetMapping(value = "/sum-by-month/user/{userId}", params = "layout=columnar")
+    public ResponseEntity<CommonResponse<ColumnarTotalsResponse<Integer>>> getIncomeSumByMonthForUserColumnar(@PathVariable Long userId) {
+        List<MonthOfYearTotalResponse> incomeSumByMonth = incomeService.getIncomeSumByMonthForUser(userId);
+        return ResponseEntity.ok(
+                CommonResponse.<ColumnarTotalsResponse<Integer>>builder()
+                        .status("success")
+                        .message("Fetched income sum by month for user id: " + userId)
+                        .data(ColumnarTotalsResponse.of(incomeSumByMonth, MonthOfYearTotalResponse::getMonth, MonthOfYearTotalResponse::getCount, MonthOfYearTotalResponse::getSum))
+                        .code(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
     @GetMapping("/sum-by-source/user/{userId}")
-    public ResponseEntity<CommonResponse<List<Object[]>>> getIncomeSumBySourceForUser(@PathVariable Long userId) {
-        List<Object[]> incomeSumBySource = incomeService.getIncomeSumBySourceForUser(userId);
+    public ResponseEntity<CommonResponse<List<NamedTotalResponse>>> getIncomeSumBySourceForUser(@PathVariable Long userId) {
+        List<NamedTotalResponse> incomeSumBySource = incomeService.getIncomeSumBySourceForUser(userId);
         return ResponseEntity.ok(
-                CommonResponse.<List<Object[]>>builder()
+                CommonResponse.<List<NamedTotalResponse>>builder()
                         .status("success")
                         .message("Fetched income sum by source for user id: " + userId)
                         .data(incomeSumBySource)
@@ -185,4 +348,37 @@ public class IncomeController {
                         .build()
         );
     }
+
+    /**
+     * Sama seperti {@link #getIncomeSumBySourceForUser(Long)} dalam bentuk kolom (array paralel), untuk deret yang panjang.
+     */
+    @GetMapping(value = "/sum-by-source/user/{userId}", params = "layout=columnar")
+    public ResponseEntity<CommonResponse<ColumnarTotalsResponse<String>>> getIncomeSumBySourceForUserColumnar(@PathVariable Long userId) {
+        List<NamedTotalResponse> incomeSumBySource = incomeService.getIncomeSumBySourceForUser(userId);
+        return ResponseEntity.ok(
+                CommonResponse.<ColumnarTotalsResponse<String>>builder()
+                        .status("success")
+                        .message("Fetched income sum by source for user id: " + userId)
+                        .data(ColumnarTotalsResponse.of(incomeSumBySource, NamedTotalResponse::getName, NamedTotalResponse::getCount, NamedTotalResponse::getSum))
+                        .code(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
+    @GetMapping("/histogram/user/{userId}")
+    public ResponseEntity<CommonResponse<List<HistogramBucketResponse>>> getIncomeHistogram(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "month") String bucket,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<HistogramBucketResponse> histogram = incomeService.getIncomeHistogram(userId, HistogramBucket.from(bucket), from, to);
+        return ResponseEntity.ok(
+                CommonResponse.<List<HistogramBucketResponse>>builder()
+                        .status("success")
+                        .message("Fetched income histogram for user id: " + userId)
+                        .data(histogram)
+                        .code(HttpStatus.OK.value())
+                        .build()
+        );
+    }
 }
@@ -0,0 +1,48 @@
+package com.finance.app.controller;
+
+import com.finance.app.dto.response.CommonResponse;
+import com.finance.app.service.MonthlyRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/rollups")
+@RequiredArgsConstructor
+public class RollupController {
+    private final MonthlyRollupService monthlyRollupService;
+
+    /**
+     * Menyusun ulang rollup bulanan seluruh user dari data transaksi (backfill).
+     * @return CommonResponse yang berisi jumlah user yang diproses
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<CommonResponse<Integer>> rebuildAll() {
+        int users = monthlyRollupService.rebuildAll();
+        CommonResponse<Integer> response = CommonResponse.<Integer>builder()
+                .status("success")
+                .message("Monthly rollups rebuilt for " + users + " users")
+                .data(users)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Menyusun ulang rollup bulanan satu user dari data transaksinya.
+     * @param userId ID dari user
+     * @return CommonResponse yang berisi jumlah baris rollup yang dibuat
+     */
+    @PostMapping("/rebuild/user/{userId}")
+    public ResponseEntity<CommonResponse<Integer>> rebuildForUser(@PathVariable Long userId) {
+        int rows = monthlyRollupService.rebuildForUser(userId);
+        CommonResponse<Integer> response = CommonResponse.<Integer>builder()
+                .status("success")
+                .message("Monthly rollups rebuilt for user id: " + userId)
+                .data(rows)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -2,20 +2,25 @@ package com.finance.app.controller;
 
 import com.finance.app.dto.request.UserRequest;
 import com.finance.app.dto.response.CommonResponse;
+import com.finance.app.dto.response.PageResponse;
 import com.finance.app.dto.response.UserResponse;
+import com.finance.app.dto.response.UserSummaryResponse;
 import com.finance.app.service.UserService;
+import com.finance.app.service.UserSummaryService;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final UserSummaryService userSummaryService;
 
     /**
      * Mendapatkan user berdasarkan ID.
@@ -32,6 +37,22 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Mendapatkan ringkasan keuangan user (total, max/min, dan seri bulanan) dalam satu request.
+     * Section yang gagal dimuat dikosongkan dan dicantumkan di unavailableSections.
+     */
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<CommonResponse<UserSummaryResponse>> getUserSummary(@PathVariable Long id) {
+        UserSummaryResponse summary = userSummaryService.getSummaryByUserId(id);
+        CommonResponse<UserSummaryResponse> response = CommonResponse.<UserSummaryResponse>builder()
+                .status("success")
+                .message("User summary retrieved successfully")
+                .data(summary)
+                .code(HttpStatus.OK.value())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Mendapatkan user berdasarkan username.
      */
@@ -94,12 +115,19 @@ public class UserController {
     }
 
     /**
-     * Mendapatkan semua user.
+     * Mendapatkan direktori user per halaman.
+     * @param username Prefix username (case-sensitive), opsional
+     * @param email Email (tanpa membedakan huruf besar/kecil), opsional
+     * @param pageable Parameter page, size, dan sort (contoh: sort=username,asc)
+     * @return CommonResponse yang berisi satu halaman user (id, username, email) beserta metadata halaman
      */
     @GetMapping
-    public ResponseEntity<CommonResponse<List<UserResponse>>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
-        CommonResponse<List<UserResponse>> response = CommonResponse.<List<UserResponse>>builder()
+    public ResponseEntity<CommonResponse<PageResponse<UserResponse>>> getUsers(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email,
+            @ParameterObject @PageableDefault(size = 20, sort = "username") Pageable pageable) {
+        PageResponse<UserResponse> users = userService.getUsers(username, email, pageable);
+        CommonResponse<PageResponse<UserResponse>> response = CommonResponse.<PageResponse<UserResponse>>builder()
                 .status("success")
                 .message("Users retrieved successfully")
                 .data(users)
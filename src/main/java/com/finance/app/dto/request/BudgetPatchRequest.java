@@ -0,0 +1,26 @@
+package com.finance.app.dto.request;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+/**
+ * Perubahan sebagian pada budget milik user yang sama: field yang bernilai null tidak diubah. {@code version}
+ * bersifat opsional; jika dikirim, perubahan hanya diterapkan bila versi baris di database masih sama.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetPatchRequest {
+    private String category;
+    private String description;
+    private Double amount;
+    private YearMonth month;
+    private Long userId;
+    private Long version;
+}
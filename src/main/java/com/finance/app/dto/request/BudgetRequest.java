@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.YearMonth;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -14,6 +16,6 @@ public class BudgetRequest {
     private String category;
     private String description;
     private Double amount;
-    private String month;
+    private YearMonth month;
     private Long userId;
 }
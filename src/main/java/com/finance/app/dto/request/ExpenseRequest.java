@@ -6,13 +6,16 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class ExpenseRequest {
     private Double amount;
-    private String date;
+    private LocalDate date;
     private String description;
+    private String category;
     private Long userId;
 }
@@ -0,0 +1,26 @@
+package com.finance.app.dto.request;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Perubahan sebagian pada income: field yang bernilai null tidak diubah. {@code version} bersifat opsional;
+ * jika dikirim, perubahan hanya diterapkan bila versi baris di database masih sama.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IncomePatchRequest {
+    private String source;
+    private Double amount;
+    private LocalDate date;
+    private String description;
+    private Long userId;
+    private Long version;
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -13,7 +15,7 @@ import lombok.NoArgsConstructor;
 public class IncomeRequest {
     private String source;
     private Double amount;
-    private String date;
+    private LocalDate date;
     private String description;
     private Long userId;
 }
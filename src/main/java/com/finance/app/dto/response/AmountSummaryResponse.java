@@ -0,0 +1,21 @@
+package com.finance.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total, baris maksimum, dan baris minimum dari satu jenis transaksi milik user.
+ *
+ * @param <T> Tipe response untuk baris maksimum/minimum.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AmountSummaryResponse<T> {
+    private Double total; // Total amount, null jika section tidak tersedia
+    private T max;        // Baris dengan amount maksimum, null jika tidak ada data atau tidak tersedia
+    private T min;        // Baris dengan amount minimum, null jika tidak ada data atau tidak tersedia
+}
@@ -0,0 +1,32 @@
+package com.finance.app.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hasil satu item pada request batch.
+ *
+ * @param <T> Tipe data item yang berhasil dibuat.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResponse<T> {
+    private int index;          // Posisi item pada request (dimulai dari 0)
+    private String status;      // "created" atau "failed"
+    private T data;             // Data yang dibuat, bila berhasil
+    private String error;       // Alasan gagal, bila gagal
+
+    public static <T> BatchItemResponse<T> created(int index, T data) {
+        return BatchItemResponse.<T>builder().index(index).status("created").data(data).build();
+    }
+
+    public static <T> BatchItemResponse<T> failed(int index, String error) {
+        return BatchItemResponse.<T>builder().index(index).status("failed").error(error).build();
+    }
+}
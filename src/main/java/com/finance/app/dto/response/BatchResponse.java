@@ -0,0 +1,32 @@
+package com.finance.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ringkasan dan hasil per item dari request batch.
+ *
+ * @param <T> Tipe data item yang berhasil dibuat.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse<T> {
+    private int created;                        // Jumlah item yang berhasil dibuat
+    private int failed;                         // Jumlah item yang gagal
+    private List<BatchItemResponse<T>> results; // Hasil per item, urut sesuai request
+
+    public static <T> BatchResponse<T> of(List<BatchItemResponse<T>> results) {
+        int created = (int) results.stream().filter(result -> "created".equals(result.getStatus())).count();
+        return BatchResponse.<T>builder()
+                .created(created)
+                .failed(results.size() - created)
+                .results(results)
+                .build();
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.YearMonth;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -14,8 +16,9 @@ public class BudgetResponse {
     private Long id;
     private String category;
     private Double amount;
-    private String month;
+    private YearMonth month;
     private Long userId;
     private String description;
     private String username;
+    private Long version;
 }
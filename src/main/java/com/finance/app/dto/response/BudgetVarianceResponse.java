@@ -0,0 +1,33 @@
+package com.finance.app.dto.response;
+
+import com.finance.app.repository.projection.BudgetVarianceTotals;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetVarianceResponse {
+    private String month;           // Bulan (yyyy-MM)
+    private String category;        // Kategori budget/expense (null untuk expense tanpa kategori)
+    private Double budgeted;        // Total budget kategori pada bulan tersebut
+    private Double spent;           // Total expense kategori pada bulan tersebut
+    private Double remaining;       // budgeted - spent (negatif jika melebihi budget)
+    private Double percentUsed;     // spent / budgeted dalam persen; null jika tidak ada budget
+
+    public static BudgetVarianceResponse from(BudgetVarianceTotals totals) {
+        double budgeted = totals.getBudgeted();
+        double spent = totals.getSpent();
+        return BudgetVarianceResponse.builder()
+                .month(totals.getMonth())
+                .category(totals.getCategory())
+                .budgeted(budgeted)
+                .spent(spent)
+                .remaining(budgeted - spent)
+                .percentUsed(budgeted > 0 ? Math.round(spent * 10000 / budgeted) / 100.0 : null)
+                .build();
+    }
+}
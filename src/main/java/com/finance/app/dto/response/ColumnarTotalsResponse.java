@@ -0,0 +1,43 @@
+package com.finance.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Deret agregat dalam bentuk kolom (array paralel): elemen ke-i dari {@code keys}, {@code counts}, dan {@code sums}
+ * membentuk satu baris. Untuk deret panjang ukurannya jauh lebih kecil dari list objek karena nama field tidak
+ * diulang di setiap baris.
+ *
+ * @param <K> Tipe kunci pengelompokan (bulan, tahun, atau nama).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarTotalsResponse<K> {
+    private List<K> keys;   // Kunci pengelompokan per baris
+    private long[] counts;  // Jumlah data per baris
+    private double[] sums;  // Total amount per baris
+
+    public static <T, K> ColumnarTotalsResponse<K> of(List<T> rows, Function<T, K> keyOf,
+                                                      ToLongFunction<T> countOf, ToDoubleFunction<T> sumOf) {
+        List<K> keys = new ArrayList<>(rows.size());
+        long[] counts = new long[rows.size()];
+        double[] sums = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            T row = rows.get(i);
+            keys.add(keyOf.apply(row));
+            counts[i] = countOf.applyAsLong(row);
+            sums[i] = sumOf.applyAsDouble(row);
+        }
+        return new ColumnarTotalsResponse<>(keys, counts, sums);
+    }
+}
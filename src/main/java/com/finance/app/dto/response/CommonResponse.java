@@ -1,5 +1,6 @@
 package com.finance.app.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,4 +20,6 @@ public class CommonResponse<T> {
     private String message;     // Pesan yang menjelaskan status respons
     private T data;             // Data yang dikirimkan dalam respons (bisa berupa objek, list, dll.)
     private int code;           // Kode status HTTP (misalnya: 200, 400, 500)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;  // Token halaman berikutnya pada paginasi cursor (tidak dikirim bila tidak ada)
 }
\ No newline at end of file
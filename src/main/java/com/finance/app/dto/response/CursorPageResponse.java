@@ -0,0 +1,36 @@
+package com.finance.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Satu halaman hasil paginasi keyset beserta token untuk halaman berikutnya.
+ *
+ * @param <T> Tipe data pada setiap elemen halaman.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;        // Data pada halaman ini
+    private String nextCursor;      // Token halaman berikutnya, null bila sudah habis
+
+    /**
+     * Membentuk halaman dari hasil query yang diambil dengan limit size + 1;
+     * baris tambahan hanya menandakan masih ada halaman berikutnya.
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int size, Function<E, T> converter, Function<E, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageResponse.<T>builder()
+                .content(page.stream().map(converter).toList())
+                .nextCursor(hasNext ? cursorOf.apply(page.get(size - 1)) : null)
+                .build();
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -12,8 +14,10 @@ import lombok.NoArgsConstructor;
 public class ExpenseResponse {
     private Long id;
     private Double amount;
-    private String date;
+    private LocalDate date;
     private Long userId;
     private String description;
+    private String category;
     private String username;
+    private Long version;
 }
@@ -0,0 +1,20 @@
+package com.finance.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramBucketResponse {
+    private LocalDate start;    // Tanggal awal bucket (inklusif)
+    private LocalDate end;      // Tanggal akhir bucket (inklusif)
+    private Long count;         // Jumlah data (0 untuk bucket kosong)
+    private Double sum;         // Total amount
+    private Double avg;         // Rata-rata amount; null untuk bucket kosong
+}
@@ -0,0 +1,35 @@
+package com.finance.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Status dan progres job import mutasi rekening.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    private String jobId;
+    private Long userId;
+    private String format;
+    private String status;              // QUEUED, RUNNING, COMPLETED, atau FAILED
+    private long totalBytes;
+    private long bytesRead;
+    private double progress;            // Persentase file yang sudah dibaca (0-100)
+    private long rowsParsed;
+    private long incomesImported;
+    private long expensesImported;
+    private long rowsRejected;
+    private double rowsPerSecond;       // Baris yang ditulis per detik sejak job berjalan
+    private List<String> errors;        // Alasan penolakan baris (hanya sebagian pertama)
+    private String failure;             // Penyebab job gagal, bila status FAILED
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -13,8 +15,9 @@ public class IncomeResponse {
     private Long id;
     private String source;
     private Double amount;
-    private String date;
+    private LocalDate date;
     private Long userId;
     private String description;
     private String username;
+    private Long version;
 }
@@ -0,0 +1,21 @@
+package com.finance.app.dto.response;
+
+import com.finance.app.repository.projection.MonthOfYearTotals;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthOfYearTotalResponse {
+    private Integer month; // Bulan dalam setahun (1-12), null untuk data tanpa tanggal
+    private Long count;    // Jumlah data
+    private Double sum;    // Total amount
+
+    public static MonthOfYearTotalResponse from(MonthOfYearTotals totals) {
+        return new MonthOfYearTotalResponse(totals.getMonth(), totals.getCount(), totals.getSum());
+    }
+}
@@ -0,0 +1,21 @@
+package com.finance.app.dto.response;
+
+import com.finance.app.repository.projection.MonthTotals;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthTotalResponse {
+    private String month; // Bulan dalam format yyyy-MM, null untuk data tanpa tanggal
+    private Long count;   // Jumlah data
+    private Double sum;   // Total amount
+
+    public static MonthTotalResponse from(MonthTotals totals) {
+        return new MonthTotalResponse(totals.getMonth(), totals.getCount(), totals.getSum());
+    }
+}
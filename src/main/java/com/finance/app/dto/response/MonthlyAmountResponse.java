@@ -0,0 +1,16 @@
+package com.finance.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyAmountResponse {
+    private String month;   // Bulan dalam format yyyy-MM
+    private Double income;  // Total income pada bulan tersebut
+    private Double expense; // Total expense pada bulan tersebut
+}
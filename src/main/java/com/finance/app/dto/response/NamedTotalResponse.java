@@ -0,0 +1,21 @@
+package com.finance.app.dto.response;
+
+import com.finance.app.repository.projection.NamedTotals;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NamedTotalResponse {
+    private String name; // Nilai pengelompokan (source atau category)
+    private Long count;  // Jumlah data
+    private Double sum;  // Total amount
+
+    public static NamedTotalResponse from(NamedTotals totals) {
+        return new NamedTotalResponse(totals.getName(), totals.getCount(), totals.getSum());
+    }
+}
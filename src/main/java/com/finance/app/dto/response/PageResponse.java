@@ -0,0 +1,38 @@
+package com.finance.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Satu halaman data beserta metadata paginasinya.
+ *
+ * @param <T> Tipe data pada setiap elemen halaman.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> content;        // Data pada halaman ini
+    private int page;               // Nomor halaman (dimulai dari 0)
+    private int size;               // Ukuran halaman yang diminta
+    private long totalElements;     // Jumlah seluruh data milik user
+    private int totalPages;         // Jumlah seluruh halaman
+    private boolean last;           // Apakah ini halaman terakhir
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return PageResponse.<T>builder()
+                .content(page.getContent())
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .last(page.isLast())
+                .build();
+    }
+}
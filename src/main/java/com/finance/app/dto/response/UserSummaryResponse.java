@@ -0,0 +1,27 @@
+package com.finance.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ringkasan keuangan user untuk halaman utama. Section yang gagal atau melewati batas waktu bernilai null dan
+ * namanya dicantumkan di {@code unavailableSections}, sehingga sisa ringkasan tetap dapat ditampilkan.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryResponse {
+    private Long userId;
+    private String username;
+    private AmountSummaryResponse<IncomeResponse> income;
+    private AmountSummaryResponse<ExpenseResponse> expense;
+    private AmountSummaryResponse<BudgetResponse> budget;
+    private Double balance;                       // Total income dikurangi total expense
+    private List<MonthlyAmountResponse> monthly;  // Total income dan expense per bulan, urut naik
+    private List<String> unavailableSections;     // Nama section yang tidak berhasil dimuat
+}
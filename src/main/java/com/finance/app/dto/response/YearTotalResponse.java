@@ -0,0 +1,21 @@
+package com.finance.app.dto.response;
+
+import com.finance.app.repository.projection.YearTotals;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class YearTotalResponse {
+    private Integer year; // Tahun, null untuk data tanpa tanggal
+    private Long count;   // Jumlah data
+    private Double sum;   // Total amount
+
+    public static YearTotalResponse from(YearTotals totals) {
+        return new YearTotalResponse(totals.getYear(), totals.getCount(), totals.getSum());
+    }
+}
@@ -1,9 +1,16 @@
 package com.finance.app.exception;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.ServletRequestBindingException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -28,8 +35,64 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<?> handleImportJobNotFoundException(ImportJobNotFoundException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<?> handleInvalidRequestException(InvalidRequestException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<?> handleVersionConflictException(VersionConflictException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    // PUT memakai version dari entity yang dimuat; penulisan lain yang commit lebih dulu membuat UPDATE-nya gagal
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleObjectOptimisticLockingFailureException(ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        return new ResponseEntity<>("Resource was modified concurrently, please retry", HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<?> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex, WebRequest request) {
+        return new ResponseEntity<>("Invalid value for parameter '" + ex.getName() + "': " + ex.getValue(), HttpStatus.BAD_REQUEST);
+    }
+
+    // Parameter wajib tidak dikirim atau kombinasi parameter tidak cocok dengan endpoint manapun (misalnya bulk delete tanpa filter)
+    @ExceptionHandler(ServletRequestBindingException.class)
+    public ResponseEntity<?> handleServletRequestBindingException(ServletRequestBindingException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<?> handleDatabaseBusyException(DatabaseBusyException ex, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    // Antrean job import penuh
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<?> handleTaskRejectedException(TaskRejectedException ex, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body("Too many imports in progress, please retry later");
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<?> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex, WebRequest request) {
+        return new ResponseEntity<>("Uploaded file is too large", HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGlobalException(Exception ex, WebRequest request) {
+        // Penolakan bulkhead database biasanya tiba terbungkus exception transaksi (CannotCreateTransactionException)
+        if (NestedExceptionUtils.getMostSpecificCause(ex) instanceof DatabaseBusyException busy) {
+            return handleDatabaseBusyException(busy, request);
+        }
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 }
@@ -0,0 +1,7 @@
+package com.finance.app.exception;
+
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.finance.app.importer;
+
+import java.util.List;
+
+/**
+ * Tahap terakhir pipeline import: menulis satu batch transaksi ke database dan mencatat hasilnya pada job.
+ */
+@FunctionalInterface
+public interface BatchWriter {
+    void write(ImportJob job, List<ImportedTransaction> batch);
+}
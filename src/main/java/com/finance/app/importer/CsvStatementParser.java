@@ -0,0 +1,88 @@
+package com.finance.app.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parser CSV mutasi rekening. Baris pertama wajib berupa header; kolom dicocokkan berdasarkan nama
+ * (tidak peka huruf besar/kecil): {@code date} dan {@code amount} wajib, sedangkan {@code description}
+ * (atau {@code memo}), {@code type}, {@code source}, dan {@code category} opsional. Setiap baris dibaca sebagai array string
+ * sehingga tidak ada objek per kolom selain nilainya sendiri.
+ */
+class CsvStatementParser implements StatementParser {
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final Map<String, String> COLUMN_ALIASES = Map.of("memo", "description");
+
+    private final MappingIterator<String[]> rows;
+    private final int dateColumn;
+    private final int amountColumn;
+    private final int descriptionColumn;
+    private final int typeColumn;
+    private final int sourceColumn;
+    private final int categoryColumn;
+    private long row;
+
+    CsvStatementParser(InputStream input) throws IOException {
+        this.rows = CSV_MAPPER.readerFor(String[].class)
+                .with(CsvParser.Feature.WRAP_AS_ARRAY)
+                .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .with(CsvParser.Feature.TRIM_SPACES)
+                .readValues(input);
+        String[] header = rows.hasNextValue() ? rows.nextValue() : new String[0];
+        this.dateColumn = column(header, "date");
+        this.amountColumn = column(header, "amount");
+        this.descriptionColumn = column(header, "description");
+        this.typeColumn = column(header, "type");
+        this.sourceColumn = column(header, "source");
+        this.categoryColumn = column(header, "category");
+        if (dateColumn < 0 || amountColumn < 0) {
+            rows.close();
+            throw new IOException("CSV header must contain 'date' and 'amount' columns");
+        }
+    }
+
+    @Override
+    public StatementRecord next() throws IOException {
+        String[] values;
+        try {
+            if (!rows.hasNextValue()) {
+                return null;
+            }
+            values = rows.nextValue();
+        } catch (JsonProcessingException e) {
+            // Pesan asli tanpa lokasi sumber internal; nomor record cukup untuk menemukan baris yang rusak
+            throw new IOException("Malformed CSV after row " + row + ": " + e.getOriginalMessage(), e);
+        }
+        return new StatementRecord(++row, value(values, dateColumn), value(values, amountColumn),
+                value(values, descriptionColumn), value(values, typeColumn), value(values, sourceColumn), value(values, categoryColumn));
+    }
+
+    @Override
+    public void close() throws IOException {
+        rows.close();
+    }
+
+    private static int column(String[] header, String name) {
+        for (int i = 0; i < header.length; i++) {
+            String column = header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            if (name.equals(COLUMN_ALIASES.getOrDefault(column, column))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String value(String[] values, int column) {
+        if (column < 0 || column >= values.length || values[column].isEmpty()) {
+            return null;
+        }
+        return values[column];
+    }
+}
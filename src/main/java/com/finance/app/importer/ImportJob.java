@@ -0,0 +1,86 @@
+package com.finance.app.importer;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Status dan progres satu job import. Counter diperbarui oleh thread pipeline dan dibaca oleh request polling,
+ * sehingga seluruhnya atomik/volatile; pesan kesalahan per baris hanya disimpan sebagian pertama.
+ */
+@Getter
+public class ImportJob {
+    private static final int MAX_ERRORS = 20;
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Long userId;
+    private final StatementFormat format;
+    private final long totalBytes;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong incomesImported = new AtomicLong();
+    private final AtomicLong expensesImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    public ImportJob(String id, Long userId, StatementFormat format, long totalBytes) {
+        this.id = id;
+        this.userId = userId;
+        this.format = format;
+        this.totalBytes = totalBytes;
+    }
+
+    public void reject(long row, String reason) {
+        rowsRejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("Row " + row + ": " + reason);
+            }
+        }
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    /**
+     * Baris yang berhasil ditulis per detik sejak job mulai berjalan.
+     */
+    public double getRowsPerSecond() {
+        Instant started = startedAt;
+        if (started == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(Duration.between(started, end).toMillis(), 1);
+        return (incomesImported.get() + expensesImported.get()) * 1000.0 / millis;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        failure = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
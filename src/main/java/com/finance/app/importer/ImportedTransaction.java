@@ -0,0 +1,23 @@
+package com.finance.app.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Baris mutasi yang sudah lolos validasi dan diklasifikasikan sebagai income atau expense. Amount selalu positif.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportedTransaction {
+    static final ImportedTransaction END = new ImportedTransaction(-1, false, null, null, null, null, null);
+
+    private final long row;
+    private final boolean income;
+    private final LocalDate date;
+    private final Double amount;
+    private final String description;
+    private final String source;
+    private final String category;
+}
@@ -0,0 +1,129 @@
+package com.finance.app.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Parser OFX untuk blok {@code <STMTTRN>}: OFX 1.x (SGML, elemen tanpa tag penutup) maupun OFX 2.x (XML). File
+ * dibaca per token tag/teks, bukan per baris, karena banyak bank menulis seluruh OFX dalam satu baris. Field yang
+ * dipakai: {@code DTPOSTED}, {@code TRNAMT}, {@code NAME} (sebagai sumber income), dan {@code MEMO}.
+ */
+class OfxStatementParser implements StatementParser {
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    private final Reader reader;
+    private final StringBuilder token = new StringBuilder();
+    private long row;
+
+    OfxStatementParser(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public StatementRecord next() throws IOException {
+        boolean inTransaction = false;
+        String date = null;
+        String amount = null;
+        String name = null;
+        String memo = null;
+
+        String tag;
+        while ((tag = nextTag()) != null) {
+            switch (tag) {
+                case "STMTTRN" -> {
+                    inTransaction = true;
+                    date = amount = name = memo = null;
+                }
+                case "/STMTTRN" -> {
+                    if (inTransaction) {
+                        return new StatementRecord(++row, isoDate(date), amount, memo != null ? memo : name, null, name, null);
+                    }
+                }
+                default -> {
+                    if (!inTransaction || tag.startsWith("/")) {
+                        continue;
+                    }
+                    String text = nextText();
+                    switch (tag) {
+                        case "DTPOSTED" -> date = text;
+                        case "TRNAMT" -> amount = text;
+                        case "NAME" -> name = text;
+                        case "MEMO" -> memo = text;
+                        default -> {
+                            // Field lain (TRNTYPE, FITID, ...) tidak dipakai; arah transaksi diambil dari tanda TRNAMT
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Melewati teks hingga tag berikutnya, lalu mengembalikan nama tag (dengan awalan '/' untuk tag penutup).
+     */
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            // Teks di luar elemen yang dipakai (header OFX, nilai field lain) diabaikan
+        }
+        if (c == -1) {
+            return null;
+        }
+        token.setLength(0);
+        while ((c = reader.read()) != -1 && c != '>') {
+            append(c);
+        }
+        return token.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Membaca nilai elemen hingga tag berikutnya; '<' disisakan untuk {@link #nextTag()}.
+     */
+    private String nextText() throws IOException {
+        token.setLength(0);
+        reader.mark(1);
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            append(c);
+            reader.mark(1);
+        }
+        if (c == '<') {
+            reader.reset();
+        }
+        String text = unescape(token.toString().trim());
+        return text.isEmpty() ? null : text;
+    }
+
+    private void append(int c) throws IOException {
+        if (token.length() == MAX_TOKEN_LENGTH) {
+            throw new IOException("OFX element exceeds " + MAX_TOKEN_LENGTH + " characters near transaction " + (row + 1));
+        }
+        token.append((char) c);
+    }
+
+    // DTPOSTED berformat yyyyMMdd[HHmmss[.XXX]][[offset:TZ]]; hanya tanggalnya yang dipakai
+    private static String isoDate(String value) {
+        if (value == null || value.length() < 8) {
+            return value;
+        }
+        return value.substring(0, 4) + "-" + value.substring(4, 6) + "-" + value.substring(6, 8);
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,44 @@
+package com.finance.app.importer;
+
+import com.finance.app.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * Format file mutasi rekening yang bisa diimpor.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum StatementFormat {
+    CSV("csv"),
+    OFX("ofx");
+
+    private final String fileExtension;
+
+    /**
+     * Memakai format yang diminta, atau menebak dari ekstensi nama file jika tidak diisi.
+     */
+    public static StatementFormat resolve(String value, String filename) {
+        String name = value;
+        if (name == null || name.isBlank()) {
+            int dot = filename == null ? -1 : filename.lastIndexOf('.');
+            if (dot < 0) {
+                throw new InvalidRequestException("Cannot detect statement format, specify format: csv or ofx");
+            }
+            name = filename.substring(dot + 1);
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported statement format '" + name + "', allowed: csv, ofx");
+        }
+    }
+
+    public StatementParser openParser(InputStream input) throws IOException {
+        return this == CSV ? new CsvStatementParser(input) : new OfxStatementParser(input);
+    }
+}
@@ -0,0 +1,230 @@
+package com.finance.app.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Menjalankan job import sebagai tiga tahap yang dihubungkan antrean berkapasitas tetap:
+ * parse (baca file → {@link StatementRecord}), validasi + klasifikasi (→ {@link ImportedTransaction}), dan tulis
+ * (batch ke {@link BatchWriter}). Tahap yang lebih cepat tertahan saat antrean di depannya penuh, sehingga memori
+ * yang dipakai sebanding dengan kapasitas antrean, bukan ukuran file, dan laju import mengikuti laju tulis database.
+ *
+ * <p>Jumlah job yang berjalan bersamaan dibatasi; job lain menunggu di antrean job, dan job yang melebihi antrean
+ * tersebut ditolak dengan {@link TaskRejectedException}.</p>
+ */
+@Slf4j
+public class StatementImportPipeline implements AutoCloseable {
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final ThreadPoolTaskExecutor stageExecutor;
+    private final int queueCapacity;
+    private final int batchSize;
+
+    public StatementImportPipeline(int maxConcurrentJobs, int maxQueuedJobs, int queueCapacity, int batchSize) {
+        this.jobExecutor = executor("import-job-", maxConcurrentJobs, maxQueuedJobs);
+        // Setiap job yang berjalan memakai dua thread tahap; antrean kecil menampung tahap job baru selama thread
+        // milik job sebelumnya belum selesai kembali ke pool
+        this.stageExecutor = executor("import-stage-", maxConcurrentJobs * 2, maxConcurrentJobs * 2);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Menjadwalkan job; {@code source} dibuka di thread job dan {@code cleanup} selalu dijalankan setelah job selesai.
+     *
+     * @throws TaskRejectedException jika antrean job penuh
+     */
+    public void submit(ImportJob job, StatementSource source, BatchWriter writer, Runnable cleanup) {
+        jobExecutor.execute(() -> {
+            job.start();
+            try (StatementParser parser = source.open()) {
+                run(job, parser, writer);
+                job.complete();
+            } catch (Exception | Error e) {
+                // Error (misalnya StackOverflowError dari parser) juga menggagalkan job agar status tidak tertahan RUNNING
+                log.warn("Import job {} for user {} failed: {}", job.getId(), job.getUserId(), describe(e));
+                job.fail(describe(e));
+            } finally {
+                cleanup.run();
+            }
+        });
+    }
+
+    private void run(ImportJob job, StatementParser parser, BatchWriter writer) throws Exception {
+        BlockingQueue<StatementRecord> records = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ImportedTransaction> transactions = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Future<?> parsing = stageExecutor.submit(() -> parse(job, parser, records, failure));
+        Future<?> classifying = stageExecutor.submit(() -> classify(job, records, transactions, failure));
+        try {
+            write(job, transactions, writer);
+        } finally {
+            // Jika tahap tulis gagal, tahap lain mungkin sedang tertahan di antrean penuh; hentikan keduanya
+            parsing.cancel(true);
+            classifying.cancel(true);
+        }
+        Throwable stageFailure = failure.get();
+        if (stageFailure instanceof Error error) {
+            throw error;
+        }
+        if (stageFailure != null) {
+            throw (Exception) stageFailure;
+        }
+    }
+
+    private void parse(ImportJob job, StatementParser parser, BlockingQueue<StatementRecord> records,
+                       AtomicReference<Throwable> failure) {
+        try {
+            StatementRecord record;
+            while ((record = parser.next()) != null) {
+                records.put(record);
+                job.getRowsParsed().incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception | Error e) {
+            // Penanda akhir tetap dikirim untuk kegagalan apa pun; tanpanya tahap berikutnya menunggu selamanya
+            failure.compareAndSet(null, e);
+        }
+        endOfStream(records, StatementRecord.END);
+    }
+
+    private void classify(ImportJob job, BlockingQueue<StatementRecord> records, BlockingQueue<ImportedTransaction> transactions,
+                          AtomicReference<Throwable> failure) {
+        try {
+            StatementRecord record;
+            while ((record = records.take()) != StatementRecord.END) {
+                ImportedTransaction transaction = toTransaction(job, record);
+                if (transaction != null) {
+                    transactions.put(transaction);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        }
+        endOfStream(transactions, ImportedTransaction.END);
+    }
+
+    private void write(ImportJob job, BlockingQueue<ImportedTransaction> transactions, BatchWriter writer) throws InterruptedException {
+        List<ImportedTransaction> batch = new ArrayList<>(batchSize);
+        while (true) {
+            ImportedTransaction transaction = transactions.take();
+            boolean end = transaction == ImportedTransaction.END;
+            if (!end) {
+                batch.add(transaction);
+                // Ambil sekaligus yang sudah menunggu di antrean tanpa memblokir
+                transactions.drainTo(batch, batchSize - batch.size());
+                end = batch.remove(ImportedTransaction.END);
+            }
+            if (batch.size() >= batchSize || (end && !batch.isEmpty())) {
+                writer.write(job, batch);
+                batch = new ArrayList<>(batchSize);
+            }
+            if (end) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Memvalidasi satu record lalu mengklasifikasikannya: kolom type jika ada, selain itu tanda amount
+     * (positif = income, negatif = expense). Record yang tidak valid dicatat pada job dan dilewati.
+     */
+    private static ImportedTransaction toTransaction(ImportJob job, StatementRecord record) {
+        if (record.getDate() == null || record.getAmount() == null) {
+            job.reject(record.getRow(), "date and amount are required");
+            return null;
+        }
+        LocalDate date;
+        double amount;
+        try {
+            date = LocalDate.parse(record.getDate());
+            amount = Double.parseDouble(record.getAmount());
+        } catch (DateTimeParseException | NumberFormatException e) {
+            job.reject(record.getRow(), "invalid date or amount");
+            return null;
+        }
+        if (amount == 0 || !Double.isFinite(amount)) {
+            job.reject(record.getRow(), "amount must be a non-zero number");
+            return null;
+        }
+
+        Boolean income = amount > 0;
+        if (record.getType() != null) {
+            income = switch (record.getType().toLowerCase(Locale.ROOT)) {
+                case "income", "credit" -> true;
+                case "expense", "debit" -> false;
+                default -> null;
+            };
+            if (income == null) {
+                job.reject(record.getRow(), "type must be income, expense, credit, or debit");
+                return null;
+            }
+        }
+        if (length(record.getDescription()) > MAX_TEXT_LENGTH || length(record.getSource()) > MAX_TEXT_LENGTH
+                || length(record.getCategory()) > MAX_TEXT_LENGTH) {
+            job.reject(record.getRow(), "description, source, and category must not exceed " + MAX_TEXT_LENGTH + " characters");
+            return null;
+        }
+        return new ImportedTransaction(record.getRow(), income, date, Math.abs(amount), record.getDescription(),
+                income ? record.getSource() : null, income ? null : record.getCategory());
+    }
+
+    private static String describe(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static <T> void endOfStream(BlockingQueue<T> queue, T end) {
+        try {
+            queue.put(end);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor executor(String threadNamePrefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void close() {
+        jobExecutor.destroy();
+        stageExecutor.destroy();
+    }
+
+    /**
+     * Membuka parser untuk file job; dipanggil di thread job, bukan di thread request.
+     */
+    @FunctionalInterface
+    public interface StatementSource {
+        StatementParser open() throws IOException;
+    }
+}
@@ -0,0 +1,14 @@
+package com.finance.app.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Membaca file mutasi satu record per pemanggilan, tanpa memuat seluruh file ke memori.
+ */
+public interface StatementParser extends Closeable {
+    /**
+     * @return Record berikutnya, atau null jika file sudah habis
+     */
+    StatementRecord next() throws IOException;
+}
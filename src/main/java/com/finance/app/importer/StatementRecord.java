@@ -0,0 +1,22 @@
+package com.finance.app.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Satu baris mutasi rekening apa adanya dari file (belum divalidasi). Tanggal sudah dinormalkan ke format ISO
+ * {@code yyyy-MM-dd} oleh parser, selebihnya masih berupa teks.
+ */
+@Getter
+@AllArgsConstructor
+public class StatementRecord {
+    static final StatementRecord END = new StatementRecord(-1, null, null, null, null, null, null);
+
+    private final long row;             // Nomor record pada file (dimulai dari 1, tanpa header)
+    private final String date;
+    private final String amount;        // Bertanda: positif = uang masuk, negatif = uang keluar
+    private final String description;
+    private final String type;          // income/expense atau credit/debit, bila file mencantumkannya
+    private final String source;        // Sumber income (misalnya nama pengirim), bila ada
+    private final String category;      // Kategori expense, bila ada
+}
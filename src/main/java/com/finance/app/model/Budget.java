@@ -1,26 +1,38 @@
 package com.finance.app.model;
 
+import com.finance.app.model.converter.YearMonthDateConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.YearMonth;
+
 @Entity
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_budget_user_month", columnList = "user_id, month, id"),
+        @Index(name = "idx_budget_user_amount", columnList = "user_id, amount, id"),
+        @Index(name = "idx_budget_user_id_id", columnList = "user_id, id")
+})
 public class Budget {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budget_seq")
+    @SequenceGenerator(name = "budget_seq", sequenceName = "budget_seq", allocationSize = 50)
     private Long id;
     private String description;
     private String category;
     private Double amount;
-    private String month;
+    @Convert(converter = YearMonthDateConverter.class)
+    private YearMonth month;
+    @Version
+    private Long version;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 }
@@ -0,0 +1,42 @@
+package com.finance.app.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Respons tersimpan untuk satu Idempotency-Key. Hanya ditulis lewat query native di
+ * {@link com.finance.app.repository.IdempotencyRecordRepository}.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_key")
+public class IdempotencyRecord {
+    @EmbeddedId
+    private IdempotencyRecordId id;
+
+    @Column(name = "request_hash", nullable = false)
+    private byte[] requestHash;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "response_body")
+    private byte[] responseBody;        // Terkompresi gzip
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,20 @@
+package com.finance.app.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecordId implements Serializable {
+    private String scope;           // Method dan path request, misalnya "POST /api/expenses"
+
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+}
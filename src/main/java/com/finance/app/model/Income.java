@@ -6,21 +6,31 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Entity
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_income_user_date", columnList = "user_id, date, id"),
+        @Index(name = "idx_income_user_amount", columnList = "user_id, amount, id"),
+        @Index(name = "idx_income_user_id_id", columnList = "user_id, id")
+})
 public class Income {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "income_seq")
+    @SequenceGenerator(name = "income_seq", sequenceName = "income_seq", allocationSize = 50)
     private Long id;
     private String description;
     private String source;
     private Double amount;
-    private String date;
+    private LocalDate date;
+    @Version
+    private Long version;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 }
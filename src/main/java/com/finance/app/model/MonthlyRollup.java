@@ -0,0 +1,31 @@
+package com.finance.app.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Jumlah baris dan total amount transaksi satu user pada satu bulan dan dimensi.
+ * Hanya diubah lewat upsert inkremental di {@link com.finance.app.repository.MonthlyRollupRepository}.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "monthly_rollup")
+public class MonthlyRollup {
+    @EmbeddedId
+    private MonthlyRollupId id;
+
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+
+    @Column(name = "amount_total", nullable = false)
+    private Double amountTotal;
+}
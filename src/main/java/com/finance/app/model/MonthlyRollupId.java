@@ -0,0 +1,38 @@
+package com.finance.app.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRollupId implements Serializable {
+    // Period untuk transaksi tanpa tanggal dan dimensi untuk nilai NULL (kolom primary key tidak boleh NULL)
+    public static final LocalDate UNDATED = LocalDate.of(1, 1, 1);
+    public static final String NO_DIMENSION = "";
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", length = 16)
+    private RollupType entityType;
+
+    private LocalDate period;       // Tanggal 1 pada bulan transaksi
+    private String dimension;       // Source untuk income, category untuk expense dan budget
+
+    public static MonthlyRollupId of(RollupType entityType, Long userId, LocalDate date, String dimension) {
+        return new MonthlyRollupId(userId, entityType,
+                date == null ? UNDATED : date.withDayOfMonth(1),
+                dimension == null ? NO_DIMENSION : dimension);
+    }
+}
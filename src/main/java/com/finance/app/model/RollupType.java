@@ -0,0 +1,10 @@
+package com.finance.app.model;
+
+/**
+ * Jenis transaksi yang dirangkum pada tabel monthly_rollup.
+ */
+public enum RollupType {
+    EXPENSE,
+    INCOME,
+    BUDGET
+}
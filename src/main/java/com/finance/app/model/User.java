@@ -3,14 +3,23 @@ package com.finance.app.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.List;
 
 
+/**
+ * Akun pengguna. Sengaja tidak memakai {@code @Data}: equals/hashCode/toString hasil generate akan menyentuh
+ * koleksi transaksi yang lazy dan memuat seluruh income, expense, dan budget milik user. Equality memakai
+ * identitas objek (satu instance per persistence context).
+ */
 @Entity
-@Data
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,15 +30,19 @@ public class User {
     private Long id;
     @Column(unique = true, nullable = false)
     private String username;
+    @ToString.Exclude
     private String password;
     private String email;
 
+    @ToString.Exclude
     @OneToMany(mappedBy = "user")
     private List<Income> incomes;
 
+    @ToString.Exclude
     @OneToMany(mappedBy = "user")
     private List<Expense> expenses;
 
+    @ToString.Exclude
     @OneToMany(mappedBy = "user")
     private List<Budget> budgets;
 }
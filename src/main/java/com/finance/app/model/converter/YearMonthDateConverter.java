@@ -0,0 +1,25 @@
+package com.finance.app.model.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Menyimpan YearMonth sebagai kolom DATE (tanggal 1 pada bulan tersebut),
+ * sehingga kolom bulan bisa dibandingkan dan di-index seperti tanggal biasa.
+ */
+@Converter
+public class YearMonthDateConverter implements AttributeConverter<YearMonth, LocalDate> {
+
+    @Override
+    public LocalDate convertToDatabaseColumn(YearMonth yearMonth) {
+        return yearMonth == null ? null : yearMonth.atDay(1);
+    }
+
+    @Override
+    public YearMonth convertToEntityAttribute(LocalDate date) {
+        return date == null ? null : YearMonth.from(date);
+    }
+}
@@ -0,0 +1,149 @@
+package com.finance.app.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Mencatat pemanggilan repository yang lebih lambat dari {@code app.slow-query.threshold} beserta parameter (nilai
+ * bind query) dan jumlah baris hasilnya, dalam format key=value agar mudah dicari. Pemanggilan yang cepat hanya
+ * dikenai biaya satu {@link System#nanoTime()}; latensi semua pemanggilan tercatat sebagai metrik
+ * {@code spring.data.repository.invocations}.
+ *
+ * <p>Hanya nilai bertipe aman yang dicatat apa adanya: angka, boolean, tanggal/waktu, enum, serta {@link Limit},
+ * {@link Pageable} dan {@link Sort}. Nilai lain (string seperti email, deskripsi atau sumber, entity, dan tipe yang
+ * tidak dikenal) disamarkan menjadi nama tipenya saja, misalnya {@code email=<String>}. Nilai panjang dipotong.</p>
+ */
+@Slf4j
+@Aspect
+@Component
+public class SlowQueryLogAspect {
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    @Value("${app.slow-query.threshold:200ms}")
+    private Duration threshold;
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object logSlowQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= threshold.toNanos() && log.isWarnEnabled()) {
+                MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+                log.warn("slow repository call repository={} method={} elapsedMs={} rows={} outcome={} params={}",
+                        repositoryName(joinPoint), signature.getName(), elapsed / 1_000_000, rowCount(result),
+                        error == null ? "success" : error.getClass().getSimpleName(),
+                        parameters(signature.getParameterNames(), joinPoint.getArgs()));
+            }
+        }
+    }
+
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        // Method bawaan (findById, saveAll, ...) dideklarasikan di interface Spring Data; ambil interface milik aplikasi
+        for (Class<?> type : joinPoint.getTarget().getClass().getInterfaces()) {
+            if (Repository.class.isAssignableFrom(type) && type.getPackageName().startsWith("com.finance.app")) {
+                return type.getSimpleName();
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+
+    private static String rowCount(Object result) {
+        if (result == null) {
+            return "0";
+        }
+        if (result instanceof Slice<?> slice) {
+            return String.valueOf(slice.getNumberOfElements());
+        }
+        if (result instanceof Collection<?> collection) {
+            return String.valueOf(collection.size());
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? "1" : "0";
+        }
+        if (result instanceof Number number) {
+            // Query @Modifying mengembalikan jumlah baris yang terdampak; agregat skalar dihitung satu baris
+            return result instanceof Integer ? number.toString() : "1";
+        }
+        if (result.getClass().isArray()) {
+            return String.valueOf(Array.getLength(result));
+        }
+        if (result instanceof java.util.stream.Stream<?>) {
+            return "streamed";
+        }
+        return "1";
+    }
+
+    static String parameters(String[] names, Object[] values) {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < values.length; i++) {
+            String name = names != null && i < names.length ? names[i] : "arg" + i;
+            joiner.add(name + "=" + abbreviate(values[i]));
+        }
+        return joiner.toString();
+    }
+
+    private static String abbreviate(Object value) {
+        String text;
+        if (value instanceof Collection<?> collection) {
+            text = collection.size() + " items" + (collection.stream().allMatch(SlowQueryLogAspect::isSafe)
+                    ? " " + collection : " <" + elementType(collection) + ">");
+        } else if (value instanceof Map<?, ?> map) {
+            text = map.size() + " entries";
+        } else if (value instanceof Object[] array) {
+            text = array.length + " items" + (Arrays.stream(array).allMatch(SlowQueryLogAspect::isSafe)
+                    ? " " + Arrays.toString(array) : " <" + array.getClass().getComponentType().getSimpleName() + ">");
+        } else if (isSafe(value)) {
+            text = String.valueOf(value);
+        } else {
+            text = "<" + value.getClass().getSimpleName() + ">";
+        }
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text;
+    }
+
+    // Allow-list: id, jumlah, tanggal, batas hasil, dan paging tidak memuat data pribadi pengguna
+    private static boolean isSafe(Object value) {
+        return value == null
+                || value instanceof Number
+                || value instanceof Boolean
+                || value instanceof TemporalAccessor
+                || value instanceof Enum<?>
+                || value instanceof Limit
+                || value instanceof Pageable
+                || value instanceof Sort;
+    }
+
+    private static String elementType(Collection<?> collection) {
+        return collection.stream()
+                .filter(element -> !isSafe(element))
+                .findFirst()
+                .map(element -> element.getClass().getSimpleName())
+                .orElse("Object");
+    }
+}
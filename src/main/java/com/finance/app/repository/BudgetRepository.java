@@ -1,45 +1,143 @@
 package com.finance.app.repository;
 
+import com.finance.app.dto.response.BudgetResponse;
 import com.finance.app.model.Budget;
+import com.finance.app.repository.projection.AmountTotals;
+import com.finance.app.repository.projection.DeletedRow;
+import com.finance.app.repository.projection.BudgetPatchResult;
+import com.finance.app.repository.projection.DescriptionRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
+    /**
+     * Membentuk {@link BudgetResponse} langsung dari hasil join budget dan user dalam satu statement.
+     */
+    String SELECT_RESPONSE = "SELECT new com.finance.app.dto.response.BudgetResponse(b.id, b.category, b.amount, b.month, u.id, b.description, u.username, b.version) "
+            + "FROM Budget b JOIN b.user u ";
 
-    // Mengambil data budget dengan amount maksimum berdasarkan user
-    @Query(value = "SELECT * FROM budget WHERE user_id = :userId AND amount = (SELECT MAX(amount) FROM budget WHERE user_id = :userId)", nativeQuery = true)
-    Budget findMaxAmountBudgetByUserId(@Param("userId") Long userId);
+    // Mengambil data budget milik user per halaman (filter dan paginasi dilakukan di database)
+    @Query(value = SELECT_RESPONSE + "WHERE b.user.id = :userId",
+            countQuery = "SELECT COUNT(b) FROM Budget b WHERE b.user.id = :userId")
+    Page<BudgetResponse> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    // Mengambil data budget dengan amount minimum berdasarkan user
-    @Query(value = "SELECT * FROM budget WHERE user_id = :userId AND amount = (SELECT MIN(amount) FROM budget WHERE user_id = :userId)", nativeQuery = true)
-    Budget findMinAmountBudgetByUserId(@Param("userId") Long userId);
+    // Mengambil data budget milik user pada rentang bulan tertentu per halaman (index range scan pada (user_id, month))
+    @Query(value = SELECT_RESPONSE + "WHERE b.user.id = :userId AND b.month BETWEEN :from AND :to",
+            countQuery = "SELECT COUNT(b) FROM Budget b WHERE b.user.id = :userId AND b.month BETWEEN :from AND :to")
+    Page<BudgetResponse> findByUserIdAndMonthBetween(@Param("userId") Long userId, @Param("from") YearMonth from, @Param("to") YearMonth to, Pageable pageable);
+
+    // Mengambil satu budget berdasarkan ID (kepemilikan diperiksa oleh service)
+    @Query(SELECT_RESPONSE + "WHERE b.id = :id")
+    Optional<BudgetResponse> findResponseById(@Param("id") Long id);
+
+    // Mengambil budget berdasarkan daftar ID milik user tertentu (hasil pencarian deskripsi)
+    @Query(SELECT_RESPONSE + "WHERE b.user.id = :userId AND b.id IN :ids")
+    List<BudgetResponse> findResponsesByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Mengambil k data budget dengan amount terbesar berdasarkan user (index (user_id, amount, id) dibaca mundur; id menjadi penentu urutan saat amount sama)
+    @Query(SELECT_RESPONSE + "WHERE b.user.id = :userId AND b.amount IS NOT NULL ORDER BY b.amount DESC, b.id DESC")
+    List<BudgetResponse> findTopAmountBudgetsByUserId(@Param("userId") Long userId, Limit limit);
+
+    // Mengambil k data budget dengan amount terkecil berdasarkan user (index (user_id, amount, id) dibaca maju)
+    @Query(SELECT_RESPONSE + "WHERE b.user.id = :userId AND b.amount IS NOT NULL ORDER BY b.amount ASC, b.id ASC")
+    List<BudgetResponse> findBottomAmountBudgetsByUserId(@Param("userId") Long userId, Limit limit);
 
     // Mengambil data budget dengan jumlah tertentu (lebih dari) berdasarkan user
-    @Query(value = "SELECT * FROM budget WHERE user_id = :userId AND amount > :amount", nativeQuery = true)
-    List<Budget> findBudgetsGreaterThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
+    @Query(SELECT_RESPONSE + "WHERE b.user.id = :userId AND b.amount > :amount")
+    List<BudgetResponse> findBudgetsGreaterThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
 
     // Mengambil data budget dengan jumlah tertentu (kurang dari) berdasarkan user
-    @Query(value = "SELECT * FROM budget WHERE user_id = :userId AND amount < :amount", nativeQuery = true)
-    List<Budget> findBudgetsLessThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
+    @Query(SELECT_RESPONSE + "WHERE b.user.id = :userId AND b.amount < :amount")
+    List<BudgetResponse> findBudgetsLessThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
+
+    // Mengambil ID dan deskripsi seluruh budget milik user untuk membangun index pencarian deskripsi
+    @Query("SELECT b.id AS id, b.description AS description FROM Budget b WHERE b.user.id = :userId AND b.description IS NOT NULL")
+    List<DescriptionRow> findDescriptionsByUserId(@Param("userId") Long userId);
+
+    // Menghitung jumlah baris dan total amount sekaligus (dipakai untuk mengisi cache agregat per user)
+    @Query(value = "SELECT COUNT(*) AS count, COALESCE(SUM(amount), 0) AS total FROM budget WHERE user_id = :userId", nativeQuery = true)
+    AmountTotals findAmountTotalsByUserId(@Param("userId") Long userId);
+
+    // Paginasi keyset: halaman pertama dan halaman setelah cursor, diurutkan (month, id) menurun
+    @Query(SELECT_RESPONSE + "WHERE b.user.id = :userId AND b.month IS NOT NULL ORDER BY b.month DESC, b.id DESC")
+    List<BudgetResponse> findBudgetsByUserIdOrderByMonth(@Param("userId") Long userId, Limit limit);
+
+    // Converter YearMonth tidak diterapkan pada parameter di dalam perbandingan tuple, sehingga month dikirim
+    // sebagai tanggal awal bulan (nilai kolom yang disimpan YearMonthDateConverter)
+    @Query(SELECT_RESPONSE + "WHERE b.user.id = :userId AND (b.month, b.id) < (:month, :id) ORDER BY b.month DESC, b.id DESC")
+    List<BudgetResponse> findBudgetsByUserIdAfterMonth(@Param("userId") Long userId, @Param("month") LocalDate month, @Param("id") Long id, Limit limit);
+
+    // Paginasi keyset: halaman pertama dan halaman setelah cursor, diurutkan (amount, id) menurun
+    @Query(SELECT_RESPONSE + "WHERE b.user.id = :userId AND b.amount IS NOT NULL ORDER BY b.amount DESC, b.id DESC")
+    List<BudgetResponse> findBudgetsByUserIdOrderByAmount(@Param("userId") Long userId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "WHERE b.user.id = :userId AND (b.amount, b.id) < (:amount, :id) ORDER BY b.amount DESC, b.id DESC")
+    List<BudgetResponse> findBudgetsByUserIdAfterAmount(@Param("userId") Long userId, @Param("amount") Double amount, @Param("id") Long id, Limit limit);
+
+    // Membaca seluruh budget milik user secara bertahap (forward-only) untuk ekspor; harus dipanggil di dalam transaksi
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Budget b JOIN FETCH b.user WHERE b.user.id = :userId ORDER BY b.id")
+    Stream<Budget> streamByUserId(@Param("userId") Long userId);
+
+    // PATCH dalam satu statement: baris dikunci, field yang dikirim (tidak null) diterapkan, version dinaikkan,
+    // lalu baris baru dikembalikan bersama nilai sebelumnya. Bulan dikirim sebagai tanggal pertama bulan tersebut.
+    // Version hanya dicocokkan jika dikirim; hasil kosong berarti budget tidak ada, bukan milik user, atau
+    // version-nya sudah berubah.
+    @Query(value = "WITH previous AS ("
+            + " SELECT id, amount, month, category FROM budget WHERE id = :id AND user_id = :userId FOR UPDATE"
+            + "), updated AS ("
+            + " UPDATE budget b SET category = COALESCE(CAST(:category AS VARCHAR), b.category),"
+            + " description = COALESCE(CAST(:description AS VARCHAR), b.description),"
+            + " amount = COALESCE(CAST(:amount AS DOUBLE PRECISION), b.amount),"
+            + " month = COALESCE(CAST(:month AS DATE), b.month),"
+            + " version = b.version + 1"
+            + " FROM previous p WHERE b.id = p.id AND (CAST(:version AS BIGINT) IS NULL OR b.version = CAST(:version AS BIGINT))"
+            + " RETURNING b.id, b.category, b.amount, b.month, b.user_id, b.description, b.version,"
+            + " p.amount AS previous_amount, p.month AS previous_month, p.category AS previous_category"
+            + ") SELECT x.id AS id, x.category AS category, x.amount AS amount, x.month AS month, x.user_id AS userId,"
+            + " x.description AS description, u.username AS username, x.version AS version,"
+            + " x.previous_amount AS previousAmount, x.previous_month AS previousMonth, x.previous_category AS previousCategory"
+            + " FROM updated x JOIN app_user u ON u.id = x.user_id", nativeQuery = true)
+    Optional<BudgetPatchResult> patchBudget(@Param("id") Long id, @Param("userId") Long userId, @Param("category") String category,
+                                            @Param("description") String description, @Param("amount") Double amount,
+                                            @Param("month") LocalDate month, @Param("version") Long version);
 
-    // Mengambil data budget berdasarkan deskripsi yang mengandung kata kunci tertentu
-    @Query(value = "SELECT * FROM budget WHERE description LIKE %:keyword%", nativeQuery = true)
-    List<Budget> findBudgetsByDescriptionContaining(@Param("keyword") String keyword);
+    // Bulk delete milik user dalam satu statement (berdasarkan bulan, rentang amount, atau daftar ID).
+    // Baris yang dihapus dikembalikan agar rollup dan index pencarian bisa diperbarui tanpa query tambahan.
+    @Query(value = "WITH deleted AS (DELETE FROM budget WHERE user_id = :userId AND month BETWEEN :from AND :to"
+            + " RETURNING id, amount, month, category) SELECT id, amount, month AS date, category AS dimension FROM deleted", nativeQuery = true)
+    List<DeletedRow> deleteByUserIdAndMonthBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    // Menghitung total amount dari semua budget untuk user tertentu
-    @Query(value = "SELECT SUM(amount) FROM budget WHERE user_id = :userId", nativeQuery = true)
-    Double findTotalAmountByUserId(@Param("userId") Long userId);
+    @Query(value = "WITH deleted AS (DELETE FROM budget WHERE user_id = :userId AND amount BETWEEN :minAmount AND :maxAmount"
+            + " RETURNING id, amount, month, category) SELECT id, amount, month AS date, category AS dimension FROM deleted", nativeQuery = true)
+    List<DeletedRow> deleteByUserIdAndAmountBetween(@Param("userId") Long userId, @Param("minAmount") Double minAmount, @Param("maxAmount") Double maxAmount);
 
-    // Menghitung jumlah budget berdasarkan bulan untuk user tertentu dan mengurutkannya
-    @Query(value = "SELECT month, COUNT(*) as count FROM budget WHERE user_id = :userId GROUP BY month ORDER BY month", nativeQuery = true)
-    List<Object[]> countBudgetsByMonthForUser(@Param("userId") Long userId);
+    @Query(value = "WITH deleted AS (DELETE FROM budget WHERE user_id = :userId AND id IN (:ids)"
+            + " RETURNING id, amount, month, category) SELECT id, amount, month AS date, category AS dimension FROM deleted", nativeQuery = true)
+    List<DeletedRow> deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
-    // Menghitung jumlah budget yang ada untuk setiap kategori untuk user tertentu
-    @Query(value = "SELECT category, COUNT(*) as count FROM budget WHERE user_id = :userId GROUP BY category", nativeQuery = true)
-    List<Object[]> countBudgetsByCategoryForUser(@Param("userId") Long userId);
+    // Menghapus paling banyak :limit budget milik user (teardown user per chunk; index (user_id, ...) dipakai)
+    @Modifying
+    @Query(value = "DELETE FROM budget WHERE id IN (SELECT id FROM budget WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 }
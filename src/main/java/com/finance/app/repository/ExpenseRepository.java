@@ -1,43 +1,147 @@
 package com.finance.app.repository;
 
+import com.finance.app.dto.response.ExpenseResponse;
 import com.finance.app.model.Expense;
+import com.finance.app.repository.projection.AmountTotals;
+import com.finance.app.repository.projection.BucketTotals;
+import com.finance.app.repository.projection.DeletedRow;
+import com.finance.app.repository.projection.DescriptionRow;
+import com.finance.app.repository.projection.ExpensePatchResult;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
-    // 1. Mengambil data expense dengan amount maksimum berdasarkan user
-    @Query(value = "SELECT * FROM expense WHERE user_id = :userId AND amount = (SELECT MAX(amount) FROM expense WHERE user_id = :userId)", nativeQuery = true)
-    Optional<Expense> findMaxAmountExpenseByUserId(@Param("userId") Long userId);
+    /**
+     * Membentuk {@link ExpenseResponse} langsung dari hasil join expense dan user dalam satu statement, sehingga
+     * association {@code user} yang lazy tidak pernah dimuat satu per satu.
+     */
+    String SELECT_RESPONSE = "SELECT new com.finance.app.dto.response.ExpenseResponse(e.id, e.amount, e.date, u.id, e.description, e.category, u.username, e.version) "
+            + "FROM Expense e JOIN e.user u ";
 
-    // 2. Mengambil data expense dengan amount minimum berdasarkan user
-    @Query(value = "SELECT * FROM expense WHERE user_id = :userId AND amount = (SELECT MIN(amount) FROM expense WHERE user_id = :userId)", nativeQuery = true)
-    Optional<Expense> findMinAmountExpenseByUserId(@Param("userId") Long userId);
+    // 0. Mengambil data expense milik user per halaman (filter dan paginasi dilakukan di database)
+    @Query(value = SELECT_RESPONSE + "WHERE e.user.id = :userId",
+            countQuery = "SELECT COUNT(e) FROM Expense e WHERE e.user.id = :userId")
+    Page<ExpenseResponse> findByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // 0b. Mengambil data expense milik user pada rentang tanggal tertentu per halaman (index range scan pada (user_id, date))
+    @Query(value = SELECT_RESPONSE + "WHERE e.user.id = :userId AND e.date BETWEEN :from AND :to",
+            countQuery = "SELECT COUNT(e) FROM Expense e WHERE e.user.id = :userId AND e.date BETWEEN :from AND :to")
+    Page<ExpenseResponse> findByUserIdAndDateBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    // 0c. Mengambil satu expense berdasarkan ID (kepemilikan diperiksa oleh service)
+    @Query(SELECT_RESPONSE + "WHERE e.id = :id")
+    Optional<ExpenseResponse> findResponseById(@Param("id") Long id);
+
+    // 0d. Mengambil expense berdasarkan daftar ID milik user tertentu (hasil pencarian deskripsi)
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND e.id IN :ids")
+    List<ExpenseResponse> findResponsesByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // 1. Mengambil k data expense dengan amount terbesar berdasarkan user (index (user_id, amount, id) dibaca mundur; id menjadi penentu urutan saat amount sama)
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND e.amount IS NOT NULL ORDER BY e.amount DESC, e.id DESC")
+    List<ExpenseResponse> findTopAmountExpensesByUserId(@Param("userId") Long userId, Limit limit);
+
+    // 2. Mengambil k data expense dengan amount terkecil berdasarkan user (index (user_id, amount, id) dibaca maju)
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND e.amount IS NOT NULL ORDER BY e.amount ASC, e.id ASC")
+    List<ExpenseResponse> findBottomAmountExpensesByUserId(@Param("userId") Long userId, Limit limit);
 
     // 3. Mengambil data expense dengan jumlah tertentu (lebih dari) berdasarkan user
-    @Query(value = "SELECT * FROM expense WHERE user_id = :userId AND amount > :amount", nativeQuery = true)
-    List<Expense> findExpensesGreaterThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND e.amount > :amount")
+    List<ExpenseResponse> findExpensesGreaterThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
 
     // 4. Mengambil data expense dengan jumlah tertentu (kurang dari) berdasarkan user
-    @Query(value = "SELECT * FROM expense WHERE user_id = :userId AND amount < :amount", nativeQuery = true)
-    List<Expense> findExpensesLessThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND e.amount < :amount")
+    List<ExpenseResponse> findExpensesLessThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
+
+    // 5. Mengambil ID dan deskripsi seluruh expense milik user untuk membangun index pencarian deskripsi
+    @Query("SELECT e.id AS id, e.description AS description FROM Expense e WHERE e.user.id = :userId AND e.description IS NOT NULL")
+    List<DescriptionRow> findDescriptionsByUserId(@Param("userId") Long userId);
+
+    // 6b. Menghitung jumlah baris dan total amount sekaligus (dipakai untuk mengisi cache agregat per user)
+    @Query(value = "SELECT COUNT(*) AS count, COALESCE(SUM(amount), 0) AS total FROM expense WHERE user_id = :userId", nativeQuery = true)
+    AmountTotals findAmountTotalsByUserId(@Param("userId") Long userId);
+
+    // 9. Paginasi keyset: halaman pertama dan halaman setelah cursor, diurutkan (date, id) menurun
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND e.date IS NOT NULL ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseResponse> findExpensesByUserIdOrderByDate(@Param("userId") Long userId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND (e.date, e.id) < (:date, :id) ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseResponse> findExpensesByUserIdAfterDate(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("id") Long id, Limit limit);
+
+    // 10. Paginasi keyset: halaman pertama dan halaman setelah cursor, diurutkan (amount, id) menurun
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND e.amount IS NOT NULL ORDER BY e.amount DESC, e.id DESC")
+    List<ExpenseResponse> findExpensesByUserIdOrderByAmount(@Param("userId") Long userId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND (e.amount, e.id) < (:amount, :id) ORDER BY e.amount DESC, e.id DESC")
+    List<ExpenseResponse> findExpensesByUserIdAfterAmount(@Param("userId") Long userId, @Param("amount") Double amount, @Param("id") Long id, Limit limit);
+
+    // 11. Membaca seluruh expense milik user secara bertahap (forward-only) untuk ekspor; harus dipanggil di dalam transaksi
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Expense e JOIN FETCH e.user WHERE e.user.id = :userId ORDER BY e.id")
+    Stream<Expense> streamByUserId(@Param("userId") Long userId);
+
+    // 12. PATCH dalam satu statement: baris dikunci, field yang dikirim (tidak null) diterapkan, version dinaikkan,
+    //     lalu baris baru dikembalikan bersama nilai sebelumnya. Version hanya dicocokkan jika dikirim; hasil kosong
+    //     berarti expense tidak ada, bukan milik user, atau version-nya sudah berubah.
+    @Query(value = "WITH previous AS ("
+            + " SELECT id, amount, date, category FROM expense WHERE id = :id AND user_id = :userId FOR UPDATE"
+            + "), updated AS ("
+            + " UPDATE expense e SET amount = COALESCE(CAST(:amount AS DOUBLE PRECISION), e.amount),"
+            + " date = COALESCE(CAST(:date AS DATE), e.date),"
+            + " description = COALESCE(CAST(:description AS VARCHAR), e.description),"
+            + " category = COALESCE(CAST(:category AS VARCHAR), e.category),"
+            + " version = e.version + 1"
+            + " FROM previous p WHERE e.id = p.id AND (CAST(:version AS BIGINT) IS NULL OR e.version = CAST(:version AS BIGINT))"
+            + " RETURNING e.id, e.amount, e.date, e.user_id, e.description, e.category, e.version,"
+            + " p.amount AS previous_amount, p.date AS previous_date, p.category AS previous_category"
+            + ") SELECT x.id AS id, x.amount AS amount, x.date AS date, x.user_id AS userId, x.description AS description,"
+            + " x.category AS category, u.username AS username, x.version AS version, x.previous_amount AS previousAmount,"
+            + " x.previous_date AS previousDate, x.previous_category AS previousCategory"
+            + " FROM updated x JOIN app_user u ON u.id = x.user_id", nativeQuery = true)
+    Optional<ExpensePatchResult> patchExpense(@Param("id") Long id, @Param("userId") Long userId, @Param("amount") Double amount,
+                                              @Param("date") LocalDate date, @Param("description") String description,
+                                              @Param("category") String category, @Param("version") Long version);
+
+    // 13. Bulk delete milik user dalam satu statement (berdasarkan tanggal, rentang amount, atau daftar ID).
+    //     Baris yang dihapus dikembalikan agar rollup dan index pencarian bisa diperbarui tanpa query tambahan.
+    @Query(value = "WITH deleted AS (DELETE FROM expense WHERE user_id = :userId AND date BETWEEN :from AND :to"
+            + " RETURNING id, amount, date, category) SELECT id, amount, date, category AS dimension FROM deleted", nativeQuery = true)
+    List<DeletedRow> deleteByUserIdAndDateBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    // 5. Mengambil data expense berdasarkan deskripsi yang mengandung kata kunci tertentu (case insensitive) berdasarkan user
-    @Query(value = "SELECT * FROM expense WHERE user_id = :userId AND LOWER(description) LIKE LOWER(CONCAT('%', :keyword, '%'))", nativeQuery = true)
-    List<Expense> findExpensesByDescriptionContainingIgnoreCase(@Param("userId") Long userId, @Param("keyword") String keyword);
+    @Query(value = "WITH deleted AS (DELETE FROM expense WHERE user_id = :userId AND amount BETWEEN :minAmount AND :maxAmount"
+            + " RETURNING id, amount, date, category) SELECT id, amount, date, category AS dimension FROM deleted", nativeQuery = true)
+    List<DeletedRow> deleteByUserIdAndAmountBetween(@Param("userId") Long userId, @Param("minAmount") Double minAmount, @Param("maxAmount") Double maxAmount);
 
-    // 6. Menghitung total amount dari semua expense untuk user tertentu
-    @Query(value = "SELECT COALESCE(SUM(amount), 0) FROM expense WHERE user_id = :userId", nativeQuery = true)
-    Double findTotalAmountByUserId(@Param("userId") Long userId);
+    @Query(value = "WITH deleted AS (DELETE FROM expense WHERE user_id = :userId AND id IN (:ids)"
+            + " RETURNING id, amount, date, category) SELECT id, amount, date, category AS dimension FROM deleted", nativeQuery = true)
+    List<DeletedRow> deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
-    // 7. Menghitung jumlah expense berdasarkan bulan untuk user tertentu dan mengurutkannya
-    @Query(value = "SELECT EXTRACT(MONTH FROM date) AS month, COUNT(*) FROM expense WHERE user_id = :userId GROUP BY EXTRACT(MONTH FROM date) ORDER BY month", nativeQuery = true)
-    List<Object[]> countExpensesByMonthForUser(@Param("userId") Long userId);
+    // 14. Menghapus paling banyak :limit expense milik user (teardown user per chunk; index (user_id, ...) dipakai)
+    @Modifying
+    @Query(value = "DELETE FROM expense WHERE id IN (SELECT id FROM expense WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 
-    // 8. Menghitung jumlah expense berdasarkan tahun untuk user tertentu dan mengurutkannya
-    @Query(value = "SELECT EXTRACT(YEAR FROM date) AS year, COUNT(*) FROM expense WHERE user_id = :userId GROUP BY EXTRACT(YEAR FROM date) ORDER BY year", nativeQuery = true)
-    List<Object[]> countExpensesByYearForUser(@Param("userId") Long userId);
+    // 15. Histogram langsung dari baris expense untuk bucket day/week: satu baris per bucket yang berisi data
+    //     (index range scan pada (user_id, date)); bucket kosong diisi oleh service
+    @Query(value = "SELECT CAST(date_trunc(CAST(:unit AS TEXT), date) AS DATE) AS bucket, COUNT(*) AS count, "
+            + "COALESCE(SUM(amount), 0) AS sum FROM expense WHERE user_id = :userId AND date BETWEEN :from AND :to "
+            + "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<BucketTotals> totalsByBucket(@Param("userId") Long userId, @Param("unit") String unit, @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
 }
@@ -0,0 +1,43 @@
+package com.finance.app.repository;
+
+import com.finance.app.model.IdempotencyRecord;
+import com.finance.app.model.IdempotencyRecordId;
+import com.finance.app.repository.projection.StoredResponseRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecordId> {
+    // 1. Membaca respons tersimpan yang belum kedaluwarsa (tanpa kunci baris)
+    @Query(value = "SELECT request_hash AS requestHash, status_code AS statusCode, content_type AS contentType, response_body AS responseBody "
+            + "FROM idempotency_key WHERE scope = :scope AND idempotency_key = :key AND created_at >= :expiredBefore "
+            + "AND status_code IS NOT NULL", nativeQuery = true)
+    Optional<StoredResponseRow> findStored(@Param("scope") String scope, @Param("key") String key, @Param("expiredBefore") Instant expiredBefore);
+
+    // 2. Mengklaim key untuk transaksi ini; baris kedaluwarsa diklaim ulang. Hasil 0 berarti key sudah dipakai oleh
+    //    request lain yang sudah commit. Jika request lain masih berjalan, statement ini menunggu sampai ia selesai.
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (scope, idempotency_key, request_hash, created_at) "
+            + "VALUES (:scope, :key, :requestHash, :now) "
+            + "ON CONFLICT (scope, idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, created_at = EXCLUDED.created_at, "
+            + "status_code = NULL, content_type = NULL, response_body = NULL "
+            + "WHERE idempotency_key.created_at < :expiredBefore", nativeQuery = true)
+    int claim(@Param("scope") String scope, @Param("key") String key, @Param("requestHash") byte[] requestHash,
+              @Param("now") Instant now, @Param("expiredBefore") Instant expiredBefore);
+
+    // 3. Menyimpan respons untuk key yang sudah diklaim oleh transaksi ini
+    @Modifying
+    @Query(value = "UPDATE idempotency_key SET status_code = :statusCode, content_type = CAST(:contentType AS VARCHAR), response_body = :responseBody "
+            + "WHERE scope = :scope AND idempotency_key = :key", nativeQuery = true)
+    int complete(@Param("scope") String scope, @Param("key") String key, @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType, @Param("responseBody") byte[] responseBody);
+
+    // 4. Membersihkan key yang sudah kedaluwarsa (index created_at)
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_key WHERE created_at < :expiredBefore", nativeQuery = true)
+    int deleteExpired(@Param("expiredBefore") Instant expiredBefore);
+}
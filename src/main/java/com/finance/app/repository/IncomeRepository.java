@@ -1,45 +1,147 @@
 package com.finance.app.repository;
 
+import com.finance.app.dto.response.IncomeResponse;
 import com.finance.app.model.Income;
+import com.finance.app.repository.projection.AmountTotals;
+import com.finance.app.repository.projection.BucketTotals;
+import com.finance.app.repository.projection.DeletedRow;
+import com.finance.app.repository.projection.DescriptionRow;
+import com.finance.app.repository.projection.IncomePatchResult;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IncomeRepository extends JpaRepository<Income, Long> {
+    /**
+     * Membentuk {@link IncomeResponse} langsung dari hasil join income dan user dalam satu statement.
+     */
+    String SELECT_RESPONSE = "SELECT new com.finance.app.dto.response.IncomeResponse(i.id, i.source, i.amount, i.date, u.id, i.description, u.username, i.version) "
+            + "FROM Income i JOIN i.user u ";
+
+    // Mengambil data income milik user per halaman (filter dan paginasi dilakukan di database)
+    @Query(value = SELECT_RESPONSE + "WHERE i.user.id = :userId",
+            countQuery = "SELECT COUNT(i) FROM Income i WHERE i.user.id = :userId")
+    Page<IncomeResponse> findByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Mengambil data income milik user pada rentang tanggal tertentu per halaman (index range scan pada (user_id, date))
+    @Query(value = SELECT_RESPONSE + "WHERE i.user.id = :userId AND i.date BETWEEN :from AND :to",
+            countQuery = "SELECT COUNT(i) FROM Income i WHERE i.user.id = :userId AND i.date BETWEEN :from AND :to")
+    Page<IncomeResponse> findByUserIdAndDateBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    // Mengambil satu income berdasarkan ID (kepemilikan diperiksa oleh service)
+    @Query(SELECT_RESPONSE + "WHERE i.id = :id")
+    Optional<IncomeResponse> findResponseById(@Param("id") Long id);
+
+    // Mengambil income berdasarkan daftar ID milik user tertentu (hasil pencarian deskripsi)
+    @Query(SELECT_RESPONSE + "WHERE i.user.id = :userId AND i.id IN :ids")
+    List<IncomeResponse> findResponsesByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
     //Native Query
-    // 1. Mengambil data income dengan amount maksimum berdasarkan user
-    @Query(value = "SELECT * FROM income WHERE user_id = :userId ORDER BY amount DESC LIMIT 1", nativeQuery = true)
-    Optional<Income> findMaxAmountIncomeByUserId(@Param("userId") Long userId);
+    // 1. Mengambil k data income dengan amount terbesar berdasarkan user (index (user_id, amount, id) dibaca mundur; id menjadi penentu urutan saat amount sama)
+    @Query(SELECT_RESPONSE + "WHERE i.user.id = :userId AND i.amount IS NOT NULL ORDER BY i.amount DESC, i.id DESC")
+    List<IncomeResponse> findTopAmountIncomesByUserId(@Param("userId") Long userId, Limit limit);
 
-    // 2. Mengambil data income dengan amount minimum berdasarkan user
-    @Query(value = "SELECT * FROM income WHERE user_id = :userId ORDER BY amount ASC LIMIT 1", nativeQuery = true)
-    Optional<Income> findMinAmountIncomeByUserId(@Param("userId") Long userId);
+    // 2. Mengambil k data income dengan amount terkecil berdasarkan user (index (user_id, amount, id) dibaca maju)
+    @Query(SELECT_RESPONSE + "WHERE i.user.id = :userId AND i.amount IS NOT NULL ORDER BY i.amount ASC, i.id ASC")
+    List<IncomeResponse> findBottomAmountIncomesByUserId(@Param("userId") Long userId, Limit limit);
 
     // 3. Mengambil data income dengan jumlah tertentu (lebih dari) berdasarkan user
-    @Query(value = "SELECT * FROM income WHERE user_id = :userId AND amount > :amount", nativeQuery = true)
-    List<Income> findIncomesGreaterThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
+    @Query(SELECT_RESPONSE + "WHERE i.user.id = :userId AND i.amount > :amount")
+    List<IncomeResponse> findIncomesGreaterThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
 
     // 4. Mengambil data income dengan jumlah tertentu (kurang dari) berdasarkan user
-    @Query(value = "SELECT * FROM income WHERE user_id = :userId AND amount < :amount", nativeQuery = true)
-    List<Income> findIncomesLessThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
+    @Query(SELECT_RESPONSE + "WHERE i.user.id = :userId AND i.amount < :amount")
+    List<IncomeResponse> findIncomesLessThanAmountByUserId(@Param("userId") Long userId, @Param("amount") Double amount);
+
+    // 5. Mengambil ID dan deskripsi seluruh income milik user untuk membangun index pencarian deskripsi
+    @Query("SELECT i.id AS id, i.description AS description FROM Income i WHERE i.user.id = :userId AND i.description IS NOT NULL")
+    List<DescriptionRow> findDescriptionsByUserId(@Param("userId") Long userId);
+
+    // 6b. Menghitung jumlah baris dan total amount sekaligus (dipakai untuk mengisi cache agregat per user)
+    @Query(value = "SELECT COUNT(*) AS count, COALESCE(SUM(amount), 0) AS total FROM income WHERE user_id = :userId", nativeQuery = true)
+    AmountTotals findAmountTotalsByUserId(@Param("userId") Long userId);
+
+    // 9. Paginasi keyset: halaman pertama dan halaman setelah cursor, diurutkan (date, id) menurun
+    @Query(SELECT_RESPONSE + "WHERE i.user.id = :userId AND i.date IS NOT NULL ORDER BY i.date DESC, i.id DESC")
+    List<IncomeResponse> findIncomesByUserIdOrderByDate(@Param("userId") Long userId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "WHERE i.user.id = :userId AND (i.date, i.id) < (:date, :id) ORDER BY i.date DESC, i.id DESC")
+    List<IncomeResponse> findIncomesByUserIdAfterDate(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("id") Long id, Limit limit);
+
+    // 10. Paginasi keyset: halaman pertama dan halaman setelah cursor, diurutkan (amount, id) menurun
+    @Query(SELECT_RESPONSE + "WHERE i.user.id = :userId AND i.amount IS NOT NULL ORDER BY i.amount DESC, i.id DESC")
+    List<IncomeResponse> findIncomesByUserIdOrderByAmount(@Param("userId") Long userId, Limit limit);
+
+    @Query(SELECT_RESPONSE + "WHERE i.user.id = :userId AND (i.amount, i.id) < (:amount, :id) ORDER BY i.amount DESC, i.id DESC")
+    List<IncomeResponse> findIncomesByUserIdAfterAmount(@Param("userId") Long userId, @Param("amount") Double amount, @Param("id") Long id, Limit limit);
+
+    // 11. Membaca seluruh income milik user secara bertahap (forward-only) untuk ekspor; harus dipanggil di dalam transaksi
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Income i JOIN FETCH i.user WHERE i.user.id = :userId ORDER BY i.id")
+    Stream<Income> streamByUserId(@Param("userId") Long userId);
+
+    // 12. PATCH dalam satu statement: baris dikunci, field yang dikirim (tidak null) diterapkan, version dinaikkan,
+    //     lalu baris baru dikembalikan bersama nilai sebelumnya. Version hanya dicocokkan jika dikirim; hasil kosong
+    //     berarti income tidak ada, bukan milik user, atau version-nya sudah berubah.
+    @Query(value = "WITH previous AS ("
+            + " SELECT id, amount, date, source FROM income WHERE id = :id AND user_id = :userId FOR UPDATE"
+            + "), updated AS ("
+            + " UPDATE income i SET source = COALESCE(CAST(:source AS VARCHAR), i.source),"
+            + " amount = COALESCE(CAST(:amount AS DOUBLE PRECISION), i.amount),"
+            + " date = COALESCE(CAST(:date AS DATE), i.date),"
+            + " description = COALESCE(CAST(:description AS VARCHAR), i.description),"
+            + " version = i.version + 1"
+            + " FROM previous p WHERE i.id = p.id AND (CAST(:version AS BIGINT) IS NULL OR i.version = CAST(:version AS BIGINT))"
+            + " RETURNING i.id, i.source, i.amount, i.date, i.user_id, i.description, i.version,"
+            + " p.amount AS previous_amount, p.date AS previous_date, p.source AS previous_source"
+            + ") SELECT x.id AS id, x.source AS source, x.amount AS amount, x.date AS date, x.user_id AS userId,"
+            + " x.description AS description, u.username AS username, x.version AS version,"
+            + " x.previous_amount AS previousAmount, x.previous_date AS previousDate, x.previous_source AS previousSource"
+            + " FROM updated x JOIN app_user u ON u.id = x.user_id", nativeQuery = true)
+    Optional<IncomePatchResult> patchIncome(@Param("id") Long id, @Param("userId") Long userId, @Param("source") String source,
+                                            @Param("amount") Double amount, @Param("date") LocalDate date,
+                                            @Param("description") String description, @Param("version") Long version);
+
+    // 13. Bulk delete milik user dalam satu statement (berdasarkan tanggal, rentang amount, atau daftar ID).
+    //     Baris yang dihapus dikembalikan agar rollup dan index pencarian bisa diperbarui tanpa query tambahan.
+    @Query(value = "WITH deleted AS (DELETE FROM income WHERE user_id = :userId AND date BETWEEN :from AND :to"
+            + " RETURNING id, amount, date, source) SELECT id, amount, date, source AS dimension FROM deleted", nativeQuery = true)
+    List<DeletedRow> deleteByUserIdAndDateBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    // 5. Mengambil data income berdasarkan deskripsi yang mengandung kata kunci tertentu (case insensitive)
-    @Query(value = "SELECT * FROM income WHERE user_id = :userId AND LOWER(description) LIKE LOWER(CONCAT('%', :keyword, '%'))", nativeQuery = true)
-    List<Income> findIncomesByDescriptionContainingIgnoreCase(@Param("userId") Long userId, @Param("keyword") String keyword);
+    @Query(value = "WITH deleted AS (DELETE FROM income WHERE user_id = :userId AND amount BETWEEN :minAmount AND :maxAmount"
+            + " RETURNING id, amount, date, source) SELECT id, amount, date, source AS dimension FROM deleted", nativeQuery = true)
+    List<DeletedRow> deleteByUserIdAndAmountBetween(@Param("userId") Long userId, @Param("minAmount") Double minAmount, @Param("maxAmount") Double maxAmount);
 
-    // 6. Menghitung total amount dari semua income untuk user tertentu
-    @Query(value = "SELECT SUM(amount) FROM income WHERE user_id = :userId", nativeQuery = true)
-    Double findTotalAmountByUserId(@Param("userId") Long userId);
+    @Query(value = "WITH deleted AS (DELETE FROM income WHERE user_id = :userId AND id IN (:ids)"
+            + " RETURNING id, amount, date, source) SELECT id, amount, date, source AS dimension FROM deleted", nativeQuery = true)
+    List<DeletedRow> deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
-    // 7. Menghitung jumlah income berdasarkan bulan untuk user tertentu dan mengurutkannya
-    @Query(value = "SELECT EXTRACT(MONTH FROM date) AS month, SUM(amount) FROM income WHERE user_id = :userId GROUP BY EXTRACT(MONTH FROM date) ORDER BY month", nativeQuery = true)
-    List<Object[]> findIncomeSumByMonthForUser(@Param("userId") Long userId);
+    // 14. Menghapus paling banyak :limit income milik user (teardown user per chunk; index (user_id, ...) dipakai)
+    @Modifying
+    @Query(value = "DELETE FROM income WHERE id IN (SELECT id FROM income WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 
-    // 8. Menghitung jumlah income yang ada untuk setiap source untuk user tertentu
-    @Query(value = "SELECT source, SUM(amount) FROM income WHERE user_id = :userId GROUP BY source", nativeQuery = true)
-    List<Object[]> findIncomeSumBySourceForUser(@Param("userId") Long userId);
+    // 15. Histogram langsung dari baris income untuk bucket day/week: satu baris per bucket yang berisi data
+    //     (index range scan pada (user_id, date)); bucket kosong diisi oleh service
+    @Query(value = "SELECT CAST(date_trunc(CAST(:unit AS TEXT), date) AS DATE) AS bucket, COUNT(*) AS count, "
+            + "COALESCE(SUM(amount), 0) AS sum FROM income WHERE user_id = :userId AND date BETWEEN :from AND :to "
+            + "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<BucketTotals> totalsByBucket(@Param("userId") Long userId, @Param("unit") String unit, @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
 }
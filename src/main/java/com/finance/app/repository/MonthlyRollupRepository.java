@@ -0,0 +1,112 @@
+package com.finance.app.repository;
+
+import com.finance.app.model.MonthlyRollup;
+import com.finance.app.model.MonthlyRollupId;
+import com.finance.app.repository.projection.BucketTotals;
+import com.finance.app.repository.projection.BudgetVarianceTotals;
+import com.finance.app.repository.projection.IncomeExpenseTotals;
+import com.finance.app.repository.projection.MonthOfYearTotals;
+import com.finance.app.repository.projection.MonthTotals;
+import com.finance.app.repository.projection.NamedTotals;
+import com.finance.app.repository.projection.YearTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, MonthlyRollupId> {
+    // 1. Menambahkan delta (jumlah baris dan amount, boleh negatif) ke satu baris rollup; dibuat jika belum ada
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollup (user_id, entity_type, period, dimension, row_count, amount_total) " +
+            "VALUES (:userId, :entityType, :period, :dimension, :count, :amount) " +
+            "ON CONFLICT (user_id, entity_type, period, dimension) DO UPDATE " +
+            "SET row_count = monthly_rollup.row_count + EXCLUDED.row_count, " +
+            "amount_total = monthly_rollup.amount_total + EXCLUDED.amount_total", nativeQuery = true)
+    void upsert(@Param("userId") Long userId, @Param("entityType") String entityType, @Param("period") LocalDate period,
+                @Param("dimension") String dimension, @Param("count") long count, @Param("amount") double amount);
+
+    // 2. Menghitung jumlah baris dan total amount per bulan dalam setahun (1-12) untuk user tertentu
+    @Query(value = "SELECT CAST(EXTRACT(MONTH FROM NULLIF(period, DATE '0001-01-01')) AS INTEGER) AS month, " +
+            "CAST(SUM(row_count) AS BIGINT) AS count, SUM(amount_total) AS sum " +
+            "FROM monthly_rollup WHERE user_id = :userId AND entity_type = :entityType AND row_count > 0 " +
+            "GROUP BY 1 ORDER BY month", nativeQuery = true)
+    List<MonthOfYearTotals> totalsByMonthOfYear(@Param("userId") Long userId, @Param("entityType") String entityType);
+
+    // 3. Menghitung jumlah baris dan total amount per tahun untuk user tertentu
+    @Query(value = "SELECT CAST(EXTRACT(YEAR FROM NULLIF(period, DATE '0001-01-01')) AS INTEGER) AS year, " +
+            "CAST(SUM(row_count) AS BIGINT) AS count, SUM(amount_total) AS sum " +
+            "FROM monthly_rollup WHERE user_id = :userId AND entity_type = :entityType AND row_count > 0 " +
+            "GROUP BY 1 ORDER BY year", nativeQuery = true)
+    List<YearTotals> totalsByYear(@Param("userId") Long userId, @Param("entityType") String entityType);
+
+    // 4. Menghitung jumlah baris dan total amount per bulan (yyyy-MM) untuk user tertentu
+    @Query(value = "SELECT to_char(NULLIF(period, DATE '0001-01-01'), 'YYYY-MM') AS month, " +
+            "CAST(SUM(row_count) AS BIGINT) AS count, SUM(amount_total) AS sum " +
+            "FROM monthly_rollup WHERE user_id = :userId AND entity_type = :entityType AND row_count > 0 " +
+            "GROUP BY period ORDER BY 1", nativeQuery = true)
+    List<MonthTotals> totalsByMonth(@Param("userId") Long userId, @Param("entityType") String entityType);
+
+    // 5. Menghitung jumlah baris dan total amount per dimensi (source/category) untuk user tertentu
+    @Query(value = "SELECT NULLIF(dimension, '') AS name, CAST(SUM(row_count) AS BIGINT) AS count, SUM(amount_total) AS sum " +
+            "FROM monthly_rollup WHERE user_id = :userId AND entity_type = :entityType AND row_count > 0 " +
+            "GROUP BY dimension ORDER BY dimension", nativeQuery = true)
+    List<NamedTotals> totalsByDimension(@Param("userId") Long userId, @Param("entityType") String entityType);
+
+    // 6. Menjumlahkan amount income dan expense per bulan (yyyy-MM) dalam satu query; baris tanpa tanggal diabaikan
+    @Query(value = "SELECT to_char(period, 'YYYY-MM') AS month, " +
+            "COALESCE(SUM(amount_total) FILTER (WHERE entity_type = 'INCOME'), 0) AS income, " +
+            "COALESCE(SUM(amount_total) FILTER (WHERE entity_type = 'EXPENSE'), 0) AS expense " +
+            "FROM monthly_rollup WHERE user_id = :userId AND entity_type IN ('INCOME', 'EXPENSE') " +
+            "AND period <> DATE '0001-01-01' AND row_count > 0 " +
+            "GROUP BY period ORDER BY period", nativeQuery = true)
+    List<IncomeExpenseTotals> sumIncomeAndExpenseByMonth(@Param("userId") Long userId);
+
+    // 6b. Budget dan realisasi expense per (bulan, kategori) dalam satu query: keduanya dibaca dari rollup dengan
+    //     dimensi category, sehingga biayanya sebanding dengan jumlah kategori x bulan, bukan jumlah transaksi.
+    //     Kategori yang hanya memiliki budget atau hanya memiliki expense tetap muncul (sisi lainnya 0)
+    @Query(value = "SELECT to_char(period, 'YYYY-MM') AS month, NULLIF(dimension, '') AS category, " +
+            "COALESCE(SUM(amount_total) FILTER (WHERE entity_type = 'BUDGET'), 0) AS budgeted, " +
+            "COALESCE(SUM(amount_total) FILTER (WHERE entity_type = 'EXPENSE'), 0) AS spent " +
+            "FROM monthly_rollup WHERE user_id = :userId AND entity_type IN ('BUDGET', 'EXPENSE') " +
+            "AND period <> DATE '0001-01-01' AND row_count > 0 " +
+            "AND (CAST(:from AS DATE) IS NULL OR period >= CAST(:from AS DATE)) " +
+            "AND (CAST(:to AS DATE) IS NULL OR period <= CAST(:to AS DATE)) " +
+            "GROUP BY period, dimension ORDER BY period, dimension", nativeQuery = true)
+    List<BudgetVarianceTotals> budgetVarianceByMonthAndCategory(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                                                @Param("to") LocalDate to);
+
+    // 6c. Histogram dari rollup untuk bucket month/quarter/year: baris rollup bulanan dijumlahkan per bucket
+    @Query(value = "SELECT CAST(date_trunc(CAST(:unit AS TEXT), period) AS DATE) AS bucket, " +
+            "CAST(SUM(row_count) AS BIGINT) AS count, SUM(amount_total) AS sum " +
+            "FROM monthly_rollup WHERE user_id = :userId AND entity_type = :entityType " +
+            "AND period BETWEEN :from AND :to AND period <> DATE '0001-01-01' AND row_count > 0 " +
+            "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<BucketTotals> totalsByBucket(@Param("userId") Long userId, @Param("entityType") String entityType, @Param("unit") String unit,
+                                      @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // 7. Menyusun ulang rollup satu user dari data transaksinya (backfill atau perbaikan)
+    @Modifying
+    @Query(value = "DELETE FROM monthly_rollup WHERE user_id = :userId", nativeQuery = true)
+    void deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollup (user_id, entity_type, period, dimension, row_count, amount_total) " +
+            "SELECT user_id, 'EXPENSE', COALESCE(CAST(date_trunc('month', date) AS DATE), DATE '0001-01-01'), COALESCE(category, ''), " +
+            "COUNT(*), COALESCE(SUM(amount), 0) FROM expense WHERE user_id = :userId GROUP BY 1, 3, 4", nativeQuery = true)
+    int rebuildExpensesForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollup (user_id, entity_type, period, dimension, row_count, amount_total) " +
+            "SELECT user_id, 'INCOME', COALESCE(CAST(date_trunc('month', date) AS DATE), DATE '0001-01-01'), COALESCE(source, ''), " +
+            "COUNT(*), COALESCE(SUM(amount), 0) FROM income WHERE user_id = :userId GROUP BY 1, 3, 4", nativeQuery = true)
+    int rebuildIncomesForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollup (user_id, entity_type, period, dimension, row_count, amount_total) " +
+            "SELECT user_id, 'BUDGET', COALESCE(month, DATE '0001-01-01'), COALESCE(category, ''), " +
+            "COUNT(*), COALESCE(SUM(amount), 0) FROM budget WHERE user_id = :userId GROUP BY 1, 3, 4", nativeQuery = true)
+    int rebuildBudgetsForUser(@Param("userId") Long userId);
+}
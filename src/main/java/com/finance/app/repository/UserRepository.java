@@ -1,13 +1,17 @@
 package com.finance.app.repository;
 
 
+import com.finance.app.dto.response.UserResponse;
 import com.finance.app.model.User;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -50,4 +54,45 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Transactional
     @Query(value = "UPDATE app_user SET username = :username, password = :password, email = :email WHERE id = :id", nativeQuery = true)
     void updateUser(@Param("id") Long id, @Param("username") String username, @Param("password") String password, @Param("email") String email);
+
+    /**
+     * Mengambil username pengguna berdasarkan ID tanpa memuat entity-nya.
+     * @param id ID pengguna yang dicari.
+     * @return Optional<String> Username jika pengguna ditemukan, kosong jika tidak ditemukan.
+     */
+    @Query("SELECT u.username FROM User u WHERE u.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+
+    /**
+     * Mengambil direktori pengguna per halaman, hanya kolom id, username, dan email.
+     * Filter username berupa prefix case-sensitive (memakai index text_pattern_ops), filter email
+     * berupa kecocokan persis tanpa membedakan huruf besar/kecil.
+     * @param usernamePattern Pola LIKE yang sudah di-escape, misalnya {@code "and%"}; {@code "%"} untuk semua.
+     * @param email Email lowercase yang dicari, atau string kosong untuk tanpa filter email.
+     * @param pageable Parameter page, size, dan sort.
+     * @return Page<UserResponse> Satu halaman pengguna.
+     */
+    @Query(value = "SELECT new com.finance.app.dto.response.UserResponse(u.id, u.username, u.email) FROM User u "
+            + "WHERE u.username LIKE :usernamePattern ESCAPE '\\' AND (:email = '' OR LOWER(u.email) = :email)",
+            countQuery = "SELECT COUNT(u) FROM User u "
+                    + "WHERE u.username LIKE :usernamePattern ESCAPE '\\' AND (:email = '' OR LOWER(u.email) = :email)")
+    Page<UserResponse> findDirectory(@Param("usernamePattern") String usernamePattern, @Param("email") String email, Pageable pageable);
+
+    /**
+     * Mengambil seluruh ID pengguna tanpa memuat entity-nya.
+     * @return Daftar ID pengguna, terurut naik.
+     */
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+
+    /**
+     * Mengunci baris pengguna sampai transaksi selesai; insert transaksi baru milik pengguna ini
+     * (yang memeriksa foreign key ke app_user) menunggu hingga kunci dilepas.
+     * Memakai FOR UPDATE secara eksplisit: PESSIMISTIC_WRITE di PostgreSQL menjadi FOR NO KEY UPDATE,
+     * yang tidak bertabrakan dengan kunci FOR KEY SHARE dari pemeriksaan foreign key.
+     * @param id ID pengguna yang dikunci.
+     * @return Optional<User> Objek pengguna jika ditemukan, kosong jika tidak ditemukan.
+     */
+    @Query(value = "SELECT * FROM app_user WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
 }
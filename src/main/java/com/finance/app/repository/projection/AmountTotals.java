@@ -0,0 +1,10 @@
+package com.finance.app.repository.projection;
+
+/**
+ * Jumlah baris dan total amount milik satu user, dihitung dalam satu query agregat.
+ */
+public interface AmountTotals {
+    Long getCount();
+
+    Double getTotal();
+}
@@ -0,0 +1,14 @@
+package com.finance.app.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Jumlah baris dan total amount pada satu bucket histogram, dikunci dengan tanggal awal bucket.
+ */
+public interface BucketTotals {
+    LocalDate getBucket();
+
+    Long getCount();
+
+    Double getSum();
+}
@@ -0,0 +1,31 @@
+package com.finance.app.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Baris budget setelah PATCH beserta amount, bulan, dan kategori sebelumnya (untuk memperbarui rollup dan cache
+ * agregat). Bulan dikembalikan sebagai tanggal pertama pada bulan tersebut, sesuai penyimpanannya.
+ */
+public interface BudgetPatchResult {
+    Long getId();
+
+    String getCategory();
+
+    Double getAmount();
+
+    LocalDate getMonth();
+
+    Long getUserId();
+
+    String getDescription();
+
+    String getUsername();
+
+    Long getVersion();
+
+    Double getPreviousAmount();
+
+    LocalDate getPreviousMonth();
+
+    String getPreviousCategory();
+}
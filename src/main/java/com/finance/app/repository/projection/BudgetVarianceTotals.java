@@ -0,0 +1,14 @@
+package com.finance.app.repository.projection;
+
+/**
+ * Total budget dan expense untuk satu kategori pada satu bulan kalender (yyyy-MM).
+ */
+public interface BudgetVarianceTotals {
+    String getMonth();
+
+    String getCategory();
+
+    Double getBudgeted();
+
+    Double getSpent();
+}
@@ -0,0 +1,17 @@
+package com.finance.app.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Baris transaksi yang dihapus oleh bulk delete: cukup untuk mengurangi rollup bulanan (tanggal/bulan dan
+ * source/category) serta membuang ID-nya dari index pencarian.
+ */
+public interface DeletedRow {
+    Long getId();
+
+    Double getAmount();
+
+    LocalDate getDate();
+
+    String getDimension();
+}
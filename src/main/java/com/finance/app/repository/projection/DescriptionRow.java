@@ -0,0 +1,10 @@
+package com.finance.app.repository.projection;
+
+/**
+ * ID dan deskripsi satu baris transaksi, untuk membangun index pencarian deskripsi.
+ */
+public interface DescriptionRow {
+    Long getId();
+
+    String getDescription();
+}
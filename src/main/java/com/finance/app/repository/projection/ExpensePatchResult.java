@@ -0,0 +1,30 @@
+package com.finance.app.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Baris expense setelah PATCH beserta amount dan tanggal sebelumnya (untuk memperbarui rollup dan cache agregat).
+ */
+public interface ExpensePatchResult {
+    Long getId();
+
+    Double getAmount();
+
+    LocalDate getDate();
+
+    Long getUserId();
+
+    String getDescription();
+
+    String getCategory();
+
+    String getUsername();
+
+    Long getVersion();
+
+    Double getPreviousAmount();
+
+    LocalDate getPreviousDate();
+
+    String getPreviousCategory();
+}
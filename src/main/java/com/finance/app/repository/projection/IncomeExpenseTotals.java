@@ -0,0 +1,12 @@
+package com.finance.app.repository.projection;
+
+/**
+ * Total income dan expense pada satu bulan kalender (yyyy-MM).
+ */
+public interface IncomeExpenseTotals {
+    String getMonth();
+
+    Double getIncome();
+
+    Double getExpense();
+}
@@ -0,0 +1,31 @@
+package com.finance.app.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Baris income setelah PATCH beserta amount, tanggal, dan sumber sebelumnya (untuk memperbarui rollup dan cache
+ * agregat).
+ */
+public interface IncomePatchResult {
+    Long getId();
+
+    String getSource();
+
+    Double getAmount();
+
+    LocalDate getDate();
+
+    Long getUserId();
+
+    String getDescription();
+
+    String getUsername();
+
+    Long getVersion();
+
+    Double getPreviousAmount();
+
+    LocalDate getPreviousDate();
+
+    String getPreviousSource();
+}
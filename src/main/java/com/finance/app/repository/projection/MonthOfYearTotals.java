@@ -0,0 +1,12 @@
+package com.finance.app.repository.projection;
+
+/**
+ * Jumlah baris dan total amount per bulan dalam setahun (1-12); bulan null untuk baris tanpa tanggal.
+ */
+public interface MonthOfYearTotals {
+    Integer getMonth();
+
+    Long getCount();
+
+    Double getSum();
+}
@@ -0,0 +1,12 @@
+package com.finance.app.repository.projection;
+
+/**
+ * Jumlah baris dan total amount per bulan kalender (yyyy-MM); bulan null untuk baris tanpa tanggal.
+ */
+public interface MonthTotals {
+    String getMonth();
+
+    Long getCount();
+
+    Double getSum();
+}
@@ -0,0 +1,12 @@
+package com.finance.app.repository.projection;
+
+/**
+ * Jumlah baris dan total amount per nilai kolom pengelompokan (source atau category).
+ */
+public interface NamedTotals {
+    String getName();
+
+    Long getCount();
+
+    Double getSum();
+}
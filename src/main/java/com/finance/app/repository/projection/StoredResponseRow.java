@@ -0,0 +1,14 @@
+package com.finance.app.repository.projection;
+
+/**
+ * Respons tersimpan untuk satu Idempotency-Key beserta hash body request-nya.
+ */
+public interface StoredResponseRow {
+    byte[] getRequestHash();
+
+    Integer getStatusCode();
+
+    String getContentType();
+
+    byte[] getResponseBody();
+}
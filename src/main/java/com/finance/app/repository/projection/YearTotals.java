@@ -0,0 +1,12 @@
+package com.finance.app.repository.projection;
+
+/**
+ * Jumlah baris dan total amount per tahun; tahun null untuk baris tanpa tanggal.
+ */
+public interface YearTotals {
+    Integer getYear();
+
+    Long getCount();
+
+    Double getSum();
+}
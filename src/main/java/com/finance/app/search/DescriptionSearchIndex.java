@@ -0,0 +1,144 @@
+package com.finance.app.search;
+
+import com.finance.app.repository.projection.DescriptionRow;
+import com.finance.app.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Index pencarian deskripsi untuk satu jenis transaksi: satu {@link TrigramIndex} per user, dibangun saat user
+ * tersebut pertama kali mencari dan dibuang setelah lama tidak dipakai. Create/update/delete memperbarui index
+ * user yang sedang dimuat setelah transaksinya commit.
+ *
+ * <p>Cache dibatasi dengan bobot {@link TrigramIndex#weight()} (jumlah deskripsi dan entri posting list), sehingga
+ * beberapa user dengan riwayat besar tidak bisa memenuhi heap. Bobot dihitung ulang setiap kali index selesai dimuat
+ * atau berubah.</p>
+ */
+public class DescriptionSearchIndex {
+    private final Cache<Long, TrigramIndex> indexes;
+
+    public DescriptionSearchIndex(long maximumWeight, Duration idleTimeout) {
+        this(maximumWeight, idleTimeout, ForkJoinPool.commonPool());
+    }
+
+    DescriptionSearchIndex(long maximumWeight, Duration idleTimeout, Executor executor) {
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Long userId, TrigramIndex index) -> index.weight())
+                .expireAfterAccess(idleTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * @param loader Mengambil seluruh ID dan deskripsi milik user; hanya dipanggil jika index user belum dimuat
+     * @return ID yang cocok, terurut sesuai ranking, paling banyak {@code limit}
+     */
+    public List<Long> search(Long userId, String keyword, int limit, Supplier<List<DescriptionRow>> loader) {
+        TrigramIndex index = indexes.get(userId, id -> new TrigramIndex());
+        try {
+            if (index.ensureLoaded(loader)) {
+                reweigh(userId, index);
+            }
+        } catch (RuntimeException e) {
+            indexes.asMap().remove(userId, index);
+            throw e;
+        }
+        return index.search(keyword, limit);
+    }
+
+    /**
+     * Mencari lalu mengambil baris hasil dari database, dengan urutan ranking index dipertahankan. Baris yang sudah
+     * berubah sejak diindeks (perubahannya belum commit saat index dibaca) disaring ulang; jika karena itu hasil
+     * kurang dari {@code limit}, index diminta lagi dengan batas dua kali lipat sampai {@code limit} terpenuhi atau
+     * kandidat habis. Baris yang sudah diambil tidak diambil ulang.
+     *
+     * @param fetch Mengambil baris milik user berdasarkan ID; ID yang tidak lagi ada boleh diabaikan
+     */
+    public <T> List<T> search(Long userId, String keyword, int limit, Supplier<List<DescriptionRow>> loader,
+                              Function<List<Long>, List<T>> fetch, Function<T, Long> idOf, Function<T, String> descriptionOf) {
+        Map<Long, T> fetched = new HashMap<>();
+        for (int candidates = limit; ; candidates = (int) Math.min(2L * candidates, Integer.MAX_VALUE)) {
+            List<Long> ids = search(userId, keyword, candidates, loader);
+            List<Long> missing = ids.stream().filter(id -> !fetched.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                missing.forEach(id -> fetched.put(id, null));
+                fetch.apply(missing).forEach(row -> fetched.put(idOf.apply(row), row));
+            }
+
+            List<T> rows = ids.stream()
+                    .map(fetched::get)
+                    .filter(row -> row != null && matches(descriptionOf.apply(row), keyword))
+                    .limit(limit)
+                    .toList();
+            if (rows.size() == limit || ids.size() < candidates) {
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Mencocokkan deskripsi dengan keyword memakai normalisasi yang sama dengan index, untuk menyaring ulang baris
+     * hasil pencarian yang sudah berubah sejak diindeks.
+     */
+    public static boolean matches(String description, String keyword) {
+        return description != null && TrigramIndex.fold(description).contains(TrigramIndex.fold(keyword));
+    }
+
+    public void recordSaved(Long userId, Long id, String description) {
+        AfterCommit.run(() -> {
+            TrigramIndex index = indexes.getIfPresent(userId);
+            if (index != null && index.upsert(id, description)) {
+                reweigh(userId, index);
+            }
+        });
+    }
+
+    public <T> void recordSavedAll(Long userId, List<T> rows, Function<T, Long> idOf, Function<T, String> descriptionOf) {
+        AfterCommit.run(() -> {
+            TrigramIndex index = indexes.getIfPresent(userId);
+            if (index != null) {
+                rows.forEach(row -> index.upsert(idOf.apply(row), descriptionOf.apply(row)));
+                reweigh(userId, index);
+            }
+        });
+    }
+
+    public void recordDeleted(Long userId, Long id) {
+        AfterCommit.run(() -> {
+            TrigramIndex index = indexes.getIfPresent(userId);
+            if (index != null && index.remove(id)) {
+                reweigh(userId, index);
+            }
+        });
+    }
+
+    public void recordDeletedAll(Long userId, Collection<Long> ids) {
+        AfterCommit.run(() -> {
+            TrigramIndex index = indexes.getIfPresent(userId);
+            if (index != null) {
+                ids.forEach(index::remove);
+                reweigh(userId, index);
+            }
+        });
+    }
+
+    public void invalidate(Long userId) {
+        AfterCommit.run(() -> indexes.invalidate(userId));
+    }
+
+    // Caffeine menghitung bobot saat entry ditulis; menulis ulang entry yang sama memperbarui bobotnya
+    private void reweigh(Long userId, TrigramIndex index) {
+        indexes.asMap().replace(userId, index, index);
+    }
+}
@@ -0,0 +1,272 @@
+package com.finance.app.search;
+
+import com.finance.app.repository.projection.DescriptionRow;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Inverted index trigram atas deskripsi transaksi milik satu user. Setiap trigram (tiga karakter berurutan dari
+ * deskripsi yang sudah di-{@link #fold(String) fold}) memetakan ke posting list berupa {@code long[]} ID yang terurut,
+ * sehingga kandidat untuk sebuah keyword didapat dari irisan posting list trigram-trigramnya tanpa memindai seluruh
+ * deskripsi.
+ *
+ * <p>Index dimuat dari database saat pertama kali dicari. Perubahan yang masuk selama pemuatan ditampung lalu
+ * diputar ulang setelah snapshot database terpasang; karena setiap perubahan berupa upsert/hapus berdasarkan ID,
+ * memutar ulang perubahan yang sudah termuat di snapshot tidak mengubah hasil.</p>
+ */
+class TrigramIndex {
+    private static final int GRAM = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object loadMonitor = new Object();
+    private final Map<Long, String> documents = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final List<Runnable> pendingChanges = new ArrayList<>();
+    private long postingEntries;
+    private volatile int weight;
+    private volatile boolean loaded;
+
+    /**
+     * @return {@code true} jika pemanggilan ini yang memuat index
+     */
+    boolean ensureLoaded(Supplier<List<DescriptionRow>> loader) {
+        if (loaded) {
+            return false;
+        }
+        synchronized (loadMonitor) {
+            if (loaded) {
+                return false;
+            }
+            List<DescriptionRow> rows = loader.get();
+            lock.writeLock().lock();
+            try {
+                rows.forEach(row -> put(row.getId(), row.getDescription()));
+                pendingChanges.forEach(Runnable::run);
+                pendingChanges.clear();
+                updateWeight();
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return {@code true} jika perubahan langsung diterapkan (index sudah dimuat)
+     */
+    boolean upsert(long id, String description) {
+        return change(() -> put(id, description));
+    }
+
+    boolean remove(long id) {
+        return change(() -> delete(id));
+    }
+
+    /**
+     * Perkiraan ukuran index: jumlah deskripsi ditambah jumlah entri di seluruh posting list. Dipakai sebagai bobot
+     * cache agar batas memori mengikuti besar riwayat transaksi, bukan jumlah user.
+     */
+    int weight() {
+        return weight;
+    }
+
+    /**
+     * Mencari deskripsi yang mengandung keyword (case insensitive) dan mengembalikan ID terbaik sesuai ranking:
+     * deskripsi yang sama persis, lalu kecocokan di awal kata, posisi kecocokan paling awal, deskripsi terpendek,
+     * dan terakhir ID terbaru.
+     */
+    List<Long> search(String keyword, int limit) {
+        String needle = fold(keyword);
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Match> best = new PriorityQueue<>(Match.RANKING.reversed());
+            if (needle.length() < GRAM) {
+                // Keyword terlalu pendek untuk trigram; cukup memindai deskripsi milik user ini saja
+                documents.forEach((id, document) -> offer(best, id, document, needle, limit));
+            } else {
+                long[] candidates = candidates(needle);
+                for (long id : candidates) {
+                    offer(best, id, documents.get(id), needle, limit);
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(best);
+            matches.sort(Match.RANKING);
+            return matches.stream().map(match -> match.id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean change(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                change.run();
+                updateWeight();
+                return true;
+            }
+            pendingChanges.add(change);
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(long id, String description) {
+        delete(id);
+        if (description == null || description.isEmpty()) {
+            return;
+        }
+        String document = fold(description);
+        documents.put(id, document);
+        for (long gram : grams(document)) {
+            if (postings.computeIfAbsent(gram, key -> new PostingList()).add(id)) {
+                postingEntries++;
+            }
+        }
+    }
+
+    private void delete(long id) {
+        String document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (long gram : grams(document)) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(id)) {
+                postingEntries--;
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private void updateWeight() {
+        weight = (int) Math.min(Integer.MAX_VALUE, documents.size() + postingEntries);
+    }
+
+    /**
+     * Irisan posting list seluruh trigram keyword, dimulai dari list terpendek sehingga biayanya sebanding
+     * dengan jumlah kandidat, bukan jumlah deskripsi.
+     */
+    private long[] candidates(String needle) {
+        Set<Long> grams = grams(needle);
+        List<PostingList> lists = new ArrayList<>(grams.size());
+        for (long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        long[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            PostingList other = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (other.contains(result[j])) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static void offer(PriorityQueue<Match> best, long id, String document, String needle, int limit) {
+        // Trigram yang sama belum tentu berurutan; pastikan keyword benar-benar muncul di deskripsi
+        int position = document == null ? -1 : document.indexOf(needle);
+        if (position < 0) {
+            return;
+        }
+        boolean wordStart = position == 0 || !Character.isLetterOrDigit(document.charAt(position - 1));
+        Match match = new Match(id, document.length() == needle.length(), wordStart, position, document.length());
+        if (best.size() < limit) {
+            best.add(match);
+        } else if (Match.RANKING.compare(match, best.peek()) < 0) {
+            best.poll();
+            best.add(match);
+        }
+    }
+
+    /**
+     * Menyamakan bentuk teks sebelum dibandingkan: normalisasi NFKC (huruf beraksen tersusun maupun terurai, ligatur,
+     * karakter full-width) lalu lowercase tanpa bergantung pada locale server.
+     */
+    static String fold(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private record Match(long id, boolean exact, boolean wordStart, int position, int length) {
+        static final Comparator<Match> RANKING = Comparator
+                .comparing((Match match) -> !match.exact)
+                .thenComparing(match -> !match.wordStart)
+                .thenComparingInt(match -> match.position)
+                .thenComparingInt(match -> match.length)
+                .thenComparing(Comparator.comparingLong((Match match) -> match.id).reversed());
+    }
+
+    /**
+     * Daftar ID terurut naik dalam array primitif. ID baru hampir selalu lebih besar dari yang sudah ada
+     * (sequence), sehingga penambahan umumnya berupa append.
+     */
+    private static class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        boolean add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+            return true;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
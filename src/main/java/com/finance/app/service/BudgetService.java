@@ -1,15 +1,36 @@
 package com.finance.app.service;
 
+import com.finance.app.dto.request.BudgetPatchRequest;
 import com.finance.app.dto.request.BudgetRequest;
+import com.finance.app.dto.response.BatchResponse;
 import com.finance.app.dto.response.BudgetResponse;
-
+import com.finance.app.dto.response.BudgetVarianceResponse;
+import com.finance.app.dto.response.CursorPageResponse;
+import com.finance.app.dto.response.MonthTotalResponse;
+import com.finance.app.dto.response.NamedTotalResponse;
+import com.finance.app.dto.response.PageResponse;
+import com.finance.app.util.ExportFormat;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.YearMonth;
 import java.util.List;
 
 public interface BudgetService {
     // CRUD Operations
 
-    // Mendapatkan semua budget berdasarkan user
-    List<BudgetResponse> getAllBudgetsByUserId(Long userId);
+    // Mendapatkan budget berdasarkan user per halaman
+    PageResponse<BudgetResponse> getAllBudgetsByUserId(Long userId, Pageable pageable);
+
+    // Mendapatkan budget berdasarkan user pada rentang bulan tertentu (inklusif) per halaman
+    PageResponse<BudgetResponse> getBudgetsByUserIdAndMonthRange(Long userId, YearMonth from, YearMonth to, Pageable pageable);
+
+    // Mendapatkan budget berdasarkan user dengan paginasi keyset (sortBy: "month" atau "amount")
+    CursorPageResponse<BudgetResponse> getBudgetsByUserIdAfterCursor(Long userId, String sortBy, String cursor, int size);
+
+    // Menulis seluruh budget milik user ke output stream baris per baris (NDJSON atau CSV)
+    void exportBudgetsByUserId(Long userId, ExportFormat format, OutputStream outputStream) throws IOException;
 
     // Mendapatkan budget berdasarkan ID budget dan user
     BudgetResponse getBudgetByIdAndUserId(Long budgetId, Long userId);
@@ -17,12 +38,25 @@ public interface BudgetService {
     // Membuat budget
     BudgetResponse createBudget(BudgetRequest budgetRequest);
 
+    // Membuat banyak budget sekaligus dengan insert JDBC batch
+    BatchResponse<BudgetResponse> createBudgets(List<BudgetRequest> budgetRequests);
+
     // Mengupdate budget
     BudgetResponse updateBudget(Long budgetId, BudgetRequest budgetRequest);
 
+    // Mengubah sebagian field budget milik user dalam satu statement UPDATE (tanpa memindahkan ke user lain)
+    BudgetResponse patchBudget(Long budgetId, BudgetPatchRequest patchRequest);
+
     // Menghapus budget
     void deleteBudget(Long budgetId);
 
+    // Menghapus banyak budget milik user dalam satu statement (rentang bulan, rentang amount, atau daftar ID)
+    int deleteBudgetsByMonthRange(Long userId, YearMonth from, YearMonth to);
+
+    int deleteBudgetsByAmountRange(Long userId, Double minAmount, Double maxAmount);
+
+    int deleteBudgetsByIds(Long userId, List<Long> ids);
+
     // Native Query Operations
 
     // Mengambil data budget dengan amount maksimum berdasarkan user
@@ -31,21 +65,30 @@ public interface BudgetService {
     // Mengambil data budget dengan amount minimum berdasarkan user
     BudgetResponse getMinAmountBudgetByUserId(Long userId);
 
+    // Mengambil k data budget dengan amount terbesar berdasarkan user (amount sama diurutkan berdasarkan ID)
+    List<BudgetResponse> getTopAmountBudgetsByUserId(Long userId, int k);
+
+    // Mengambil k data budget dengan amount terkecil berdasarkan user (amount sama diurutkan berdasarkan ID)
+    List<BudgetResponse> getBottomAmountBudgetsByUserId(Long userId, int k);
+
     // Mengambil data budget dengan jumlah tertentu (lebih dari) berdasarkan user
     List<BudgetResponse> getBudgetsGreaterThanAmountByUserId(Long userId, Double amount);
 
     // Mengambil data budget dengan jumlah tertentu (kurang dari) berdasarkan user
     List<BudgetResponse> getBudgetsLessThanAmountByUserId(Long userId, Double amount);
 
-    // Mengambil data budget berdasarkan deskripsi yang mengandung kata kunci tertentu
-    List<BudgetResponse> getBudgetsByDescriptionContaining(String keyword);
+    // Mengambil data budget milik user berdasarkan deskripsi yang mengandung kata kunci tertentu, terurut dari yang paling relevan
+    List<BudgetResponse> getBudgetsByDescriptionContaining(Long userId, String keyword, int limit);
 
     // Menghitung total amount dari semua budget untuk user tertentu
     Double getTotalAmountByUserId(Long userId);
 
     // Menghitung jumlah budget berdasarkan bulan untuk user tertentu dan mengurutkannya
-    List<Object[]> getBudgetCountByMonthForUser(Long userId);
+    List<MonthTotalResponse> getBudgetCountByMonthForUser(Long userId);
 
     // Menghitung jumlah budget yang ada untuk setiap kategori untuk user tertentu
-    List<Object[]> getBudgetCountByCategoryForUser(Long userId);
+    List<NamedTotalResponse> getBudgetCountByCategoryForUser(Long userId);
+
+    // Membandingkan budget dengan realisasi expense per bulan dan kategori (rentang bulan opsional, inklusif)
+    List<BudgetVarianceResponse> getBudgetVarianceForUser(Long userId, YearMonth from, YearMonth to);
 }
@@ -1,8 +1,22 @@
 package com.finance.app.service;
 
+import com.finance.app.dto.request.ExpensePatchRequest;
 import com.finance.app.dto.request.ExpenseRequest;
+import com.finance.app.dto.response.BatchResponse;
+import com.finance.app.dto.response.CursorPageResponse;
 import com.finance.app.dto.response.ExpenseResponse;
-
+import com.finance.app.dto.response.HistogramBucketResponse;
+import com.finance.app.dto.response.MonthOfYearTotalResponse;
+import com.finance.app.dto.response.NamedTotalResponse;
+import com.finance.app.dto.response.PageResponse;
+import com.finance.app.dto.response.YearTotalResponse;
+import com.finance.app.util.ExportFormat;
+import com.finance.app.util.HistogramBucket;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ExpanseService {
@@ -10,11 +24,41 @@ public interface ExpanseService {
     // CRUD Operations
 
     /**
-     * Mendapatkan semua expense berdasarkan user
+     * Mendapatkan expense berdasarkan user per halaman
+     * @param userId ID dari user
+     * @param pageable Nomor halaman, ukuran halaman, dan urutan
+     * @return Satu halaman ExpenseResponse beserta metadata paginasinya
+     */
+    PageResponse<ExpenseResponse> getAllExpensesByUserId(Long userId, Pageable pageable);
+
+    /**
+     * Mendapatkan expense berdasarkan user pada rentang tanggal tertentu per halaman
+     * @param userId ID dari user
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @param pageable Nomor halaman, ukuran halaman, dan urutan
+     * @return Satu halaman ExpenseResponse beserta metadata paginasinya
+     */
+    PageResponse<ExpenseResponse> getExpensesByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to, Pageable pageable);
+
+    /**
+     * Mendapatkan expense berdasarkan user dengan paginasi keyset (cursor), urut menurun
+     * @param userId ID dari user
+     * @param sortBy Kolom urutan: "date" atau "amount"
+     * @param cursor Token dari halaman sebelumnya, kosong untuk halaman pertama
+     * @param size Jumlah data per halaman
+     * @return Satu halaman ExpenseResponse beserta token halaman berikutnya
+     */
+    CursorPageResponse<ExpenseResponse> getExpensesByUserIdAfterCursor(Long userId, String sortBy, String cursor, int size);
+
+    /**
+     * Menulis seluruh expense milik user ke output stream baris per baris (NDJSON atau CSV)
+     * tanpa menampung seluruh data di memori
      * @param userId ID dari user
-     * @return List of ExpenseResponse yang berisi detail expense untuk user tertentu
+     * @param format Format ekspor
+     * @param outputStream Tujuan penulisan, biasanya body respons HTTP
      */
-    List<ExpenseResponse> getAllExpensesByUserId(Long userId);
+    void exportExpensesByUserId(Long userId, ExportFormat format, OutputStream outputStream) throws IOException;
 
     /**
      * Mendapatkan expense berdasarkan ID expense dan user
@@ -31,6 +75,13 @@ public interface ExpanseService {
      */
     ExpenseResponse createExpense(ExpenseRequest expenseRequest);
 
+    /**
+     * Membuat banyak expense sekaligus dalam satu transaksi dengan insert JDBC batch
+     * @param expenseRequests Daftar request expense, boleh untuk beberapa user
+     * @return Ringkasan dan hasil per item; item dengan user yang tidak ada ditandai gagal
+     */
+    BatchResponse<ExpenseResponse> createExpenses(List<ExpenseRequest> expenseRequests);
+
     /**
      * Mengupdate expense berdasarkan user
      * @param expenseId ID dari expense yang akan diupdate
@@ -39,12 +90,46 @@ public interface ExpanseService {
      */
     ExpenseResponse updateExpense(Long expenseId, ExpenseRequest expenseRequest);
 
+    /**
+     * Mengubah sebagian field expense milik user dalam satu statement UPDATE
+     * @param expenseId ID dari expense yang akan diubah
+     * @param patchRequest Field yang akan diubah (null berarti tidak diubah) dan version yang diharapkan (opsional)
+     * @return ExpenseResponse yang berisi detail expense setelah diubah
+     */
+    ExpenseResponse patchExpense(Long expenseId, ExpensePatchRequest patchRequest);
+
     /**
      * Menghapus expense berdasarkan user
      * @param expenseId ID dari expense yang akan dihapus
      */
     void deleteExpense(Long expenseId);
 
+    /**
+     * Menghapus seluruh expense milik user pada rentang tanggal dalam satu statement
+     * @param userId ID dari user
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Jumlah expense yang dihapus
+     */
+    int deleteExpensesByDateRange(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Menghapus seluruh expense milik user dengan amount pada rentang tertentu dalam satu statement
+     * @param userId ID dari user
+     * @param minAmount Amount minimum (inklusif)
+     * @param maxAmount Amount maksimum (inklusif)
+     * @return Jumlah expense yang dihapus
+     */
+    int deleteExpensesByAmountRange(Long userId, Double minAmount, Double maxAmount);
+
+    /**
+     * Menghapus expense milik user berdasarkan daftar ID dalam satu statement; ID milik user lain diabaikan
+     * @param userId ID dari user
+     * @param ids Daftar ID expense
+     * @return Jumlah expense yang dihapus
+     */
+    int deleteExpensesByIds(Long userId, List<Long> ids);
+
     // Native Query Operations
 
     /**
@@ -61,6 +146,22 @@ public interface ExpanseService {
      */
     ExpenseResponse getMinAmountExpenseByUserId(Long userId);
 
+    /**
+     * Mengambil k data expense dengan amount terbesar berdasarkan user, terurut menurun (amount sama diurutkan dari ID terbaru)
+     * @param userId ID dari user
+     * @param k Jumlah data yang diambil (1 sampai 200)
+     * @return List of ExpenseResponse dengan amount terbesar
+     */
+    List<ExpenseResponse> getTopAmountExpensesByUserId(Long userId, int k);
+
+    /**
+     * Mengambil k data expense dengan amount terkecil berdasarkan user, terurut menaik (amount sama diurutkan dari ID terlama)
+     * @param userId ID dari user
+     * @param k Jumlah data yang diambil (1 sampai 200)
+     * @return List of ExpenseResponse dengan amount terkecil
+     */
+    List<ExpenseResponse> getBottomAmountExpensesByUserId(Long userId, int k);
+
     /**
      * Mengambil data expense dengan jumlah tertentu (lebih dari) berdasarkan user
      * @param userId ID dari user
@@ -81,9 +182,10 @@ public interface ExpanseService {
      * Mengambil data expense berdasarkan deskripsi yang mengandung kata kunci tertentu (case insensitive) berdasarkan user
      * @param userId ID dari user
      * @param keyword Kata kunci yang digunakan untuk filter deskripsi
-     * @return List of ExpenseResponse yang berisi detail expense dengan deskripsi yang mengandung kata kunci tertentu
+     * @param limit Jumlah maksimum hasil
+     * @return List of ExpenseResponse yang berisi detail expense dengan deskripsi yang mengandung kata kunci tertentu, terurut dari yang paling relevan
      */
-    List<ExpenseResponse> getExpensesByDescriptionContainingIgnoreCase(Long userId, String keyword);
+    List<ExpenseResponse> getExpensesByDescriptionContainingIgnoreCase(Long userId, String keyword, int limit);
 
     /**
      * Menghitung total amount dari semua expense untuk user tertentu
@@ -95,14 +197,31 @@ public interface ExpanseService {
     /**
      * Menghitung jumlah expense berdasarkan bulan untuk user tertentu dan mengurutkannya
      * @param userId ID dari user
-     * @return List yang berisi array objek dengan bulan dan jumlah expense untuk user tertentu
+     * @return Jumlah dan total expense per bulan (1-12) untuk user tertentu
      */
-    List<Object[]> getExpenseCountByMonthForUser(Long userId);
+    List<MonthOfYearTotalResponse> getExpenseCountByMonthForUser(Long userId);
 
     /**
      * Menghitung jumlah expense berdasarkan tahun untuk user tertentu dan mengurutkannya
      * @param userId ID dari user
-     * @return List yang berisi array objek dengan tahun dan jumlah expense untuk user tertentu
+     * @return Jumlah dan total expense per tahun untuk user tertentu
+     */
+    List<YearTotalResponse> getExpenseCountByYearForUser(Long userId);
+
+    /**
+     * Menghitung jumlah expense berdasarkan kategori untuk user tertentu
+     * @param userId ID dari user
+     * @return Jumlah dan total expense per kategori (null untuk expense tanpa kategori)
+     */
+    List<NamedTotalResponse> getExpenseCountByCategoryForUser(Long userId);
+
+    /**
+     * Histogram expense per bucket tanggal (day, week, month, quarter, year) pada rentang tertentu
+     * @param userId ID dari user
+     * @param bucket Ukuran bucket
+     * @param from Tanggal awal (inklusif), diperluas ke awal bucket-nya
+     * @param to Tanggal akhir (inklusif), diperluas ke akhir bucket-nya
+     * @return Seluruh bucket secara berurutan, termasuk bucket kosong
      */
-    List<Object[]> getExpenseCountByYearForUser(Long userId);
+    List<HistogramBucketResponse> getExpenseHistogram(Long userId, HistogramBucket bucket, LocalDate from, LocalDate to);
 }
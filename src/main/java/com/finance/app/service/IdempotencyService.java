@@ -0,0 +1,19 @@
+package com.finance.app.service;
+
+import com.finance.app.cache.StoredResponse;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+    // Respons tersimpan untuk key dari cache, atau dari database tanpa kunci baris; kosong jika belum ada
+    Optional<StoredResponse> find(String scope, String key);
+
+    // Mengklaim key di transaksi aktif; jika key sudah dipakai request lain, respons tersimpannya dikembalikan
+    Optional<StoredResponse> claim(String scope, String key, byte[] requestHash);
+
+    // Menyimpan respons untuk key yang sudah diklaim di transaksi aktif
+    void complete(String scope, String key, StoredResponse response);
+
+    // Menghapus key yang sudah melewati masa berlaku
+    int purgeExpired();
+}
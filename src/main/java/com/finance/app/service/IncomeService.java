@@ -1,36 +1,73 @@
 package com.finance.app.service;
 
+import com.finance.app.dto.request.IncomePatchRequest;
 import com.finance.app.dto.request.IncomeRequest;
+import com.finance.app.dto.response.BatchResponse;
+import com.finance.app.dto.response.CursorPageResponse;
+import com.finance.app.dto.response.HistogramBucketResponse;
 import com.finance.app.dto.response.IncomeResponse;
+import com.finance.app.dto.response.MonthOfYearTotalResponse;
+import com.finance.app.dto.response.NamedTotalResponse;
+import com.finance.app.dto.response.PageResponse;
+import com.finance.app.util.ExportFormat;
+import com.finance.app.util.HistogramBucket;
+import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface IncomeService {
     // CRUD operations using JpaRepository
-    List<IncomeResponse> getAllIncomesByUserId(Long userId);
+    PageResponse<IncomeResponse> getAllIncomesByUserId(Long userId, Pageable pageable);
+
+    PageResponse<IncomeResponse> getIncomesByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to, Pageable pageable);
+
+    CursorPageResponse<IncomeResponse> getIncomesByUserIdAfterCursor(Long userId, String sortBy, String cursor, int size);
+
+    void exportIncomesByUserId(Long userId, ExportFormat format, OutputStream outputStream) throws IOException;
 
     IncomeResponse getIncomeByIdAndUserId(Long incomeId, Long userId);
 
     IncomeResponse createIncome(IncomeRequest incomeRequest);
 
+    BatchResponse<IncomeResponse> createIncomes(List<IncomeRequest> incomeRequests);
+
     IncomeResponse updateIncome(Long incomeId, IncomeRequest incomeRequest);
 
+    IncomeResponse patchIncome(Long incomeId, IncomePatchRequest patchRequest);
+
     void deleteIncome(Long incomeId);
 
+    // Bulk delete milik user dalam satu statement; mengembalikan jumlah baris yang dihapus
+    int deleteIncomesByDateRange(Long userId, LocalDate from, LocalDate to);
+
+    int deleteIncomesByAmountRange(Long userId, Double minAmount, Double maxAmount);
+
+    int deleteIncomesByIds(Long userId, List<Long> ids);
+
     // Native Query methods
     IncomeResponse getMaxAmountIncomeByUserId(Long userId);
 
     IncomeResponse getMinAmountIncomeByUserId(Long userId);
 
+    List<IncomeResponse> getTopAmountIncomesByUserId(Long userId, int k);
+
+    List<IncomeResponse> getBottomAmountIncomesByUserId(Long userId, int k);
+
     List<IncomeResponse> getIncomesGreaterThanAmountByUserId(Long userId, Double amount);
 
     List<IncomeResponse> getIncomesLessThanAmountByUserId(Long userId, Double amount);
 
-    List<IncomeResponse> getIncomesByDescriptionContainingIgnoreCase(Long userId, String keyword);
+    List<IncomeResponse> getIncomesByDescriptionContainingIgnoreCase(Long userId, String keyword, int limit);
 
     Double getTotalAmountByUserId(Long userId);
 
-    List<Object[]> getIncomeSumByMonthForUser(Long userId);
+    List<MonthOfYearTotalResponse> getIncomeSumByMonthForUser(Long userId);
+
+    List<NamedTotalResponse> getIncomeSumBySourceForUser(Long userId);
 
-    List<Object[]> getIncomeSumBySourceForUser(Long userId);
+    // Histogram income per bucket tanggal pada rentang tertentu (diperluas ke bucket utuh), termasuk bucket kosong
+    List<HistogramBucketResponse> getIncomeHistogram(Long userId, HistogramBucket bucket, LocalDate from, LocalDate to);
 }
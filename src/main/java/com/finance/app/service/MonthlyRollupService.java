@@ -0,0 +1,26 @@
+package com.finance.app.service;
+
+import com.finance.app.model.MonthlyRollupId;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.Map;
+
+public interface MonthlyRollupService {
+    // Pemeliharaan inkremental; harus dipanggil di dalam transaksi yang menulis data transaksinya
+    void add(MonthlyRollupId key, Double amount);
+
+    void remove(MonthlyRollupId key, Double amount);
+
+    void replace(MonthlyRollupId previousKey, Double previousAmount, MonthlyRollupId key, Double amount);
+
+    // Delta batch dijumlahkan per kunci lebih dulu sehingga cukup satu upsert per (user, bulan, dimensi)
+    void addAll(Map<MonthlyRollupId, DoubleSummaryStatistics> deltas);
+
+    // Kebalikan addAll untuk bulk delete: jumlah baris dan amount per kunci dikurangkan
+    void removeAll(Map<MonthlyRollupId, DoubleSummaryStatistics> deltas);
+
+    // Backfill: menyusun ulang rollup dari data transaksi
+    int rebuildForUser(Long userId);
+
+    int rebuildAll();
+}
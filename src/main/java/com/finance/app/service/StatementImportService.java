@@ -0,0 +1,13 @@
+package com.finance.app.service;
+
+import com.finance.app.dto.response.ImportJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+public interface StatementImportService {
+    // Menjadwalkan import file mutasi (CSV/OFX) milik user; progresnya dipolling lewat getImportJob
+    ImportJobResponse startImport(Long userId, MultipartFile file, String format) throws IOException;
+
+    ImportJobResponse getImportJob(String jobId);
+}
@@ -1,9 +1,9 @@
 package com.finance.app.service;
 
 import com.finance.app.dto.request.UserRequest;
+import com.finance.app.dto.response.PageResponse;
 import com.finance.app.dto.response.UserResponse;
-
-import java.util.List;
+import org.springframework.data.domain.Pageable;
 
 public interface UserService {
     UserResponse getUserById(Long id);
@@ -11,5 +11,5 @@ public interface UserService {
     UserResponse createUser(UserRequest userRequest);
     UserResponse updateUser(Long id, UserRequest userRequest);
     void deleteUser(Long id);
-    List<UserResponse> getAllUsers();
+    PageResponse<UserResponse> getUsers(String usernamePrefix, String email, Pageable pageable);
 }
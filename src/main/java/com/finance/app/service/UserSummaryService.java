@@ -0,0 +1,8 @@
+package com.finance.app.service;
+
+import com.finance.app.dto.response.UserSummaryResponse;
+
+public interface UserSummaryService {
+    // Mengumpulkan total, max/min, dan seri bulanan user dalam satu request; section yang gagal dikembalikan kosong
+    UserSummaryResponse getSummaryByUserId(Long userId);
+}
@@ -1,98 +1,310 @@
 package com.finance.app.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.finance.app.cache.DataVersionCache;
+import com.finance.app.cache.KnownUserCache;
+import com.finance.app.cache.UserAggregateCache;
+import com.finance.app.dto.request.BudgetPatchRequest;
 import com.finance.app.dto.request.BudgetRequest;
+import com.finance.app.dto.response.BatchItemResponse;
+import com.finance.app.dto.response.BatchResponse;
 import com.finance.app.dto.response.BudgetResponse;
+import com.finance.app.dto.response.BudgetVarianceResponse;
+import com.finance.app.dto.response.CursorPageResponse;
+import com.finance.app.dto.response.MonthTotalResponse;
+import com.finance.app.dto.response.NamedTotalResponse;
+import com.finance.app.dto.response.PageResponse;
 import com.finance.app.exception.BudgetNotFoundException;
-import com.finance.app.exception.UserNotFoundException;
+import com.finance.app.exception.InvalidRequestException;
+import com.finance.app.exception.VersionConflictException;
 import com.finance.app.model.Budget;
+import com.finance.app.model.MonthlyRollupId;
+import com.finance.app.model.RollupType;
 import com.finance.app.model.User;
 import com.finance.app.repository.BudgetRepository;
+import com.finance.app.repository.MonthlyRollupRepository;
 import com.finance.app.repository.UserRepository;
+import com.finance.app.repository.projection.AmountTotals;
+import com.finance.app.repository.projection.DeletedRow;
+import com.finance.app.repository.projection.BudgetPatchResult;
+import com.finance.app.repository.projection.BudgetVarianceTotals;
+import com.finance.app.search.DescriptionSearchIndex;
 import com.finance.app.service.BudgetService;
+import com.finance.app.service.MonthlyRollupService;
+import com.finance.app.util.ExportFormat;
+import com.finance.app.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.finance.app.util.PageableUtil.requireSortable;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class BudgetServiceImpl implements BudgetService {
 
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "amount", "month", "category", "description");
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int BATCH_FLUSH_SIZE = 500;
+    private static final int MAX_SEARCH_LIMIT = 200;
+    private static final int MAX_TOP_K = 200;
+
     private final BudgetRepository budgetRepository;
     private final UserRepository userRepository;
+    private final KnownUserCache knownUserCache;
+    private final DataVersionCache dataVersionCache;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final UserAggregateCache<BudgetResponse> budgetAggregateCache;
+    private final DescriptionSearchIndex budgetDescriptionIndex;
 
     // CRUD Operations
 
     @Override
-    public List<BudgetResponse> getAllBudgetsByUserId(Long userId) {
-        // Memastikan user ada
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        // Mendapatkan semua budget dan memfilter berdasarkan userId
-        return budgetRepository.findAll().stream()
-                .filter(budget -> budget.getUser().getId().equals(userId))
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PageResponse<BudgetResponse> getAllBudgetsByUserId(Long userId, Pageable pageable) {
+        // Filter berdasarkan userId dan paginasi dilakukan langsung di database
+        Page<BudgetResponse> page = budgetRepository.findByUserId(userId, requireSortable(pageable, SORTABLE_PROPERTIES));
+        knownUserCache.requireExistsIfEmpty(userId, page.getContent());
+        return PageResponse.of(page);
     }
 
     @Override
-    public BudgetResponse getBudgetByIdAndUserId(Long budgetId, Long userId) {
-        // Memastikan user ada
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public PageResponse<BudgetResponse> getBudgetsByUserIdAndMonthRange(Long userId, YearMonth from, YearMonth to, Pageable pageable) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        Page<BudgetResponse> page = budgetRepository.findByUserIdAndMonthBetween(userId, from, to, requireSortable(pageable, SORTABLE_PROPERTIES));
+        knownUserCache.requireExistsIfEmpty(userId, page.getContent());
+        return PageResponse.of(page);
+    }
 
-        // Mengambil budget berdasarkan ID
-        Budget budget = budgetRepository.findById(budgetId)
-                .orElseThrow(() -> new BudgetNotFoundException("Budget not found with id: " + budgetId));
+    @Override
+    public CursorPageResponse<BudgetResponse> getBudgetsByUserIdAfterCursor(Long userId, String sortBy, String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new InvalidRequestException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor, sortBy);
+
+        // Mengambil satu baris lebih banyak untuk mengetahui apakah masih ada halaman berikutnya
+        Limit limit = Limit.of(size + 1);
+        List<BudgetResponse> rows = switch (sortBy) {
+            case "month" -> after == null
+                    ? budgetRepository.findBudgetsByUserIdOrderByMonth(userId, limit)
+                    : budgetRepository.findBudgetsByUserIdAfterMonth(userId, parseMonth(after).atDay(1), after.getId(), limit);
+            case "amount" -> after == null
+                    ? budgetRepository.findBudgetsByUserIdOrderByAmount(userId, limit)
+                    : budgetRepository.findBudgetsByUserIdAfterAmount(userId, parseAmount(after), after.getId(), limit);
+            default -> throw new InvalidRequestException("Cannot paginate by '" + sortBy + "', allowed: [month, amount]");
+        };
+
+        knownUserCache.requireExistsIfEmpty(userId, rows);
+        return CursorPageResponse.of(rows, size, Function.identity(),
+                last -> KeysetCursor.encode(sortBy, "amount".equals(sortBy) ? last.getAmount() : last.getMonth(), last.getId()));
+    }
 
-        // Memeriksa apakah budget tersebut milik user yang diberikan
-        if (!budget.getUser().getId().equals(userId)) {
-            throw new BudgetNotFoundException("Budget with id " + budgetId + " does not belong to user with id: " + userId);
+    @Override
+    @Transactional
+    public void exportBudgetsByUserId(Long userId, ExportFormat format, OutputStream outputStream) throws IOException {
+        knownUserCache.requireExists(userId);
+
+        try (Stream<Budget> budgets = budgetRepository.streamByUserId(userId);
+             SequenceWriter writer = format.writerFor(BudgetResponse.class, objectMapper).writeValues(outputStream)) {
+            Iterator<Budget> iterator = budgets.iterator();
+            while (iterator.hasNext()) {
+                Budget budget = iterator.next();
+                writer.write(convertToResponse(budget));
+                // Melepas entity yang sudah ditulis agar persistence context tidak tumbuh seiring jumlah baris
+                entityManager.detach(budget);
+            }
         }
+    }
 
-        return convertToResponse(budget);
+    @Override
+    public BudgetResponse getBudgetByIdAndUserId(Long budgetId, Long userId) {
+        BudgetResponse budget = budgetRepository.findResponseById(budgetId).orElse(null);
+        if (budget != null && budget.getUserId().equals(userId)) {
+            return budget;
+        }
+        throw notOwned(budgetId, userId, budget != null);
     }
 
 
     @Override
     @Transactional
     public BudgetResponse createBudget(BudgetRequest budgetRequest) {
-        User user = userRepository.findById(budgetRequest.getUserId())
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + budgetRequest.getUserId()));
+        Long userId = budgetRequest.getUserId();
+        String username = knownUserCache.requireUsername(userId);
 
         Budget budget = Budget.builder()
                 .description(budgetRequest.getDescription())
                 .category(budgetRequest.getCategory())
                 .amount(budgetRequest.getAmount())
                 .month(budgetRequest.getMonth())
-                .user(user)
+                .user(userRepository.getReferenceById(userId))
                 .build();
 
         budgetRepository.save(budget);
-        return convertToResponse(budget);
+        monthlyRollupService.add(rollupKeyOf(budget), budget.getAmount());
+        BudgetResponse response = convertToResponse(budget, username);
+        budgetAggregateCache.recordCreated(userId, response);
+        dataVersionCache.bump(userId);
+        budgetDescriptionIndex.recordSaved(userId, budget.getId(), budget.getDescription());
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public BatchResponse<BudgetResponse> createBudgets(List<BudgetRequest> budgetRequests) {
+        if (budgetRequests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("Batch size must not exceed " + MAX_BATCH_SIZE);
+        }
+
+        // Validasi user cukup satu query untuk seluruh userId unik pada batch
+        Map<Long, User> users = userRepository.findAllById(budgetRequests.stream()
+                        .map(BudgetRequest::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<BatchItemResponse<BudgetResponse>> results = new ArrayList<>(budgetRequests.size());
+        Map<Long, List<BudgetResponse>> createdByUser = new HashMap<>();
+        Map<MonthlyRollupId, DoubleSummaryStatistics> rollupDeltas = new HashMap<>();
+        int pending = 0;
+        for (int index = 0; index < budgetRequests.size(); index++) {
+            BudgetRequest budgetRequest = budgetRequests.get(index);
+            User user = users.get(budgetRequest.getUserId());
+            if (user == null) {
+                results.add(BatchItemResponse.failed(index, "User not found with id: " + budgetRequest.getUserId()));
+                continue;
+            }
+
+            Budget budget = Budget.builder()
+                    .description(budgetRequest.getDescription())
+                    .category(budgetRequest.getCategory())
+                    .amount(budgetRequest.getAmount())
+                    .month(budgetRequest.getMonth())
+                    .user(user)
+                    .build();
+            budgetRepository.save(budget);
+            BudgetResponse response = convertToResponse(budget);
+            results.add(BatchItemResponse.created(index, response));
+            createdByUser.computeIfAbsent(user.getId(), id -> new ArrayList<>()).add(response);
+            rollupDeltas.computeIfAbsent(rollupKeyOf(budget), key -> new DoubleSummaryStatistics())
+                    .accept(budget.getAmount() == null ? 0 : budget.getAmount());
+
+            // Flush per blok: insert dikirim sebagai JDBC batch dan persistence context tidak membesar
+            if (++pending % BATCH_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        monthlyRollupService.addAll(rollupDeltas);
+        createdByUser.forEach(budgetAggregateCache::recordCreated);
+        createdByUser.keySet().forEach(dataVersionCache::bump);
+        createdByUser.forEach((userId, responses) ->
+                budgetDescriptionIndex.recordSavedAll(userId, responses, BudgetResponse::getId, BudgetResponse::getDescription));
+        return BatchResponse.of(results);
     }
 
     @Override
     @Transactional
     public BudgetResponse updateBudget(Long budgetId, BudgetRequest budgetRequest) {
-        User user = userRepository.findById(budgetRequest.getUserId())
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + budgetRequest.getUserId()));
+        Long userId = budgetRequest.getUserId();
+        Budget budget = budgetRepository.findById(budgetId).orElse(null);
+        if (budget == null) {
+            knownUserCache.requireExists(userId);
+            throw new BudgetNotFoundException("Budget not found with id: " + budgetId);
+        }
 
-        Budget budget = budgetRepository.findById(budgetId)
-                .orElseThrow(() -> new BudgetNotFoundException("Budget not found with id: " + budgetId));
+        // Budget dapat dipindahkan ke user lain; hanya user tujuan yang perlu diperiksa keberadaannya
+        Long previousUserId = budget.getUser().getId();
+        boolean moved = !previousUserId.equals(userId);
+        String username = knownUserCache.requireUsername(userId);
 
+        MonthlyRollupId previousRollupKey = rollupKeyOf(budget);
+        Double previousAmount = budget.getAmount();
         budget.setDescription(budgetRequest.getDescription());
         budget.setCategory(budgetRequest.getCategory());
         budget.setAmount(budgetRequest.getAmount());
         budget.setMonth(budgetRequest.getMonth());
-        budget.setUser(user);
+        if (moved) {
+            budget.setUser(userRepository.getReferenceById(userId));
+        }
 
-        budgetRepository.save(budget);
-        return convertToResponse(budget);
+        // Flush di sini agar response memuat version baru yang ditulis oleh UPDATE
+        budgetRepository.saveAndFlush(budget);
+        monthlyRollupService.replace(previousRollupKey, previousAmount, rollupKeyOf(budget), budget.getAmount());
+        BudgetResponse response = convertToResponse(budget, username);
+        // Agregat user asal dan user tujuan ikut diperbarui
+        if (moved) {
+            budgetAggregateCache.recordDeleted(previousUserId, budget.getId(), previousAmount);
+            dataVersionCache.bump(previousUserId);
+            budgetAggregateCache.recordCreated(userId, response);
+            budgetDescriptionIndex.recordDeleted(previousUserId, budget.getId());
+        } else {
+            budgetAggregateCache.recordUpdated(userId, previousAmount, response);
+        }
+        budgetDescriptionIndex.recordSaved(userId, budget.getId(), budget.getDescription());
+        dataVersionCache.bump(userId);
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public BudgetResponse patchBudget(Long budgetId, BudgetPatchRequest patchRequest) {
+        if (patchRequest.getCategory() == null && patchRequest.getDescription() == null && patchRequest.getAmount() == null
+                && patchRequest.getMonth() == null) {
+            throw new InvalidRequestException("At least one of category, description, amount, or month must be provided");
+        }
+
+        Long userId = patchRequest.getUserId();
+        BudgetPatchResult patched = budgetRepository.patchBudget(budgetId, userId, patchRequest.getCategory(), patchRequest.getDescription(),
+                        patchRequest.getAmount(), patchRequest.getMonth() == null ? null : patchRequest.getMonth().atDay(1),
+                        patchRequest.getVersion())
+                .orElseThrow(() -> patchRejected(budgetId, userId, patchRequest.getVersion()));
+
+        BudgetResponse response = BudgetResponse.builder()
+                .id(patched.getId())
+                .category(patched.getCategory())
+                .amount(patched.getAmount())
+                .month(patched.getMonth() == null ? null : YearMonth.from(patched.getMonth()))
+                .description(patched.getDescription())
+                .userId(patched.getUserId())
+                .username(patched.getUsername())
+                .version(patched.getVersion())
+                .build();
+        monthlyRollupService.replace(
+                MonthlyRollupId.of(RollupType.BUDGET, userId, patched.getPreviousMonth(), patched.getPreviousCategory()), patched.getPreviousAmount(),
+                MonthlyRollupId.of(RollupType.BUDGET, userId, patched.getMonth(), patched.getCategory()), patched.getAmount());
+        budgetAggregateCache.recordUpdated(userId, patched.getPreviousAmount(), response);
+        budgetDescriptionIndex.recordSaved(userId, budgetId, patched.getDescription());
+        dataVersionCache.bump(userId);
+        return response;
     }
 
     @Override
@@ -102,78 +314,205 @@ public class BudgetServiceImpl implements BudgetService {
                 .orElseThrow(() -> new BudgetNotFoundException("Budget not found with id: " + budgetId));
 
         budgetRepository.delete(budget);
+        monthlyRollupService.remove(rollupKeyOf(budget), budget.getAmount());
+        budgetAggregateCache.recordDeleted(budget.getUser().getId(), budget.getId(), budget.getAmount());
+        dataVersionCache.bump(budget.getUser().getId());
+        budgetDescriptionIndex.recordDeleted(budget.getUser().getId(), budget.getId());
     }
 
     // Native Query Operations
 
     @Override
-    public BudgetResponse getMaxAmountBudgetByUserId(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    @Transactional
+    public int deleteBudgetsByMonthRange(Long userId, YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        return recordBulkDeleted(userId, budgetRepository.deleteByUserIdAndMonthBetween(userId, from.atDay(1), to.atDay(1)));
+    }
+
+    @Override
+    @Transactional
+    public int deleteBudgetsByAmountRange(Long userId, Double minAmount, Double maxAmount) {
+        if (minAmount > maxAmount) {
+            throw new InvalidRequestException("minAmount must not be greater than maxAmount");
+        }
+        return recordBulkDeleted(userId, budgetRepository.deleteByUserIdAndAmountBetween(userId, minAmount, maxAmount));
+    }
 
-        return convertToResponse(budgetRepository.findMaxAmountBudgetByUserId(userId));
+    @Override
+    @Transactional
+    public int deleteBudgetsByIds(Long userId, List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("ids must contain between 1 and " + MAX_BATCH_SIZE + " values");
+        }
+        return recordBulkDeleted(userId, budgetRepository.deleteByUserIdAndIdIn(userId, ids));
+    }
+
+    @Override
+    public BudgetResponse getMaxAmountBudgetByUserId(Long userId) {
+        return budgetAggregateCache.getMax(userId, () -> budgetRepository.findTopAmountBudgetsByUserId(userId, Limit.of(1)).stream().findFirst())
+                .orElseThrow(() -> noBudgetsFound(userId));
     }
 
     @Override
     public BudgetResponse getMinAmountBudgetByUserId(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        return budgetAggregateCache.getMin(userId, () -> budgetRepository.findBottomAmountBudgetsByUserId(userId, Limit.of(1)).stream().findFirst())
+                .orElseThrow(() -> noBudgetsFound(userId));
+    }
 
-        return convertToResponse(budgetRepository.findMinAmountBudgetByUserId(userId));
+    @Override
+    public List<BudgetResponse> getTopAmountBudgetsByUserId(Long userId, int k) {
+        return knownUserCache.requireExistsIfEmpty(userId, budgetRepository.findTopAmountBudgetsByUserId(userId, topK(k)));
     }
 
     @Override
-    public List<BudgetResponse> getBudgetsGreaterThanAmountByUserId(Long userId, Double amount) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<BudgetResponse> getBottomAmountBudgetsByUserId(Long userId, int k) {
+        return knownUserCache.requireExistsIfEmpty(userId, budgetRepository.findBottomAmountBudgetsByUserId(userId, topK(k)));
+    }
 
-        return budgetRepository.findBudgetsGreaterThanAmountByUserId(userId, amount).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    @Override
+    public List<BudgetResponse> getBudgetsGreaterThanAmountByUserId(Long userId, Double amount) {
+        return knownUserCache.requireExistsIfEmpty(userId, budgetRepository.findBudgetsGreaterThanAmountByUserId(userId, amount));
     }
 
     @Override
     public List<BudgetResponse> getBudgetsLessThanAmountByUserId(Long userId, Double amount) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        return budgetRepository.findBudgetsLessThanAmountByUserId(userId, amount).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return knownUserCache.requireExistsIfEmpty(userId, budgetRepository.findBudgetsLessThanAmountByUserId(userId, amount));
     }
 
     @Override
-    public List<BudgetResponse> getBudgetsByDescriptionContaining(String keyword) {
-        return budgetRepository.findBudgetsByDescriptionContaining(keyword).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public List<BudgetResponse> getBudgetsByDescriptionContaining(Long userId, String keyword, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        // Urutan ranking dari index dipertahankan; baris yang sudah berubah sejak diindeks disaring ulang
+        List<BudgetResponse> budgets = budgetDescriptionIndex.search(userId, keyword, limit, () -> budgetRepository.findDescriptionsByUserId(userId),
+                ids -> budgetRepository.findResponsesByUserIdAndIdIn(userId, ids), BudgetResponse::getId, BudgetResponse::getDescription);
+        return knownUserCache.requireExistsIfEmpty(userId, budgets);
     }
 
     @Override
     public Double getTotalAmountByUserId(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        return budgetRepository.findTotalAmountByUserId(userId);
+        AmountTotals totals = budgetAggregateCache.getTotals(userId, () -> budgetRepository.findAmountTotalsByUserId(userId));
+        if (totals.getCount() == 0) {
+            knownUserCache.requireExists(userId);
+        }
+        return totals.getTotal();
     }
 
     @Override
-    public List<Object[]> getBudgetCountByMonthForUser(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<MonthTotalResponse> getBudgetCountByMonthForUser(Long userId) {
+        return knownUserCache.requireExistsIfEmpty(userId, monthlyRollupRepository.totalsByMonth(userId, RollupType.BUDGET.name())).stream()
+                .map(MonthTotalResponse::from)
+                .toList();
+    }
 
-        return budgetRepository.countBudgetsByMonthForUser(userId);
+    @Override
+    public List<NamedTotalResponse> getBudgetCountByCategoryForUser(Long userId) {
+        return knownUserCache.requireExistsIfEmpty(userId, monthlyRollupRepository.totalsByDimension(userId, RollupType.BUDGET.name())).stream()
+                .map(NamedTotalResponse::from)
+                .toList();
     }
 
     @Override
-    public List<Object[]> getBudgetCountByCategoryForUser(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<BudgetVarianceResponse> getBudgetVarianceForUser(Long userId, YearMonth from, YearMonth to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        List<BudgetVarianceTotals> variance = monthlyRollupRepository.budgetVarianceByMonthAndCategory(userId,
+                from == null ? null : from.atDay(1), to == null ? null : to.atDay(1));
+        return knownUserCache.requireExistsIfEmpty(userId, variance).stream()
+                .map(BudgetVarianceResponse::from)
+                .toList();
+    }
+
+    private YearMonth parseMonth(KeysetCursor cursor) {
+        try {
+            return YearMonth.parse(cursor.getValue());
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor month: " + cursor.getValue());
+        }
+    }
+
+    private Double parseAmount(KeysetCursor cursor) {
+        try {
+            return Double.valueOf(cursor.getValue());
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor amount: " + cursor.getValue());
+        }
+    }
+
+    /**
+     * Error untuk budget yang tidak ada atau bukan milik user tertentu. "User not found" tetap didahulukan seperti
+     * sebelumnya, tetapi keberadaan user hanya diperiksa pada jalur gagal.
+     */
+    private BudgetNotFoundException notOwned(Long budgetId, Long userId, boolean exists) {
+        knownUserCache.requireExists(userId);
+        if (!exists) {
+            return new BudgetNotFoundException("Budget not found with id: " + budgetId);
+        }
+        return new BudgetNotFoundException("Budget with id " + budgetId + " does not belong to user with id: " + userId);
+    }
+
+    /**
+     * Menjelaskan PATCH yang tidak mengubah baris apapun: budget tidak ada atau bukan milik user (404), atau
+     * version yang dikirim sudah tertinggal (409). Query tambahan ini hanya berjalan pada jalur gagal.
+     */
+    private RuntimeException patchRejected(Long budgetId, Long userId, Long expectedVersion) {
+        BudgetResponse current = budgetRepository.findResponseById(budgetId).orElse(null);
+        if (current == null || !current.getUserId().equals(userId)) {
+            return notOwned(budgetId, userId, current != null);
+        }
+        return new VersionConflictException("Budget " + budgetId + " has version " + current.getVersion()
+                + " but version " + expectedVersion + " was expected");
+    }
 
-        return budgetRepository.countBudgetsByCategoryForUser(userId);
+    private BudgetNotFoundException noBudgetsFound(Long userId) {
+        knownUserCache.requireExists(userId);
+        return new BudgetNotFoundException("No budgets found for user with id: " + userId);
+    }
+
+    private static Limit topK(int k) {
+        if (k < 1 || k > MAX_TOP_K) {
+            throw new InvalidRequestException("k must be between 1 and " + MAX_TOP_K);
+        }
+        return Limit.of(k);
+    }
+
+    /**
+     * Memperbarui rollup, cache agregat, index pencarian, dan versi data setelah bulk delete. Rollup dikurangi
+     * satu upsert per (bulan, dimensi), bukan per baris.
+     */
+    private int recordBulkDeleted(Long userId, List<DeletedRow> deleted) {
+        if (deleted.isEmpty()) {
+            knownUserCache.requireExists(userId);
+            return 0;
+        }
+
+        Map<MonthlyRollupId, DoubleSummaryStatistics> rollupDeltas = new HashMap<>();
+        for (DeletedRow row : deleted) {
+            rollupDeltas.computeIfAbsent(MonthlyRollupId.of(RollupType.BUDGET, userId, row.getDate(), row.getDimension()), key -> new DoubleSummaryStatistics())
+                    .accept(row.getAmount() == null ? 0 : row.getAmount());
+        }
+        monthlyRollupService.removeAll(rollupDeltas);
+        // Baris max/min bisa ikut terhapus; agregat user dimuat ulang dari database pada pembacaan berikutnya
+        budgetAggregateCache.invalidate(userId);
+        budgetDescriptionIndex.recordDeletedAll(userId, deleted.stream().map(DeletedRow::getId).toList());
+        dataVersionCache.bump(userId);
+        return deleted.size();
+    }
+
+    private static MonthlyRollupId rollupKeyOf(Budget budget) {
+        return MonthlyRollupId.of(RollupType.BUDGET, budget.getUser().getId(), budget.getMonth() == null ? null : budget.getMonth().atDay(1), budget.getCategory());
     }
 
     private BudgetResponse convertToResponse(Budget budget) {
+        return convertToResponse(budget, budget.getUser().getUsername());
+    }
+
+    private BudgetResponse convertToResponse(Budget budget, String username) {
         return BudgetResponse.builder()
                 .id(budget.getId())
                 .description(budget.getDescription())
@@ -181,7 +520,8 @@ public class BudgetServiceImpl implements BudgetService {
                 .amount(budget.getAmount())
                 .month(budget.getMonth())
                 .userId(budget.getUser().getId())
-                .username(budget.getUser().getUsername())
+                .username(username)
+                .version(budget.getVersion())
                 .build();
     }
 }
@@ -1,91 +1,284 @@
 package com.finance.app.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.finance.app.cache.DataVersionCache;
+import com.finance.app.cache.KnownUserCache;
+import com.finance.app.cache.UserAggregateCache;
+import com.finance.app.dto.request.ExpensePatchRequest;
 import com.finance.app.dto.request.ExpenseRequest;
+import com.finance.app.dto.response.BatchItemResponse;
+import com.finance.app.dto.response.BatchResponse;
+import com.finance.app.dto.response.CursorPageResponse;
 import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.dto.response.HistogramBucketResponse;
+import com.finance.app.dto.response.MonthOfYearTotalResponse;
+import com.finance.app.dto.response.NamedTotalResponse;
+import com.finance.app.dto.response.PageResponse;
+import com.finance.app.dto.response.YearTotalResponse;
 import com.finance.app.exception.ExpenseNotFoundException;
-import com.finance.app.exception.UserNotFoundException;
+import com.finance.app.exception.InvalidRequestException;
+import com.finance.app.exception.VersionConflictException;
 import com.finance.app.model.Expense;
+import com.finance.app.model.MonthlyRollupId;
+import com.finance.app.model.RollupType;
 import com.finance.app.model.User;
 import com.finance.app.repository.ExpenseRepository;
+import com.finance.app.repository.MonthlyRollupRepository;
 import com.finance.app.repository.UserRepository;
+import com.finance.app.repository.projection.AmountTotals;
+import com.finance.app.repository.projection.BucketTotals;
+import com.finance.app.repository.projection.DeletedRow;
+import com.finance.app.repository.projection.ExpensePatchResult;
+import com.finance.app.search.DescriptionSearchIndex;
 import com.finance.app.service.ExpanseService;
+import com.finance.app.service.MonthlyRollupService;
+import com.finance.app.util.ExportFormat;
+import com.finance.app.util.HistogramBucket;
+import com.finance.app.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.finance.app.util.PageableUtil.requireSortable;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ExpanseServiceImpl implements ExpanseService {
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "amount", "date", "description");
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int BATCH_FLUSH_SIZE = 500;
+    private static final int MAX_SEARCH_LIMIT = 200;
+    private static final int MAX_TOP_K = 200;
+
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final KnownUserCache knownUserCache;
+    private final DataVersionCache dataVersionCache;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final UserAggregateCache<ExpenseResponse> expenseAggregateCache;
+    private final DescriptionSearchIndex expenseDescriptionIndex;
 
     @Override
-    public List<ExpenseResponse> getAllExpensesByUserId(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        return expenseRepository.findAll().stream()
-                .filter(expense -> expense.getUser().getId().equals(userId))
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PageResponse<ExpenseResponse> getAllExpensesByUserId(Long userId, Pageable pageable) {
+        Page<ExpenseResponse> page = expenseRepository.findByUserId(userId, requireSortable(pageable, SORTABLE_PROPERTIES));
+        knownUserCache.requireExistsIfEmpty(userId, page.getContent());
+        return PageResponse.of(page);
     }
 
     @Override
-    public ExpenseResponse getExpenseByIdAndUserId(Long expenseId, Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public PageResponse<ExpenseResponse> getExpensesByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        Page<ExpenseResponse> page = expenseRepository.findByUserIdAndDateBetween(userId, from, to, requireSortable(pageable, SORTABLE_PROPERTIES));
+        knownUserCache.requireExistsIfEmpty(userId, page.getContent());
+        return PageResponse.of(page);
+    }
 
-        Expense expense = expenseRepository.findById(expenseId)
-                .orElseThrow(() -> new ExpenseNotFoundException("Expense not found with id: " + expenseId));
+    @Override
+    public CursorPageResponse<ExpenseResponse> getExpensesByUserIdAfterCursor(Long userId, String sortBy, String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new InvalidRequestException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor, sortBy);
+
+        // Mengambil satu baris lebih banyak untuk mengetahui apakah masih ada halaman berikutnya
+        Limit limit = Limit.of(size + 1);
+        List<ExpenseResponse> rows = switch (sortBy) {
+            case "date" -> after == null
+                    ? expenseRepository.findExpensesByUserIdOrderByDate(userId, limit)
+                    : expenseRepository.findExpensesByUserIdAfterDate(userId, parseDate(after), after.getId(), limit);
+            case "amount" -> after == null
+                    ? expenseRepository.findExpensesByUserIdOrderByAmount(userId, limit)
+                    : expenseRepository.findExpensesByUserIdAfterAmount(userId, parseAmount(after), after.getId(), limit);
+            default -> throw new InvalidRequestException("Cannot paginate by '" + sortBy + "', allowed: [date, amount]");
+        };
+
+        knownUserCache.requireExistsIfEmpty(userId, rows);
+        return CursorPageResponse.of(rows, size, Function.identity(),
+                last -> KeysetCursor.encode(sortBy, "amount".equals(sortBy) ? last.getAmount() : last.getDate(), last.getId()));
+    }
 
-        if (!expense.getUser().getId().equals(userId)) {
-            throw new ExpenseNotFoundException("Expense with id " + expenseId + " does not belong to user with id: " + userId);
+    @Override
+    @Transactional
+    public void exportExpensesByUserId(Long userId, ExportFormat format, OutputStream outputStream) throws IOException {
+        knownUserCache.requireExists(userId);
+
+        try (Stream<Expense> expenses = expenseRepository.streamByUserId(userId);
+             SequenceWriter writer = format.writerFor(ExpenseResponse.class, objectMapper).writeValues(outputStream)) {
+            Iterator<Expense> iterator = expenses.iterator();
+            while (iterator.hasNext()) {
+                Expense expense = iterator.next();
+                writer.write(convertToResponse(expense));
+                // Melepas entity yang sudah ditulis agar persistence context tidak tumbuh seiring jumlah baris
+                entityManager.detach(expense);
+            }
         }
+    }
 
-        return convertToResponse(expense);
+    @Override
+    public ExpenseResponse getExpenseByIdAndUserId(Long expenseId, Long userId) {
+        ExpenseResponse expense = expenseRepository.findResponseById(expenseId).orElse(null);
+        if (expense != null && expense.getUserId().equals(userId)) {
+            return expense;
+        }
+        throw notOwned(expenseId, userId, expense != null);
     }
 
     @Override
     @Transactional
     public ExpenseResponse createExpense(ExpenseRequest expenseRequest) {
-        User user = userRepository.findById(expenseRequest.getUserId())
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + expenseRequest.getUserId()));
+        Long userId = expenseRequest.getUserId();
+        String username = knownUserCache.requireUsername(userId);
 
         Expense expense = Expense.builder()
                 .description(expenseRequest.getDescription())
+                .category(expenseRequest.getCategory())
                 .amount(expenseRequest.getAmount())
                 .date(expenseRequest.getDate())
-                .user(user)
+                .user(userRepository.getReferenceById(userId))
                 .build();
 
         expenseRepository.save(expense);
-        return convertToResponse(expense);
+        monthlyRollupService.add(rollupKeyOf(expense), expense.getAmount());
+        ExpenseResponse response = convertToResponse(expense, username);
+        expenseAggregateCache.recordCreated(userId, response);
+        dataVersionCache.bump(userId);
+        expenseDescriptionIndex.recordSaved(userId, expense.getId(), expense.getDescription());
+        return response;
     }
 
     @Override
     @Transactional
-    public ExpenseResponse updateExpense(Long expenseId, ExpenseRequest expenseRequest) {
-        User user = userRepository.findById(expenseRequest.getUserId())
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + expenseRequest.getUserId()));
-
-        Expense expense = expenseRepository.findById(expenseId)
-                .orElseThrow(() -> new ExpenseNotFoundException("Expense not found with id: " + expenseId));
+    public BatchResponse<ExpenseResponse> createExpenses(List<ExpenseRequest> expenseRequests) {
+        if (expenseRequests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("Batch size must not exceed " + MAX_BATCH_SIZE);
+        }
 
-        if (!expense.getUser().getId().equals(expenseRequest.getUserId())) {
-            throw new ExpenseNotFoundException("Expense with id " + expenseId + " does not belong to user with id: " + expenseRequest.getUserId());
+        // Validasi user cukup satu query untuk seluruh userId unik pada batch
+        Map<Long, User> users = userRepository.findAllById(expenseRequests.stream()
+                        .map(ExpenseRequest::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<BatchItemResponse<ExpenseResponse>> results = new ArrayList<>(expenseRequests.size());
+        Map<Long, List<ExpenseResponse>> createdByUser = new HashMap<>();
+        Map<MonthlyRollupId, DoubleSummaryStatistics> rollupDeltas = new HashMap<>();
+        int pending = 0;
+        for (int index = 0; index < expenseRequests.size(); index++) {
+            ExpenseRequest expenseRequest = expenseRequests.get(index);
+            User user = users.get(expenseRequest.getUserId());
+            if (user == null) {
+                results.add(BatchItemResponse.failed(index, "User not found with id: " + expenseRequest.getUserId()));
+                continue;
+            }
+
+            Expense expense = Expense.builder()
+                    .description(expenseRequest.getDescription())
+                    .category(expenseRequest.getCategory())
+                    .amount(expenseRequest.getAmount())
+                    .date(expenseRequest.getDate())
+                    .user(user)
+                    .build();
+            expenseRepository.save(expense);
+            ExpenseResponse response = convertToResponse(expense);
+            results.add(BatchItemResponse.created(index, response));
+            createdByUser.computeIfAbsent(user.getId(), id -> new ArrayList<>()).add(response);
+            rollupDeltas.computeIfAbsent(rollupKeyOf(expense), key -> new DoubleSummaryStatistics())
+                    .accept(expense.getAmount() == null ? 0 : expense.getAmount());
+
+            // Flush per blok: insert dikirim sebagai JDBC batch dan persistence context tidak membesar
+            if (++pending % BATCH_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
         }
+        monthlyRollupService.addAll(rollupDeltas);
+        createdByUser.forEach(expenseAggregateCache::recordCreated);
+        createdByUser.keySet().forEach(dataVersionCache::bump);
+        createdByUser.forEach((userId, responses) ->
+                expenseDescriptionIndex.recordSavedAll(userId, responses, ExpenseResponse::getId, ExpenseResponse::getDescription));
+        return BatchResponse.of(results);
+    }
+
+    @Override
+    @Transactional
+    public ExpenseResponse updateExpense(Long expenseId, ExpenseRequest expenseRequest) {
+        Expense expense = findOwnedExpense(expenseId, expenseRequest.getUserId());
 
+        MonthlyRollupId previousRollupKey = rollupKeyOf(expense);
+        Double previousAmount = expense.getAmount();
         expense.setDescription(expenseRequest.getDescription());
+        expense.setCategory(expenseRequest.getCategory());
         expense.setAmount(expenseRequest.getAmount());
         expense.setDate(expenseRequest.getDate());
-        expense.setUser(user);
 
-        expenseRepository.save(expense);
-        return convertToResponse(expense);
+        // Flush di sini agar response memuat version baru yang ditulis oleh UPDATE
+        expenseRepository.saveAndFlush(expense);
+        monthlyRollupService.replace(previousRollupKey, previousAmount, rollupKeyOf(expense), expense.getAmount());
+        ExpenseResponse response = convertToResponse(expense, knownUserCache.requireUsername(expense.getUser().getId()));
+        expenseAggregateCache.recordUpdated(expense.getUser().getId(), previousAmount, response);
+        dataVersionCache.bump(expense.getUser().getId());
+        expenseDescriptionIndex.recordSaved(expense.getUser().getId(), expense.getId(), expense.getDescription());
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public ExpenseResponse patchExpense(Long expenseId, ExpensePatchRequest patchRequest) {
+        if (patchRequest.getAmount() == null && patchRequest.getDate() == null && patchRequest.getDescription() == null
+                && patchRequest.getCategory() == null) {
+            throw new InvalidRequestException("At least one of amount, date, description, or category must be provided");
+        }
+
+        Long userId = patchRequest.getUserId();
+        ExpensePatchResult patched = expenseRepository.patchExpense(expenseId, userId, patchRequest.getAmount(),
+                        patchRequest.getDate(), patchRequest.getDescription(), patchRequest.getCategory(), patchRequest.getVersion())
+                .orElseThrow(() -> patchRejected(expenseId, userId, patchRequest.getVersion()));
+
+        ExpenseResponse response = ExpenseResponse.builder()
+                .id(patched.getId())
+                .amount(patched.getAmount())
+                .date(patched.getDate())
+                .description(patched.getDescription())
+                .category(patched.getCategory())
+                .userId(patched.getUserId())
+                .username(patched.getUsername())
+                .version(patched.getVersion())
+                .build();
+        monthlyRollupService.replace(MonthlyRollupId.of(RollupType.EXPENSE, userId, patched.getPreviousDate(), patched.getPreviousCategory()),
+                patched.getPreviousAmount(), MonthlyRollupId.of(RollupType.EXPENSE, userId, patched.getDate(), patched.getCategory()), patched.getAmount());
+        expenseAggregateCache.recordUpdated(userId, patched.getPreviousAmount(), response);
+        dataVersionCache.bump(userId);
+        expenseDescriptionIndex.recordSaved(userId, expenseId, patched.getDescription());
+        return response;
     }
 
     @Override
@@ -95,91 +288,229 @@ public class ExpanseServiceImpl implements ExpanseService {
                 .orElseThrow(() -> new ExpenseNotFoundException("Expense not found with id: " + expenseId));
 
         expenseRepository.delete(expense);
+        monthlyRollupService.remove(rollupKeyOf(expense), expense.getAmount());
+        expenseAggregateCache.recordDeleted(expense.getUser().getId(), expense.getId(), expense.getAmount());
+        dataVersionCache.bump(expense.getUser().getId());
+        expenseDescriptionIndex.recordDeleted(expense.getUser().getId(), expense.getId());
     }
 
     @Override
-    public ExpenseResponse getMaxAmountExpenseByUserId(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    @Transactional
+    public int deleteExpensesByDateRange(Long userId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        return recordBulkDeleted(userId, expenseRepository.deleteByUserIdAndDateBetween(userId, from, to));
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpensesByAmountRange(Long userId, Double minAmount, Double maxAmount) {
+        if (minAmount > maxAmount) {
+            throw new InvalidRequestException("minAmount must not be greater than maxAmount");
+        }
+        return recordBulkDeleted(userId, expenseRepository.deleteByUserIdAndAmountBetween(userId, minAmount, maxAmount));
+    }
 
-        return expenseRepository.findMaxAmountExpenseByUserId(userId)
-                .map(this::convertToResponse)
-                .orElseThrow(() -> new ExpenseNotFoundException("No expenses found for user with id: " + userId));
+    @Override
+    @Transactional
+    public int deleteExpensesByIds(Long userId, List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("ids must contain between 1 and " + MAX_BATCH_SIZE + " values");
+        }
+        return recordBulkDeleted(userId, expenseRepository.deleteByUserIdAndIdIn(userId, ids));
+    }
+
+    @Override
+    public ExpenseResponse getMaxAmountExpenseByUserId(Long userId) {
+        return expenseAggregateCache.getMax(userId, () -> expenseRepository.findTopAmountExpensesByUserId(userId, Limit.of(1)).stream().findFirst())
+                .orElseThrow(() -> noExpensesFound(userId));
     }
 
     @Override
     public ExpenseResponse getMinAmountExpenseByUserId(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        return expenseAggregateCache.getMin(userId, () -> expenseRepository.findBottomAmountExpensesByUserId(userId, Limit.of(1)).stream().findFirst())
+                .orElseThrow(() -> noExpensesFound(userId));
+    }
 
-        return expenseRepository.findMinAmountExpenseByUserId(userId)
-                .map(this::convertToResponse)
-                .orElseThrow(() -> new ExpenseNotFoundException("No expenses found for user with id: " + userId));
+    @Override
+    public List<ExpenseResponse> getTopAmountExpensesByUserId(Long userId, int k) {
+        return knownUserCache.requireExistsIfEmpty(userId, expenseRepository.findTopAmountExpensesByUserId(userId, topK(k)));
     }
 
     @Override
-    public List<ExpenseResponse> getExpensesGreaterThanAmountByUserId(Long userId, Double amount) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<ExpenseResponse> getBottomAmountExpensesByUserId(Long userId, int k) {
+        return knownUserCache.requireExistsIfEmpty(userId, expenseRepository.findBottomAmountExpensesByUserId(userId, topK(k)));
+    }
 
-        return expenseRepository.findExpensesGreaterThanAmountByUserId(userId, amount).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    @Override
+    public List<ExpenseResponse> getExpensesGreaterThanAmountByUserId(Long userId, Double amount) {
+        return knownUserCache.requireExistsIfEmpty(userId, expenseRepository.findExpensesGreaterThanAmountByUserId(userId, amount));
     }
 
     @Override
     public List<ExpenseResponse> getExpensesLessThanAmountByUserId(Long userId, Double amount) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        return expenseRepository.findExpensesLessThanAmountByUserId(userId, amount).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return knownUserCache.requireExistsIfEmpty(userId, expenseRepository.findExpensesLessThanAmountByUserId(userId, amount));
     }
 
     @Override
-    public List<ExpenseResponse> getExpensesByDescriptionContainingIgnoreCase(Long userId, String keyword) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<ExpenseResponse> getExpensesByDescriptionContainingIgnoreCase(Long userId, String keyword, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
 
-        return expenseRepository.findExpensesByDescriptionContainingIgnoreCase(userId, keyword).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        // Urutan ranking dari index dipertahankan; baris yang sudah berubah sejak diindeks disaring ulang
+        List<ExpenseResponse> expenses = expenseDescriptionIndex.search(userId, keyword, limit, () -> expenseRepository.findDescriptionsByUserId(userId),
+                ids -> expenseRepository.findResponsesByUserIdAndIdIn(userId, ids), ExpenseResponse::getId, ExpenseResponse::getDescription);
+        return knownUserCache.requireExistsIfEmpty(userId, expenses);
     }
 
     @Override
     public Double getTotalAmountByUserId(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        return expenseRepository.findTotalAmountByUserId(userId);
+        AmountTotals totals = expenseAggregateCache.getTotals(userId, () -> expenseRepository.findAmountTotalsByUserId(userId));
+        if (totals.getCount() == 0) {
+            knownUserCache.requireExists(userId);
+        }
+        return totals.getTotal();
     }
 
 
     @Override
-    public List<Object[]> getExpenseCountByMonthForUser(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<MonthOfYearTotalResponse> getExpenseCountByMonthForUser(Long userId) {
+        return knownUserCache.requireExistsIfEmpty(userId, monthlyRollupRepository.totalsByMonthOfYear(userId, RollupType.EXPENSE.name())).stream()
+                .map(MonthOfYearTotalResponse::from)
+                .toList();
+    }
+
+    @Override
+    public List<YearTotalResponse> getExpenseCountByYearForUser(Long userId) {
+        return knownUserCache.requireExistsIfEmpty(userId, monthlyRollupRepository.totalsByYear(userId, RollupType.EXPENSE.name())).stream()
+                .map(YearTotalResponse::from)
+                .toList();
+    }
 
-        return expenseRepository.countExpensesByMonthForUser(userId);
+    @Override
+    public List<NamedTotalResponse> getExpenseCountByCategoryForUser(Long userId) {
+        return knownUserCache.requireExistsIfEmpty(userId, monthlyRollupRepository.totalsByDimension(userId, RollupType.EXPENSE.name())).stream()
+                .map(NamedTotalResponse::from)
+                .toList();
     }
 
     @Override
-    public List<Object[]> getExpenseCountByYearForUser(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<HistogramBucketResponse> getExpenseHistogram(Long userId, HistogramBucket bucket, LocalDate from, LocalDate to) {
+        bucket.requireRange(from, to);
+        LocalDate first = bucket.truncate(from);
+        LocalDate last = bucket.end(to);
+        // Bucket bulanan ke atas cukup menjumlahkan rollup; bucket harian/mingguan membaca baris pada rentang tersebut
+        List<BucketTotals> totals = bucket.isMonthlyOrCoarser()
+                ? monthlyRollupRepository.totalsByBucket(userId, RollupType.EXPENSE.name(), bucket.getSqlUnit(), first, last)
+                : expenseRepository.totalsByBucket(userId, bucket.getSqlUnit(), first, last);
+        return bucket.fill(from, to, knownUserCache.requireExistsIfEmpty(userId, totals));
+    }
+
+    private LocalDate parseDate(KeysetCursor cursor) {
+        try {
+            return LocalDate.parse(cursor.getValue());
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor date: " + cursor.getValue());
+        }
+    }
 
-        return expenseRepository.countExpensesByYearForUser(userId);
+    private Double parseAmount(KeysetCursor cursor) {
+        try {
+            return Double.valueOf(cursor.getValue());
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor amount: " + cursor.getValue());
+        }
+    }
+
+    /**
+     * Mengambil expense yang dimiliki user tertentu. Jika gagal, "user not found" tetap didahulukan seperti sebelumnya,
+     * tetapi keberadaan user hanya diperiksa pada jalur gagal.
+     */
+    private Expense findOwnedExpense(Long expenseId, Long userId) {
+        Expense expense = expenseRepository.findById(expenseId).orElse(null);
+        if (expense != null && expense.getUser().getId().equals(userId)) {
+            return expense;
+        }
+
+        throw notOwned(expenseId, userId, expense != null);
+    }
+
+    private ExpenseNotFoundException notOwned(Long expenseId, Long userId, boolean exists) {
+        knownUserCache.requireExists(userId);
+        if (!exists) {
+            return new ExpenseNotFoundException("Expense not found with id: " + expenseId);
+        }
+        return new ExpenseNotFoundException("Expense with id " + expenseId + " does not belong to user with id: " + userId);
+    }
+
+    /**
+     * Menjelaskan PATCH yang tidak mengubah baris apapun: expense tidak ada atau bukan milik user (404), atau
+     * version yang dikirim sudah tertinggal (409). Query tambahan ini hanya berjalan pada jalur gagal.
+     */
+    private RuntimeException patchRejected(Long expenseId, Long userId, Long expectedVersion) {
+        ExpenseResponse current = expenseRepository.findResponseById(expenseId).orElse(null);
+        if (current == null || !current.getUserId().equals(userId)) {
+            return notOwned(expenseId, userId, current != null);
+        }
+        return new VersionConflictException("Expense " + expenseId + " has version " + current.getVersion()
+                + " but version " + expectedVersion + " was expected");
+    }
+
+    private ExpenseNotFoundException noExpensesFound(Long userId) {
+        knownUserCache.requireExists(userId);
+        return new ExpenseNotFoundException("No expenses found for user with id: " + userId);
+    }
+
+    private static Limit topK(int k) {
+        if (k < 1 || k > MAX_TOP_K) {
+            throw new InvalidRequestException("k must be between 1 and " + MAX_TOP_K);
+        }
+        return Limit.of(k);
+    }
+
+    /**
+     * Memperbarui rollup, cache agregat, index pencarian, dan versi data setelah bulk delete. Rollup dikurangi
+     * satu upsert per (bulan, dimensi), bukan per baris.
+     */
+    private int recordBulkDeleted(Long userId, List<DeletedRow> deleted) {
+        if (deleted.isEmpty()) {
+            knownUserCache.requireExists(userId);
+            return 0;
+        }
+
+        Map<MonthlyRollupId, DoubleSummaryStatistics> rollupDeltas = new HashMap<>();
+        for (DeletedRow row : deleted) {
+            rollupDeltas.computeIfAbsent(MonthlyRollupId.of(RollupType.EXPENSE, userId, row.getDate(), row.getDimension()), key -> new DoubleSummaryStatistics())
+                    .accept(row.getAmount() == null ? 0 : row.getAmount());
+        }
+        monthlyRollupService.removeAll(rollupDeltas);
+        // Baris max/min bisa ikut terhapus; agregat user dimuat ulang dari database pada pembacaan berikutnya
+        expenseAggregateCache.invalidate(userId);
+        expenseDescriptionIndex.recordDeletedAll(userId, deleted.stream().map(DeletedRow::getId).toList());
+        dataVersionCache.bump(userId);
+        return deleted.size();
+    }
+
+    private static MonthlyRollupId rollupKeyOf(Expense expense) {
+        return MonthlyRollupId.of(RollupType.EXPENSE, expense.getUser().getId(), expense.getDate(), expense.getCategory());
     }
 
     private ExpenseResponse convertToResponse(Expense expense) {
+        return convertToResponse(expense, expense.getUser().getUsername());
+    }
+
+    private ExpenseResponse convertToResponse(Expense expense, String username) {
         return ExpenseResponse.builder()
                 .id(expense.getId())
                 .amount(expense.getAmount())
                 .date(expense.getDate())
                 .description(expense.getDescription())
+                .category(expense.getCategory())
                 .userId(expense.getUser().getId())
-                .username(expense.getUser().getUsername())
+                .username(username)
+                .version(expense.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,106 @@
+package com.finance.app.service.impl;
+
+import com.finance.app.cache.IdempotencyCache;
+import com.finance.app.cache.StoredResponse;
+import com.finance.app.repository.IdempotencyRecordRepository;
+import com.finance.app.repository.projection.StoredResponseRow;
+import com.finance.app.service.IdempotencyService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyCache idempotencyCache;
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Override
+    public Optional<StoredResponse> find(String scope, String key) {
+        StoredResponse cached = idempotencyCache.get(scope, key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<StoredResponse> stored = idempotencyRecordRepository.findStored(scope, key, expiredBefore()).map(IdempotencyServiceImpl::toResponse);
+        stored.ifPresent(response -> idempotencyCache.put(scope, key, response));
+        return stored;
+    }
+
+    @Override
+    @Transactional
+    public Optional<StoredResponse> claim(String scope, String key, byte[] requestHash) {
+        Instant expiredBefore = expiredBefore();
+        if (idempotencyRecordRepository.claim(scope, key, requestHash, Instant.now(), expiredBefore) == 1) {
+            return Optional.empty();
+        }
+        // Request lain dengan key yang sama sudah commit (statement claim menunggunya jika masih berjalan)
+        StoredResponse stored = idempotencyRecordRepository.findStored(scope, key, expiredBefore)
+                .map(IdempotencyServiceImpl::toResponse)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key is claimed but has no stored response: " + key));
+        idempotencyCache.put(scope, key, stored);
+        return Optional.of(stored);
+    }
+
+    @Override
+    @Transactional
+    public void complete(String scope, String key, StoredResponse response) {
+        idempotencyRecordRepository.complete(scope, key, response.getStatusCode(), response.getContentType(), gzip(response.getBody()));
+        idempotencyCache.put(scope, key, response);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(initialDelayString = "${app.idempotency.purge-interval:PT1H}", fixedDelayString = "${app.idempotency.purge-interval:PT1H}")
+    public int purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(expiredBefore());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+        return purged;
+    }
+
+    private Instant expiredBefore() {
+        return Instant.now().minus(ttl);
+    }
+
+    private static StoredResponse toResponse(StoredResponseRow row) {
+        return new StoredResponse(row.getRequestHash(), row.getStatusCode(), row.getContentType(), gunzip(row.getResponseBody()));
+    }
+
+    // Respons batch bisa berukuran ratusan KB dan sangat berulang; disimpan terkompresi agar tabel tetap ringkas
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
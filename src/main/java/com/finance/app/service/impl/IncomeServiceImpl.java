@@ -1,92 +1,285 @@
 
 package com.finance.app.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.finance.app.cache.DataVersionCache;
+import com.finance.app.cache.KnownUserCache;
+import com.finance.app.cache.UserAggregateCache;
+import com.finance.app.dto.request.IncomePatchRequest;
 import com.finance.app.dto.request.IncomeRequest;
+import com.finance.app.dto.response.BatchItemResponse;
+import com.finance.app.dto.response.BatchResponse;
+import com.finance.app.dto.response.CursorPageResponse;
+import com.finance.app.dto.response.HistogramBucketResponse;
 import com.finance.app.dto.response.IncomeResponse;
+import com.finance.app.dto.response.MonthOfYearTotalResponse;
+import com.finance.app.dto.response.NamedTotalResponse;
+import com.finance.app.dto.response.PageResponse;
 import com.finance.app.exception.IncomeNotFoundException;
-import com.finance.app.exception.UserNotFoundException;
+import com.finance.app.exception.InvalidRequestException;
+import com.finance.app.exception.VersionConflictException;
 import com.finance.app.model.Income;
+import com.finance.app.model.MonthlyRollupId;
+import com.finance.app.model.RollupType;
 import com.finance.app.model.User;
 import com.finance.app.repository.IncomeRepository;
+import com.finance.app.repository.MonthlyRollupRepository;
 import com.finance.app.repository.UserRepository;
+import com.finance.app.repository.projection.AmountTotals;
+import com.finance.app.repository.projection.BucketTotals;
+import com.finance.app.repository.projection.DeletedRow;
+import com.finance.app.repository.projection.IncomePatchResult;
+import com.finance.app.search.DescriptionSearchIndex;
 import com.finance.app.service.IncomeService;
+import com.finance.app.service.MonthlyRollupService;
+import com.finance.app.util.ExportFormat;
+import com.finance.app.util.HistogramBucket;
+import com.finance.app.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.finance.app.util.PageableUtil.requireSortable;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class IncomeServiceImpl implements IncomeService {
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "amount", "date", "source", "description");
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int BATCH_FLUSH_SIZE = 500;
+    private static final int MAX_SEARCH_LIMIT = 200;
+    private static final int MAX_TOP_K = 200;
+
     private final IncomeRepository incomeRepository;
     private final UserRepository userRepository;
+    private final KnownUserCache knownUserCache;
+    private final DataVersionCache dataVersionCache;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final UserAggregateCache<IncomeResponse> incomeAggregateCache;
+    private final DescriptionSearchIndex incomeDescriptionIndex;
 
     @Override
-    public List<IncomeResponse> getAllIncomesByUserId(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        return incomeRepository.findAll().stream()
-                .filter(income -> income.getUser().getId().equals(userId))
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PageResponse<IncomeResponse> getAllIncomesByUserId(Long userId, Pageable pageable) {
+        Page<IncomeResponse> page = incomeRepository.findByUserId(userId, requireSortable(pageable, SORTABLE_PROPERTIES));
+        knownUserCache.requireExistsIfEmpty(userId, page.getContent());
+        return PageResponse.of(page);
     }
 
     @Override
-    public IncomeResponse getIncomeByIdAndUserId(Long incomeId, Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public PageResponse<IncomeResponse> getIncomesByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        Page<IncomeResponse> page = incomeRepository.findByUserIdAndDateBetween(userId, from, to, requireSortable(pageable, SORTABLE_PROPERTIES));
+        knownUserCache.requireExistsIfEmpty(userId, page.getContent());
+        return PageResponse.of(page);
+    }
 
-        Income income = incomeRepository.findById(incomeId)
-                .orElseThrow(() -> new IncomeNotFoundException("Income not found with id: " + incomeId));
+    @Override
+    public CursorPageResponse<IncomeResponse> getIncomesByUserIdAfterCursor(Long userId, String sortBy, String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new InvalidRequestException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor, sortBy);
+
+        // Mengambil satu baris lebih banyak untuk mengetahui apakah masih ada halaman berikutnya
+        Limit limit = Limit.of(size + 1);
+        List<IncomeResponse> rows = switch (sortBy) {
+            case "date" -> after == null
+                    ? incomeRepository.findIncomesByUserIdOrderByDate(userId, limit)
+                    : incomeRepository.findIncomesByUserIdAfterDate(userId, parseDate(after), after.getId(), limit);
+            case "amount" -> after == null
+                    ? incomeRepository.findIncomesByUserIdOrderByAmount(userId, limit)
+                    : incomeRepository.findIncomesByUserIdAfterAmount(userId, parseAmount(after), after.getId(), limit);
+            default -> throw new InvalidRequestException("Cannot paginate by '" + sortBy + "', allowed: [date, amount]");
+        };
+
+        knownUserCache.requireExistsIfEmpty(userId, rows);
+        return CursorPageResponse.of(rows, size, Function.identity(),
+                last -> KeysetCursor.encode(sortBy, "amount".equals(sortBy) ? last.getAmount() : last.getDate(), last.getId()));
+    }
 
-        if (!income.getUser().getId().equals(userId)) {
-            throw new IncomeNotFoundException("Income with id " + incomeId + " does not belong to user with id: " + userId);
+    @Override
+    @Transactional
+    public void exportIncomesByUserId(Long userId, ExportFormat format, OutputStream outputStream) throws IOException {
+        knownUserCache.requireExists(userId);
+
+        try (Stream<Income> incomes = incomeRepository.streamByUserId(userId);
+             SequenceWriter writer = format.writerFor(IncomeResponse.class, objectMapper).writeValues(outputStream)) {
+            Iterator<Income> iterator = incomes.iterator();
+            while (iterator.hasNext()) {
+                Income income = iterator.next();
+                writer.write(convertToResponse(income));
+                // Melepas entity yang sudah ditulis agar persistence context tidak tumbuh seiring jumlah baris
+                entityManager.detach(income);
+            }
         }
+    }
 
-        return convertToResponse(income);
+    @Override
+    public IncomeResponse getIncomeByIdAndUserId(Long incomeId, Long userId) {
+        IncomeResponse income = incomeRepository.findResponseById(incomeId).orElse(null);
+        if (income != null && income.getUserId().equals(userId)) {
+            return income;
+        }
+        throw notOwned(incomeId, userId, income != null);
     }
 
     @Override
     @Transactional
     public IncomeResponse createIncome(IncomeRequest incomeRequest) {
-        User user = userRepository.findById(incomeRequest.getUserId())
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + incomeRequest.getUserId()));
+        Long userId = incomeRequest.getUserId();
+        String username = knownUserCache.requireUsername(userId);
 
         Income income = Income.builder()
                 .description(incomeRequest.getDescription())
                 .source(incomeRequest.getSource())
                 .amount(incomeRequest.getAmount())
                 .date(incomeRequest.getDate())
-                .user(user)
+                .user(userRepository.getReferenceById(userId))
                 .build();
 
         incomeRepository.save(income);
-        return convertToResponse(income);
+        monthlyRollupService.add(rollupKeyOf(income), income.getAmount());
+        IncomeResponse response = convertToResponse(income, username);
+        incomeAggregateCache.recordCreated(userId, response);
+        dataVersionCache.bump(userId);
+        incomeDescriptionIndex.recordSaved(userId, income.getId(), income.getDescription());
+        return response;
     }
 
     @Override
     @Transactional
-    public IncomeResponse updateIncome(Long incomeId, IncomeRequest incomeRequest) {
-        User user = userRepository.findById(incomeRequest.getUserId())
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + incomeRequest.getUserId()));
-
-        Income income = incomeRepository.findById(incomeId)
-                .orElseThrow(() -> new IncomeNotFoundException("Income not found with id: " + incomeId));
+    public BatchResponse<IncomeResponse> createIncomes(List<IncomeRequest> incomeRequests) {
+        if (incomeRequests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("Batch size must not exceed " + MAX_BATCH_SIZE);
+        }
 
-        if (!income.getUser().getId().equals(incomeRequest.getUserId())) {
-            throw new IncomeNotFoundException("Income with id " + incomeId + " does not belong to user with id: " + incomeRequest.getUserId());
+        // Validasi user cukup satu query untuk seluruh userId unik pada batch
+        Map<Long, User> users = userRepository.findAllById(incomeRequests.stream()
+                        .map(IncomeRequest::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<BatchItemResponse<IncomeResponse>> results = new ArrayList<>(incomeRequests.size());
+        Map<Long, List<IncomeResponse>> createdByUser = new HashMap<>();
+        Map<MonthlyRollupId, DoubleSummaryStatistics> rollupDeltas = new HashMap<>();
+        int pending = 0;
+        for (int index = 0; index < incomeRequests.size(); index++) {
+            IncomeRequest incomeRequest = incomeRequests.get(index);
+            User user = users.get(incomeRequest.getUserId());
+            if (user == null) {
+                results.add(BatchItemResponse.failed(index, "User not found with id: " + incomeRequest.getUserId()));
+                continue;
+            }
+
+            Income income = Income.builder()
+                    .description(incomeRequest.getDescription())
+                    .source(incomeRequest.getSource())
+                    .amount(incomeRequest.getAmount())
+                    .date(incomeRequest.getDate())
+                    .user(user)
+                    .build();
+            incomeRepository.save(income);
+            IncomeResponse response = convertToResponse(income);
+            results.add(BatchItemResponse.created(index, response));
+            createdByUser.computeIfAbsent(user.getId(), id -> new ArrayList<>()).add(response);
+            rollupDeltas.computeIfAbsent(rollupKeyOf(income), key -> new DoubleSummaryStatistics())
+                    .accept(income.getAmount() == null ? 0 : income.getAmount());
+
+            // Flush per blok: insert dikirim sebagai JDBC batch dan persistence context tidak membesar
+            if (++pending % BATCH_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
         }
+        monthlyRollupService.addAll(rollupDeltas);
+        createdByUser.forEach(incomeAggregateCache::recordCreated);
+        createdByUser.keySet().forEach(dataVersionCache::bump);
+        createdByUser.forEach((userId, responses) ->
+                incomeDescriptionIndex.recordSavedAll(userId, responses, IncomeResponse::getId, IncomeResponse::getDescription));
+        return BatchResponse.of(results);
+    }
 
+    @Override
+    @Transactional
+    public IncomeResponse updateIncome(Long incomeId, IncomeRequest incomeRequest) {
+        Income income = findOwnedIncome(incomeId, incomeRequest.getUserId());
+
+        MonthlyRollupId previousRollupKey = rollupKeyOf(income);
+        Double previousAmount = income.getAmount();
         income.setDescription(incomeRequest.getDescription());
         income.setSource(incomeRequest.getSource());
         income.setAmount(incomeRequest.getAmount());
         income.setDate(incomeRequest.getDate());
-        income.setUser(user);
 
-        incomeRepository.save(income);
-        return convertToResponse(income);
+        // Flush di sini agar response memuat version baru yang ditulis oleh UPDATE
+        incomeRepository.saveAndFlush(income);
+        monthlyRollupService.replace(previousRollupKey, previousAmount, rollupKeyOf(income), income.getAmount());
+        IncomeResponse response = convertToResponse(income, knownUserCache.requireUsername(income.getUser().getId()));
+        incomeAggregateCache.recordUpdated(income.getUser().getId(), previousAmount, response);
+        dataVersionCache.bump(income.getUser().getId());
+        incomeDescriptionIndex.recordSaved(income.getUser().getId(), income.getId(), income.getDescription());
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public IncomeResponse patchIncome(Long incomeId, IncomePatchRequest patchRequest) {
+        if (patchRequest.getSource() == null && patchRequest.getAmount() == null && patchRequest.getDate() == null
+                && patchRequest.getDescription() == null) {
+            throw new InvalidRequestException("At least one of source, amount, date, or description must be provided");
+        }
+
+        Long userId = patchRequest.getUserId();
+        IncomePatchResult patched = incomeRepository.patchIncome(incomeId, userId, patchRequest.getSource(), patchRequest.getAmount(),
+                        patchRequest.getDate(), patchRequest.getDescription(), patchRequest.getVersion())
+                .orElseThrow(() -> patchRejected(incomeId, userId, patchRequest.getVersion()));
+
+        IncomeResponse response = IncomeResponse.builder()
+                .id(patched.getId())
+                .source(patched.getSource())
+                .amount(patched.getAmount())
+                .date(patched.getDate())
+                .description(patched.getDescription())
+                .userId(patched.getUserId())
+                .username(patched.getUsername())
+                .version(patched.getVersion())
+                .build();
+        monthlyRollupService.replace(
+                MonthlyRollupId.of(RollupType.INCOME, userId, patched.getPreviousDate(), patched.getPreviousSource()), patched.getPreviousAmount(),
+                MonthlyRollupId.of(RollupType.INCOME, userId, patched.getDate(), patched.getSource()), patched.getAmount());
+        incomeAggregateCache.recordUpdated(userId, patched.getPreviousAmount(), response);
+        dataVersionCache.bump(userId);
+        incomeDescriptionIndex.recordSaved(userId, incomeId, patched.getDescription());
+        return response;
     }
 
     @Override
@@ -96,75 +289,212 @@ public class IncomeServiceImpl implements IncomeService {
                 .orElseThrow(() -> new IncomeNotFoundException("Income not found with id: " + incomeId));
 
         incomeRepository.delete(income);
+        monthlyRollupService.remove(rollupKeyOf(income), income.getAmount());
+        incomeAggregateCache.recordDeleted(income.getUser().getId(), income.getId(), income.getAmount());
+        dataVersionCache.bump(income.getUser().getId());
+        incomeDescriptionIndex.recordDeleted(income.getUser().getId(), income.getId());
     }
 
     @Override
-    public IncomeResponse getMaxAmountIncomeByUserId(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    @Transactional
+    public int deleteIncomesByDateRange(Long userId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        return recordBulkDeleted(userId, incomeRepository.deleteByUserIdAndDateBetween(userId, from, to));
+    }
+
+    @Override
+    @Transactional
+    public int deleteIncomesByAmountRange(Long userId, Double minAmount, Double maxAmount) {
+        if (minAmount > maxAmount) {
+            throw new InvalidRequestException("minAmount must not be greater than maxAmount");
+        }
+        return recordBulkDeleted(userId, incomeRepository.deleteByUserIdAndAmountBetween(userId, minAmount, maxAmount));
+    }
+
+    @Override
+    @Transactional
+    public int deleteIncomesByIds(Long userId, List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("ids must contain between 1 and " + MAX_BATCH_SIZE + " values");
+        }
+        return recordBulkDeleted(userId, incomeRepository.deleteByUserIdAndIdIn(userId, ids));
+    }
 
-        return incomeRepository.findMaxAmountIncomeByUserId(userId)
-                .map(this::convertToResponse)
-                .orElseThrow(() -> new IncomeNotFoundException("No incomes found for user with id: " + userId));
+    @Override
+    public IncomeResponse getMaxAmountIncomeByUserId(Long userId) {
+        return incomeAggregateCache.getMax(userId, () -> incomeRepository.findTopAmountIncomesByUserId(userId, Limit.of(1)).stream().findFirst())
+                .orElseThrow(() -> noIncomesFound(userId));
     }
 
     @Override
     public IncomeResponse getMinAmountIncomeByUserId(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        return incomeAggregateCache.getMin(userId, () -> incomeRepository.findBottomAmountIncomesByUserId(userId, Limit.of(1)).stream().findFirst())
+                .orElseThrow(() -> noIncomesFound(userId));
+    }
 
-        return incomeRepository.findMinAmountIncomeByUserId(userId)
-                .map(this::convertToResponse)
-                .orElseThrow(() -> new IncomeNotFoundException("No incomes found for user with id: " + userId));
+    @Override
+    public List<IncomeResponse> getTopAmountIncomesByUserId(Long userId, int k) {
+        return knownUserCache.requireExistsIfEmpty(userId, incomeRepository.findTopAmountIncomesByUserId(userId, topK(k)));
     }
 
     @Override
-    public List<IncomeResponse> getIncomesGreaterThanAmountByUserId(Long userId, Double amount) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<IncomeResponse> getBottomAmountIncomesByUserId(Long userId, int k) {
+        return knownUserCache.requireExistsIfEmpty(userId, incomeRepository.findBottomAmountIncomesByUserId(userId, topK(k)));
+    }
 
-        return incomeRepository.findIncomesGreaterThanAmountByUserId(userId, amount).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    @Override
+    public List<IncomeResponse> getIncomesGreaterThanAmountByUserId(Long userId, Double amount) {
+        return knownUserCache.requireExistsIfEmpty(userId, incomeRepository.findIncomesGreaterThanAmountByUserId(userId, amount));
     }
 
     @Override
     public List<IncomeResponse> getIncomesLessThanAmountByUserId(Long userId, Double amount) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        return incomeRepository.findIncomesLessThanAmountByUserId(userId, amount).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return knownUserCache.requireExistsIfEmpty(userId, incomeRepository.findIncomesLessThanAmountByUserId(userId, amount));
     }
 
     @Override
-    public List<IncomeResponse> getIncomesByDescriptionContainingIgnoreCase(Long userId, String keyword) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<IncomeResponse> getIncomesByDescriptionContainingIgnoreCase(Long userId, String keyword, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
 
-        return incomeRepository.findIncomesByDescriptionContainingIgnoreCase(userId, keyword).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        // Urutan ranking dari index dipertahankan; baris yang sudah berubah sejak diindeks disaring ulang
+        List<IncomeResponse> incomes = incomeDescriptionIndex.search(userId, keyword, limit, () -> incomeRepository.findDescriptionsByUserId(userId),
+                ids -> incomeRepository.findResponsesByUserIdAndIdIn(userId, ids), IncomeResponse::getId, IncomeResponse::getDescription);
+        return knownUserCache.requireExistsIfEmpty(userId, incomes);
     }
 
     @Override
     public Double getTotalAmountByUserId(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        return incomeRepository.findTotalAmountByUserId(userId);
+        AmountTotals totals = incomeAggregateCache.getTotals(userId, () -> incomeRepository.findAmountTotalsByUserId(userId));
+        if (totals.getCount() == 0) {
+            knownUserCache.requireExists(userId);
+        }
+        return totals.getTotal();
     }
 
     @Override
-    public List<Object[]> getIncomeSumByMonthForUser(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<MonthOfYearTotalResponse> getIncomeSumByMonthForUser(Long userId) {
+        return knownUserCache.requireExistsIfEmpty(userId, monthlyRollupRepository.totalsByMonthOfYear(userId, RollupType.INCOME.name())).stream()
+                .map(MonthOfYearTotalResponse::from)
+                .toList();
+    }
 
-        return incomeRepository.findIncomeSumByMonthForUser(userId);
+    @Override
+    public List<NamedTotalResponse> getIncomeSumBySourceForUser(Long userId) {
+        return knownUserCache.requireExistsIfEmpty(userId, monthlyRollupRepository.totalsByDimension(userId, RollupType.INCOME.name())).stream()
+                .map(NamedTotalResponse::from)
+                .toList();
     }
 
     @Override
-    public List<Object[]> getIncomeSumBySourceForUser(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+    public List<HistogramBucketResponse> getIncomeHistogram(Long userId, HistogramBucket bucket, LocalDate from, LocalDate to) {
+        bucket.requireRange(from, to);
+        LocalDate first = bucket.truncate(from);
+        LocalDate last = bucket.end(to);
+        // Bucket bulanan ke atas cukup menjumlahkan rollup; bucket harian/mingguan membaca baris pada rentang tersebut
+        List<BucketTotals> totals = bucket.isMonthlyOrCoarser()
+                ? monthlyRollupRepository.totalsByBucket(userId, RollupType.INCOME.name(), bucket.getSqlUnit(), first, last)
+                : incomeRepository.totalsByBucket(userId, bucket.getSqlUnit(), first, last);
+        return bucket.fill(from, to, knownUserCache.requireExistsIfEmpty(userId, totals));
+    }
+
+    private LocalDate parseDate(KeysetCursor cursor) {
+        try {
+            return LocalDate.parse(cursor.getValue());
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor date: " + cursor.getValue());
+        }
+    }
+
+    private Double parseAmount(KeysetCursor cursor) {
+        try {
+            return Double.valueOf(cursor.getValue());
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor amount: " + cursor.getValue());
+        }
+    }
+
+    /**
+     * Mengambil income yang dimiliki user tertentu. Jika gagal, "user not found" tetap didahulukan seperti sebelumnya,
+     * tetapi keberadaan user hanya diperiksa pada jalur gagal.
+     */
+    private Income findOwnedIncome(Long incomeId, Long userId) {
+        Income income = incomeRepository.findById(incomeId).orElse(null);
+        if (income != null && income.getUser().getId().equals(userId)) {
+            return income;
+        }
+
+        throw notOwned(incomeId, userId, income != null);
+    }
+
+    private IncomeNotFoundException notOwned(Long incomeId, Long userId, boolean exists) {
+        knownUserCache.requireExists(userId);
+        if (!exists) {
+            return new IncomeNotFoundException("Income not found with id: " + incomeId);
+        }
+        return new IncomeNotFoundException("Income with id " + incomeId + " does not belong to user with id: " + userId);
+    }
+
+    /**
+     * Menjelaskan PATCH yang tidak mengubah baris apapun: income tidak ada atau bukan milik user (404), atau
+     * version yang dikirim sudah tertinggal (409). Query tambahan ini hanya berjalan pada jalur gagal.
+     */
+    private RuntimeException patchRejected(Long incomeId, Long userId, Long expectedVersion) {
+        IncomeResponse current = incomeRepository.findResponseById(incomeId).orElse(null);
+        if (current == null || !current.getUserId().equals(userId)) {
+            return notOwned(incomeId, userId, current != null);
+        }
+        return new VersionConflictException("Income " + incomeId + " has version " + current.getVersion()
+                + " but version " + expectedVersion + " was expected");
+    }
 
-        return incomeRepository.findIncomeSumBySourceForUser(userId);
+    private IncomeNotFoundException noIncomesFound(Long userId) {
+        knownUserCache.requireExists(userId);
+        return new IncomeNotFoundException("No incomes found for user with id: " + userId);
+    }
+
+    private static Limit topK(int k) {
+        if (k < 1 || k > MAX_TOP_K) {
+            throw new InvalidRequestException("k must be between 1 and " + MAX_TOP_K);
+        }
+        return Limit.of(k);
+    }
+
+    /**
+     * Memperbarui rollup, cache agregat, index pencarian, dan versi data setelah bulk delete. Rollup dikurangi
+     * satu upsert per (bulan, dimensi), bukan per baris.
+     */
+    private int recordBulkDeleted(Long userId, List<DeletedRow> deleted) {
+        if (deleted.isEmpty()) {
+            knownUserCache.requireExists(userId);
+            return 0;
+        }
+
+        Map<MonthlyRollupId, DoubleSummaryStatistics> rollupDeltas = new HashMap<>();
+        for (DeletedRow row : deleted) {
+            rollupDeltas.computeIfAbsent(MonthlyRollupId.of(RollupType.INCOME, userId, row.getDate(), row.getDimension()), key -> new DoubleSummaryStatistics())
+                    .accept(row.getAmount() == null ? 0 : row.getAmount());
+        }
+        monthlyRollupService.removeAll(rollupDeltas);
+        // Baris max/min bisa ikut terhapus; agregat user dimuat ulang dari database pada pembacaan berikutnya
+        incomeAggregateCache.invalidate(userId);
+        incomeDescriptionIndex.recordDeletedAll(userId, deleted.stream().map(DeletedRow::getId).toList());
+        dataVersionCache.bump(userId);
+        return deleted.size();
+    }
+
+    private static MonthlyRollupId rollupKeyOf(Income income) {
+        return MonthlyRollupId.of(RollupType.INCOME, income.getUser().getId(), income.getDate(), income.getSource());
     }
 
     private IncomeResponse convertToResponse(Income income) {
+        return convertToResponse(income, income.getUser().getUsername());
+    }
+
+    private IncomeResponse convertToResponse(Income income, String username) {
         return IncomeResponse.builder()
                 .id(income.getId())
                 .source(income.getSource())
@@ -172,7 +502,8 @@ public class IncomeServiceImpl implements IncomeService {
                 .date(income.getDate())
                 .userId(income.getUser().getId())
                 .description(income.getDescription())
-                .username(income.getUser().getUsername())
+                .username(username)
+                .version(income.getVersion())
                 .build();
     }
 
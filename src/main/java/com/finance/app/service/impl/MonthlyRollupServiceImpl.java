@@ -0,0 +1,111 @@
+package com.finance.app.service.impl;
+
+import com.finance.app.cache.DataVersionCache;
+import com.finance.app.exception.UserNotFoundException;
+import com.finance.app.model.MonthlyRollupId;
+import com.finance.app.repository.MonthlyRollupRepository;
+import com.finance.app.repository.UserRepository;
+import com.finance.app.service.MonthlyRollupService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class MonthlyRollupServiceImpl implements MonthlyRollupService {
+    // Urutan upsert yang tetap agar dua transaksi yang menyentuh baris rollup yang sama tidak saling deadlock
+    private static final Comparator<MonthlyRollupId> KEY_ORDER = Comparator
+            .comparing(MonthlyRollupId::getUserId)
+            .thenComparing(MonthlyRollupId::getEntityType)
+            .thenComparing(MonthlyRollupId::getPeriod)
+            .thenComparing(MonthlyRollupId::getDimension);
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DataVersionCache dataVersionCache;
+
+    @Override
+    @Transactional
+    public void add(MonthlyRollupId key, Double amount) {
+        apply(key, 1, amountOf(amount));
+    }
+
+    @Override
+    @Transactional
+    public void remove(MonthlyRollupId key, Double amount) {
+        apply(key, -1, -amountOf(amount));
+    }
+
+    @Override
+    @Transactional
+    public void replace(MonthlyRollupId previousKey, Double previousAmount, MonthlyRollupId key, Double amount) {
+        if (previousKey.equals(key)) {
+            // Perubahan yang tidak menyentuh bulan, dimensi, maupun amount tidak perlu menulis rollup
+            if (Double.compare(amountOf(amount), amountOf(previousAmount)) != 0) {
+                apply(key, 0, amountOf(amount) - amountOf(previousAmount));
+            }
+        } else if (KEY_ORDER.compare(previousKey, key) < 0) {
+            apply(previousKey, -1, -amountOf(previousAmount));
+            apply(key, 1, amountOf(amount));
+        } else {
+            apply(key, 1, amountOf(amount));
+            apply(previousKey, -1, -amountOf(previousAmount));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void addAll(Map<MonthlyRollupId, DoubleSummaryStatistics> deltas) {
+        deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(KEY_ORDER))
+                .forEach(delta -> apply(delta.getKey(), delta.getValue().getCount(), delta.getValue().getSum()));
+    }
+
+    @Override
+    @Transactional
+    public void removeAll(Map<MonthlyRollupId, DoubleSummaryStatistics> deltas) {
+        deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(KEY_ORDER))
+                .forEach(delta -> apply(delta.getKey(), -delta.getValue().getCount(), -delta.getValue().getSum()));
+    }
+
+    @Override
+    @Transactional
+    public int rebuildForUser(Long userId) {
+        // Kunci user menahan insert baru milik user ini selama rollup-nya disusun ulang
+        userRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+
+        monthlyRollupRepository.deleteByUserId(userId);
+        dataVersionCache.bump(userId);
+        return monthlyRollupRepository.rebuildExpensesForUser(userId)
+                + monthlyRollupRepository.rebuildIncomesForUser(userId)
+                + monthlyRollupRepository.rebuildBudgetsForUser(userId);
+    }
+
+    @Override
+    public int rebuildAll() {
+        // Satu transaksi per user agar kunci tidak ditahan selama seluruh backfill
+        List<Long> userIds = userRepository.findAllIds();
+        for (Long userId : userIds) {
+            transactionTemplate.executeWithoutResult(status -> rebuildForUser(userId));
+        }
+        return userIds.size();
+    }
+
+    private void apply(MonthlyRollupId key, long count, double amount) {
+        monthlyRollupRepository.upsert(key.getUserId(), key.getEntityType().name(), key.getPeriod(), key.getDimension(), count, amount);
+    }
+
+    private static double amountOf(Double amount) {
+        return amount == null ? 0 : amount;
+    }
+}
@@ -0,0 +1,204 @@
+package com.finance.app.service.impl;
+
+import com.finance.app.cache.ImportJobCache;
+import com.finance.app.cache.KnownUserCache;
+import com.finance.app.dto.request.ExpenseRequest;
+import com.finance.app.dto.request.IncomeRequest;
+import com.finance.app.dto.response.BatchItemResponse;
+import com.finance.app.dto.response.BatchResponse;
+import com.finance.app.dto.response.ImportJobResponse;
+import com.finance.app.exception.ImportJobNotFoundException;
+import com.finance.app.exception.InvalidRequestException;
+import com.finance.app.importer.ImportJob;
+import com.finance.app.importer.ImportedTransaction;
+import com.finance.app.importer.StatementFormat;
+import com.finance.app.importer.StatementImportPipeline;
+import com.finance.app.service.ExpanseService;
+import com.finance.app.service.IncomeService;
+import com.finance.app.service.StatementImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class StatementImportServiceImpl implements StatementImportService {
+    private final StatementImportPipeline statementImportPipeline;
+    private final ImportJobCache importJobCache;
+    private final KnownUserCache knownUserCache;
+    private final ExpanseService expanseService;
+    private final IncomeService incomeService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public ImportJobResponse startImport(Long userId, MultipartFile file, String format) throws IOException {
+        knownUserCache.requireExists(userId);
+        if (file.isEmpty()) {
+            throw new InvalidRequestException("Statement file must not be empty");
+        }
+        StatementFormat statementFormat = StatementFormat.resolve(format, file.getOriginalFilename());
+
+        // File upload dipindahkan ke file sementara milik job, karena file multipart dihapus saat request selesai
+        Path statement = Files.createTempFile("statement-import-", "." + statementFormat.getFileExtension());
+        try {
+            file.transferTo(statement);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(statement);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, statementFormat, file.getSize());
+        importJobCache.put(job);
+        try {
+            statementImportPipeline.submit(job,
+                    () -> statementFormat.openParser(new CountingInputStream(Files.newInputStream(statement), job.getBytesRead())),
+                    this::writeBatch,
+                    () -> deleteQuietly(statement));
+        } catch (TaskRejectedException e) {
+            importJobCache.invalidate(job.getId());
+            deleteQuietly(statement);
+            throw e;
+        }
+        return convertToResponse(job);
+    }
+
+    @Override
+    public ImportJobResponse getImportJob(String jobId) {
+        return importJobCache.get(jobId)
+                .map(this::convertToResponse)
+                .orElseThrow(() -> new ImportJobNotFoundException("Import job not found with id: " + jobId));
+    }
+
+    /**
+     * Satu batch ditulis dalam satu transaksi lewat jalur batch create yang sama dengan endpoint /batch, sehingga
+     * rollup, cache agregat, index deskripsi, dan versi data ikut diperbarui. Batch yang sudah commit tetap tersimpan
+     * meskipun job gagal di tengah jalan.
+     */
+    private void writeBatch(ImportJob job, List<ImportedTransaction> batch) {
+        List<IncomeRequest> incomeRequests = new ArrayList<>();
+        List<ExpenseRequest> expenseRequests = new ArrayList<>();
+        List<ImportedTransaction> incomeRows = new ArrayList<>();
+        List<ImportedTransaction> expenseRows = new ArrayList<>();
+        for (ImportedTransaction transaction : batch) {
+            if (transaction.isIncome()) {
+                incomeRows.add(transaction);
+                incomeRequests.add(IncomeRequest.builder()
+                        .source(transaction.getSource())
+                        .amount(transaction.getAmount())
+                        .date(transaction.getDate())
+                        .description(transaction.getDescription())
+                        .userId(job.getUserId())
+                        .build());
+            } else {
+                expenseRows.add(transaction);
+                expenseRequests.add(ExpenseRequest.builder()
+                        .amount(transaction.getAmount())
+                        .date(transaction.getDate())
+                        .description(transaction.getDescription())
+                        .category(transaction.getCategory())
+                        .userId(job.getUserId())
+                        .build());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!incomeRequests.isEmpty()) {
+                record(job, incomeRows, incomeService.createIncomes(incomeRequests), job.getIncomesImported());
+            }
+            if (!expenseRequests.isEmpty()) {
+                record(job, expenseRows, expanseService.createExpenses(expenseRequests), job.getExpensesImported());
+            }
+        });
+    }
+
+    private static void record(ImportJob job, List<ImportedTransaction> rows, BatchResponse<?> created, AtomicLong counter) {
+        counter.addAndGet(created.getCreated());
+        for (BatchItemResponse<?> result : created.getResults()) {
+            if (result.getError() != null) {
+                job.reject(rows.get(result.getIndex()).getRow(), result.getError());
+            }
+        }
+    }
+
+    private ImportJobResponse convertToResponse(ImportJob job) {
+        long bytesRead = job.getBytesRead().get();
+        return ImportJobResponse.builder()
+                .jobId(job.getId())
+                .userId(job.getUserId())
+                .format(job.getFormat().getFileExtension())
+                .status(job.getStatus().name())
+                .totalBytes(job.getTotalBytes())
+                .bytesRead(bytesRead)
+                .progress(job.getTotalBytes() == 0 ? 0 : Math.min(100.0, Math.round(bytesRead * 1000.0 / job.getTotalBytes()) / 10.0))
+                .rowsParsed(job.getRowsParsed().get())
+                .incomesImported(job.getIncomesImported().get())
+                .expensesImported(job.getExpensesImported().get())
+                .rowsRejected(job.getRowsRejected().get())
+                .rowsPerSecond(Math.round(job.getRowsPerSecond() * 10) / 10.0)
+                .errors(job.getErrors())
+                .failure(job.getFailure())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Mencatat jumlah byte yang sudah dibaca parser sebagai progres job.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream input, AtomicLong count) {
+            super(input);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count.addAndGet(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
@@ -1,25 +1,59 @@
 package com.finance.app.service.impl;
 
 
+import com.finance.app.cache.DataVersionCache;
+import com.finance.app.cache.KnownUserCache;
+import com.finance.app.cache.UserAggregateCache;
 import com.finance.app.dto.request.UserRequest;
+import com.finance.app.dto.response.BudgetResponse;
+import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.dto.response.IncomeResponse;
+import com.finance.app.dto.response.PageResponse;
 import com.finance.app.dto.response.UserResponse;
 import com.finance.app.exception.UserNotFoundException;
 import com.finance.app.model.User;
+import com.finance.app.repository.BudgetRepository;
+import com.finance.app.repository.ExpenseRepository;
+import com.finance.app.repository.IncomeRepository;
 import com.finance.app.repository.UserRepository;
+import com.finance.app.search.DescriptionSearchIndex;
 import com.finance.app.service.UserService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
-import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+
+import static com.finance.app.util.PageableUtil.requireSortable;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class UserServiceImpl implements UserService {
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "username", "email");
+
     private final UserRepository userRepository;
+    private final UserAggregateCache<ExpenseResponse> expenseAggregateCache;
+    private final UserAggregateCache<IncomeResponse> incomeAggregateCache;
+    private final UserAggregateCache<BudgetResponse> budgetAggregateCache;
+    private final KnownUserCache knownUserCache;
+    private final DataVersionCache dataVersionCache;
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+    private final BudgetRepository budgetRepository;
+    private final DescriptionSearchIndex expenseDescriptionIndex;
+    private final DescriptionSearchIndex incomeDescriptionIndex;
+    private final DescriptionSearchIndex budgetDescriptionIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.user-teardown.chunk-size:1000}")
+    private int teardownChunkSize;
 
     @Override
     public UserResponse getUserById(Long id) {
@@ -46,6 +80,8 @@ public class UserServiceImpl implements UserService {
                 .build();
         userRepository.saveUser(user.getUsername(), user.getPassword(), user.getEmail());
         User findUser = userRepository.findByUsername(userRequest.getUsername()).orElse(null);
+        // Respons 404 yang mungkin sudah di-cache klien untuk ID ini tidak lagi berlaku
+        dataVersionCache.bump(findUser.getId());
         return convertToResponse(findUser);
     }
 
@@ -57,21 +93,74 @@ public class UserServiceImpl implements UserService {
         user.setPassword(userRequest.getPassword());
         user.setEmail(userRequest.getEmail());
         userRepository.updateUser(id, user.getUsername(), user.getPassword(), user.getEmail());
+        // Baris max/min yang di-cache ikut menyimpan username
+        invalidateAggregates(id);
+        knownUserCache.forget(id);
+        dataVersionCache.bump(id);
         return convertToResponse(user);
     }
 
+    /**
+     * Menghapus user beserta seluruh datanya. Expense, income, dan budget dihapus per chunk, masing-masing dalam
+     * transaksi pendek, sehingga kunci baris dan ukuran transaksi tidak tumbuh seiring jumlah data user. Transaksi
+     * terakhir mengunci baris user (menahan insert baru), menghapus sisa data yang masuk selama itu, lalu menghapus
+     * user; rollup bulanan ikut terhapus lewat ON DELETE CASCADE.
+     */
     @Override
-    @Transactional
     public void deleteUser(Long id) {
-        userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-        userRepository.deleteById(id);
+        knownUserCache.requireExists(id);
+        deleteTransactionsInChunks(id);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.findByIdForUpdate(id).orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+            deleteTransactionsInChunks(id);
+            userRepository.deleteById(id);
+            invalidateAggregates(id);
+            expenseDescriptionIndex.invalidate(id);
+            incomeDescriptionIndex.invalidate(id);
+            budgetDescriptionIndex.invalidate(id);
+            knownUserCache.forget(id);
+            dataVersionCache.bump(id);
+        });
     }
 
     @Override
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PageResponse<UserResponse> getUsers(String usernamePrefix, String email, Pageable pageable) {
+        String usernamePattern = StringUtils.hasText(usernamePrefix) ? escapeLike(usernamePrefix.trim()) + "%" : "%";
+        // String kosong (bukan null) agar parameter tetap bertipe teks di PostgreSQL
+        String emailFilter = StringUtils.hasText(email) ? email.trim().toLowerCase(Locale.ROOT) : "";
+        return PageResponse.of(userRepository.findDirectory(usernamePattern, emailFilter, requireSortable(pageable, SORTABLE_PROPERTIES)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private void deleteTransactionsInChunks(Long userId) {
+        deleteInChunks(userId, expenseRepository::deleteChunkByUserId);
+        deleteInChunks(userId, incomeRepository::deleteChunkByUserId);
+        deleteInChunks(userId, budgetRepository::deleteChunkByUserId);
+    }
+
+    /**
+     * Satu transaksi per chunk; jika dipanggil di dalam transaksi yang sedang berjalan, chunk ikut transaksi tersebut.
+     */
+    private void deleteInChunks(Long userId, ChunkDelete chunkDelete) {
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> chunkDelete.delete(userId, teardownChunkSize));
+        } while (deleted == teardownChunkSize);
+    }
+
+    private void invalidateAggregates(Long userId) {
+        expenseAggregateCache.invalidate(userId);
+        incomeAggregateCache.invalidate(userId);
+        budgetAggregateCache.invalidate(userId);
+    }
+
+    @FunctionalInterface
+    private interface ChunkDelete {
+        int delete(Long userId, int limit);
     }
 
     private UserResponse convertToResponse(User user) {
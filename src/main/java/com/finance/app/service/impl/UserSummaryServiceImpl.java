@@ -0,0 +1,122 @@
+package com.finance.app.service.impl;
+
+import com.finance.app.cache.KnownUserCache;
+import com.finance.app.dto.response.AmountSummaryResponse;
+import com.finance.app.dto.response.BudgetResponse;
+import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.dto.response.IncomeResponse;
+import com.finance.app.dto.response.MonthlyAmountResponse;
+import com.finance.app.dto.response.UserSummaryResponse;
+import com.finance.app.exception.BudgetNotFoundException;
+import com.finance.app.exception.ExpenseNotFoundException;
+import com.finance.app.exception.IncomeNotFoundException;
+import com.finance.app.repository.MonthlyRollupRepository;
+import com.finance.app.service.BudgetService;
+import com.finance.app.service.ExpanseService;
+import com.finance.app.service.IncomeService;
+import com.finance.app.service.UserSummaryService;
+import com.finance.app.util.SectionExecutor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class UserSummaryServiceImpl implements UserSummaryService {
+    private final IncomeService incomeService;
+    private final ExpanseService expanseService;
+    private final BudgetService budgetService;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final KnownUserCache knownUserCache;
+    private final SectionExecutor summarySectionExecutor;
+
+    @Override
+    public UserSummaryResponse getSummaryByUserId(Long userId) {
+        // User yang tidak ada tetap 404, bukan ringkasan yang seluruh section-nya kosong
+        String username = knownUserCache.requireUsername(userId);
+
+        Sections sections = new Sections();
+        CompletableFuture<Double> incomeTotal = sections.add("income.total", () -> incomeService.getTotalAmountByUserId(userId));
+        CompletableFuture<IncomeResponse> incomeMax = sections.add("income.max", () -> incomeService.getMaxAmountIncomeByUserId(userId));
+        CompletableFuture<IncomeResponse> incomeMin = sections.add("income.min", () -> incomeService.getMinAmountIncomeByUserId(userId));
+        CompletableFuture<Double> expenseTotal = sections.add("expense.total", () -> expanseService.getTotalAmountByUserId(userId));
+        CompletableFuture<ExpenseResponse> expenseMax = sections.add("expense.max", () -> expanseService.getMaxAmountExpenseByUserId(userId));
+        CompletableFuture<ExpenseResponse> expenseMin = sections.add("expense.min", () -> expanseService.getMinAmountExpenseByUserId(userId));
+        CompletableFuture<Double> budgetTotal = sections.add("budget.total", () -> budgetService.getTotalAmountByUserId(userId));
+        CompletableFuture<BudgetResponse> budgetMax = sections.add("budget.max", () -> budgetService.getMaxAmountBudgetByUserId(userId));
+        CompletableFuture<BudgetResponse> budgetMin = sections.add("budget.min", () -> budgetService.getMinAmountBudgetByUserId(userId));
+        CompletableFuture<List<MonthlyAmountResponse>> monthly = sections.add("monthly", () -> getMonthlyAmounts(userId));
+        sections.awaitAll();
+
+        Double income = incomeTotal.join();
+        Double expense = expenseTotal.join();
+        return UserSummaryResponse.builder()
+                .userId(userId)
+                .username(username)
+                .income(new AmountSummaryResponse<>(income, incomeMax.join(), incomeMin.join()))
+                .expense(new AmountSummaryResponse<>(expense, expenseMax.join(), expenseMin.join()))
+                .budget(new AmountSummaryResponse<>(budgetTotal.join(), budgetMax.join(), budgetMin.join()))
+                .balance(income == null || expense == null ? null : income - expense)
+                .monthly(monthly.join())
+                .unavailableSections(sections.unavailable())
+                .build();
+    }
+
+    private List<MonthlyAmountResponse> getMonthlyAmounts(Long userId) {
+        return monthlyRollupRepository.sumIncomeAndExpenseByMonth(userId).stream()
+                .map(totals -> MonthlyAmountResponse.builder()
+                        .month(totals.getMonth())
+                        .income(totals.getIncome())
+                        .expense(totals.getExpense())
+                        .build())
+                .toList();
+    }
+
+    private static boolean isNoData(Throwable error) {
+        // Max/min melempar not found jika user belum punya data; itu hasil yang sah, bukan kegagalan
+        return error instanceof IncomeNotFoundException
+                || error instanceof ExpenseNotFoundException
+                || error instanceof BudgetNotFoundException;
+    }
+
+    /**
+     * Section-section ringkasan yang berjalan paralel. Kegagalan, penolakan karena antrean penuh, maupun timeout
+     * hanya mengosongkan section tersebut.
+     */
+    private class Sections {
+        private final Map<String, CompletableFuture<?>> futures = new LinkedHashMap<>();
+        private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+        <T> CompletableFuture<T> add(String name, Supplier<T> query) {
+            CompletableFuture<T> future = summarySectionExecutor.submit(query).exceptionally(e -> {
+                Throwable error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (!isNoData(error)) {
+                    log.warn("Summary section {} unavailable: {}", name, error.toString());
+                    failed.add(name);
+                }
+                return null;
+            });
+            futures.put(name, future);
+            return future;
+        }
+
+        void awaitAll() {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        }
+
+        List<String> unavailable() {
+            return futures.keySet().stream().filter(failed::contains).toList();
+        }
+    }
+}
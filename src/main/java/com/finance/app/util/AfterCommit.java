@@ -0,0 +1,26 @@
+package com.finance.app.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Menjalankan aksi setelah transaksi aktif berhasil commit, atau langsung jika tidak ada transaksi.
+ * Dipakai untuk struktur in-memory yang tidak boleh melihat perubahan yang nantinya di-rollback.
+ */
+public final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,134 @@
+package com.finance.app.util;
+
+import com.finance.app.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Membatasi jumlah koneksi yang dipinjam bersamaan dengan semaphore di depan connection pool. Thread yang melebihi
+ * batas menunggu paling lama {@code maxWait} di antrean dengan panjang maksimum {@code maxWaiters}; di luar itu
+ * permintaan langsung ditolak dengan {@link DatabaseBusyException} (HTTP 503) alih-alih menumpuk di pool.
+ *
+ * <p>Penting saat request berjalan di virtual thread: jumlah thread tidak lagi membatasi konkurensi, sehingga tanpa
+ * bulkhead ribuan request dapat menunggu koneksi Hikari sampai connection timeout.</p>
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final int maxWaiters;
+    private final Duration maxWait;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public BulkheadDataSource(DataSource target, int maxConcurrent, int maxWaiters, Duration maxWait, MeterRegistry registry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaiters = maxWaiters;
+        this.maxWait = maxWait;
+        this.waitTimer = Timer.builder("db.bulkhead.wait")
+                .description("Waktu tunggu untuk mendapatkan izin koneksi database")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejectedQueueFull = rejectedCounter(registry, "queue_full");
+        this.rejectedTimeout = rejectedCounter(registry, "timeout");
+        Gauge.builder("db.bulkhead.waiting", waiting, AtomicInteger::get)
+                .description("Jumlah thread yang sedang menunggu izin koneksi")
+                .register(registry);
+        Gauge.builder("db.bulkhead.active", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .description("Jumlah koneksi yang sedang dipinjam melalui bulkhead")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() {
+        if (waiting.incrementAndGet() > maxWaiters) {
+            waiting.decrementAndGet();
+            rejectedQueueFull.increment();
+            throw new DatabaseBusyException("Database is busy, please retry later");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseBusyException("Interrupted while waiting for a database connection");
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejectedTimeout.increment();
+            throw new DatabaseBusyException("Database is busy, please retry later");
+        }
+    }
+
+    /**
+     * Izin dikembalikan saat koneksi ditutup (dikembalikan ke pool); penutupan berulang hanya melepas satu kali.
+     */
+    private Connection releaseOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("db.bulkhead.rejected")
+                .description("Jumlah permintaan koneksi yang ditolak bulkhead")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
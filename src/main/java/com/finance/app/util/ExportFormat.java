@@ -0,0 +1,50 @@
+package com.finance.app.util;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.finance.app.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Format file ekspor data transaksi. Kedua format ditulis baris per baris
+ * sehingga tidak perlu menampung seluruh data di memori.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .findAndAddModules()
+            .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final String contentType;
+    private final String fileExtension;
+
+    public static ExportFormat from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported export format '" + value + "', allowed: ndjson, csv");
+        }
+    }
+
+    /**
+     * Membuat writer untuk satu baris per record; gunakan dengan {@code writeValues(outputStream)}.
+     */
+    public ObjectWriter writerFor(Class<?> type, ObjectMapper objectMapper) {
+        if (this == CSV) {
+            return CSV_MAPPER.writerFor(type).with(CSV_MAPPER.schemaFor(type).withHeader());
+        }
+        return objectMapper.writerFor(type).withRootValueSeparator("\n");
+    }
+}
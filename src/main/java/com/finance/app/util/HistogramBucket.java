@@ -0,0 +1,119 @@
+package com.finance.app.util;
+
+import com.finance.app.dto.response.HistogramBucketResponse;
+import com.finance.app.exception.InvalidRequestException;
+import com.finance.app.repository.projection.BucketTotals;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ukuran bucket histogram tanggal. Rentang tanggal selalu diperluas ke bucket utuh (misalnya bucket month dari
+ * 2024-01-15 dimulai 2024-01-01), sehingga bucket pertama dan terakhir tidak terpotong. Minggu dimulai hari Senin,
+ * sama dengan {@code date_trunc('week', ...)} di PostgreSQL.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum HistogramBucket {
+    DAY("day", ChronoUnit.DAYS, 1),
+    WEEK("week", ChronoUnit.WEEKS, 1),
+    MONTH("month", ChronoUnit.MONTHS, 1),
+    QUARTER("quarter", ChronoUnit.MONTHS, 3),
+    YEAR("year", ChronoUnit.YEARS, 1);
+
+    public static final int MAX_BUCKETS = 1000;
+
+    private final String sqlUnit;       // Argumen date_trunc PostgreSQL
+    private final ChronoUnit unit;
+    private final int step;
+
+    public static HistogramBucket from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported histogram bucket '" + value + "', allowed: day, week, month, quarter, year");
+        }
+    }
+
+    /**
+     * Bucket bulanan atau lebih besar bisa dihitung dari rollup bulanan tanpa membaca baris transaksi.
+     */
+    public boolean isMonthlyOrCoarser() {
+        return unit != ChronoUnit.DAYS && unit != ChronoUnit.WEEKS;
+    }
+
+    public LocalDate truncate(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case QUARTER -> date.withDayOfMonth(1).withMonth((date.getMonthValue() - 1) / 3 * 3 + 1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    public LocalDate next(LocalDate start) {
+        return start.plus(step, unit);
+    }
+
+    /**
+     * Tanggal terakhir (inklusif) dari bucket yang memuat {@code date}.
+     */
+    public LocalDate end(LocalDate date) {
+        return next(truncate(date)).minusDays(1);
+    }
+
+    /**
+     * Memvalidasi rentang dan jumlah bucket-nya sebelum query dijalankan.
+     */
+    public void requireRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        long buckets = unit.between(truncate(from), truncate(to)) / step + 1;
+        if (buckets > MAX_BUCKETS) {
+            throw new InvalidRequestException("Histogram must not exceed " + MAX_BUCKETS + " buckets, use a larger bucket or a shorter range");
+        }
+    }
+
+    /**
+     * Menyusun seluruh bucket dari {@code from} hingga {@code to}; bucket tanpa data diisi count 0 dan sum 0.
+     *
+     * @param totals Hasil query terurut menurut tanggal; tanggal tiap baris boleh berada di mana saja di dalam bucket
+     */
+    public List<HistogramBucketResponse> fill(LocalDate from, LocalDate to, List<BucketTotals> totals) {
+        List<HistogramBucketResponse> buckets = new ArrayList<>();
+        Iterator<BucketTotals> rows = totals.iterator();
+        BucketTotals row = rows.hasNext() ? rows.next() : null;
+        for (LocalDate start = truncate(from); !start.isAfter(to); start = next(start)) {
+            LocalDate next = next(start);
+            long count = 0;
+            double sum = 0;
+            // Lebih dari satu baris bisa jatuh di bucket yang sama (misalnya rollup bulanan untuk bucket quarter),
+            // sehingga baris dicocokkan berdasarkan rentang bucket, bukan tanggal awalnya saja
+            while (row != null && row.getBucket().isBefore(next)) {
+                if (!row.getBucket().isBefore(start)) {
+                    count += row.getCount();
+                    sum += row.getSum() == null ? 0 : row.getSum();
+                }
+                row = rows.hasNext() ? rows.next() : null;
+            }
+            buckets.add(HistogramBucketResponse.builder()
+                    .start(start)
+                    .end(end(start))
+                    .count(count)
+                    .sum(sum)
+                    .avg(count == 0 ? null : sum / count)
+                    .build());
+        }
+        return buckets;
+    }
+}
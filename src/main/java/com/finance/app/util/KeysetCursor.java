@@ -0,0 +1,49 @@
+package com.finance.app.util;
+
+import com.finance.app.exception.InvalidRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posisi terakhir yang sudah dikirim ke klien pada paginasi keyset: nilai kolom urutan dan id baris terakhir.
+ * Klien hanya melihat token base64 yang opaque; isinya bukan bagian dari kontrak API.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+    private static final String SEPARATOR = "|";
+
+    private final String sortBy;    // Kolom urutan yang dipakai saat token dibuat (misalnya: "date" atau "amount")
+    private final long id;          // ID baris terakhir pada halaman sebelumnya
+    private final String value;     // Nilai kolom urutan pada baris terakhir
+
+    public static String encode(String sortBy, Object value, long id) {
+        String raw = sortBy + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Membaca token cursor dari klien.
+     * @param token Token dari respons sebelumnya; kosong berarti halaman pertama
+     * @param sortBy Kolom urutan pada request ini, harus sama dengan saat token dibuat
+     * @return Cursor, atau null untuk halaman pertama
+     */
+    public static KeysetCursor decode(String token, String sortBy) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3 || !parts[0].equals(sortBy)) {
+                throw new InvalidRequestException("Cursor does not match sortBy=" + sortBy);
+            }
+            return new KeysetCursor(parts[0], Long.parseLong(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.finance.app.util;
+
+import com.finance.app.exception.InvalidRequestException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+public final class PageableUtil {
+
+    private PageableUtil() {
+    }
+
+    /**
+     * Memastikan pageable hanya mengurutkan berdasarkan properti yang diizinkan,
+     * sehingga parameter sort dari klien tidak bisa menyentuh relasi atau kolom sensitif.
+     * @param pageable Pageable dari request
+     * @param sortableProperties Daftar properti entity yang boleh dipakai untuk sort
+     * @return Pageable yang sama bila valid
+     */
+    public static Pageable requireSortable(Pageable pageable, Set<String> sortableProperties) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!sortableProperties.contains(order.getProperty())) {
+                throw new InvalidRequestException("Cannot sort by '" + order.getProperty() + "', allowed: " + sortableProperties);
+            }
+        }
+        return pageable;
+    }
+}
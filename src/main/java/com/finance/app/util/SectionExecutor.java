@@ -0,0 +1,60 @@
+package com.finance.app.util;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Menjalankan beberapa query independen dari satu request secara paralel. Setiap tugas memiliki batas waktu sejak
+ * diajukan (termasuk waktu antre); tugas yang melewati batas dibatalkan agar tidak terus memakai thread maupun koneksi
+ * database, dan tugas yang ditolak executor (misalnya antrean penuh) langsung gagal.
+ *
+ * <p>Sengaja tidak mengimplementasikan {@link java.util.concurrent.Executor} agar tidak menggantikan executor bawaan
+ * Spring Boot yang dipakai oleh request async (misalnya streaming export).</p>
+ */
+public class SectionExecutor implements AutoCloseable {
+    private final AsyncTaskExecutor executor;
+    private final Duration timeout;
+
+    public SectionExecutor(AsyncTaskExecutor executor, Duration timeout) {
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error instanceof TimeoutException) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (executor instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+}
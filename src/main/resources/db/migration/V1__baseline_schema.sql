@@ -0,0 +1,48 @@
+-- Skema awal, sama dengan yang sebelumnya dibuat oleh Hibernate (ddl-auto=update).
+-- Semua perintah idempotent agar aman dijalankan pada database yang sudah ada.
+
+CREATE TABLE IF NOT EXISTS app_user (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    username VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS expense (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    amount      DOUBLE PRECISION,
+    date        VARCHAR(255),
+    description VARCHAR(255),
+    user_id     BIGINT NOT NULL REFERENCES app_user (id)
+);
+
+CREATE TABLE IF NOT EXISTS income (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    amount      DOUBLE PRECISION,
+    date        VARCHAR(255),
+    description VARCHAR(255),
+    source      VARCHAR(255),
+    user_id     BIGINT NOT NULL REFERENCES app_user (id)
+);
+
+CREATE TABLE IF NOT EXISTS budget (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    amount      DOUBLE PRECISION,
+    category    VARCHAR(255),
+    description VARCHAR(255),
+    month       VARCHAR(255),
+    user_id     BIGINT NOT NULL REFERENCES app_user (id)
+);
+
+-- Index (user_id, kolom urutan, id) untuk listing per user dan paginasi keyset
+CREATE INDEX IF NOT EXISTS idx_expense_user_date ON expense (user_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_expense_user_amount ON expense (user_id, amount, id);
+CREATE INDEX IF NOT EXISTS idx_income_user_date ON income (user_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_income_user_amount ON income (user_id, amount, id);
+CREATE INDEX IF NOT EXISTS idx_budget_user_month ON budget (user_id, month, id);
+CREATE INDEX IF NOT EXISTS idx_budget_user_amount ON budget (user_id, amount, id);
+
+-- Sudah tercakup oleh index komposit di atas
+DROP INDEX IF EXISTS idx_expense_user_id;
+DROP INDEX IF EXISTS idx_income_user_id;
+DROP INDEX IF EXISTS idx_budget_user_id;
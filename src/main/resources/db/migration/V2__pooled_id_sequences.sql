@@ -0,0 +1,18 @@
+-- ID expense, income, dan budget dialokasikan Hibernate dari sequence dengan pooled optimizer
+-- (allocationSize = 50), sehingga insert bisa digabung dalam JDBC batch. Kolom IDENTITY membuat
+-- Hibernate menonaktifkan batching karena setiap insert harus langsung mengembalikan ID-nya.
+--
+-- Sequence dimulai di atas ID terbesar yang sudah ada. Default IDENTITY dihapus agar tidak ada
+-- dua sumber ID untuk tabel yang sama; insert manual harus mengambil ID dari sequence.
+
+CREATE SEQUENCE IF NOT EXISTS expense_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS income_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS budget_seq INCREMENT BY 50;
+
+SELECT setval('expense_seq', COALESCE((SELECT MAX(id) FROM expense), 0) + 50);
+SELECT setval('income_seq', COALESCE((SELECT MAX(id) FROM income), 0) + 50);
+SELECT setval('budget_seq', COALESCE((SELECT MAX(id) FROM budget), 0) + 50);
+
+ALTER TABLE expense ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE income ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE budget ALTER COLUMN id DROP IDENTITY IF EXISTS;
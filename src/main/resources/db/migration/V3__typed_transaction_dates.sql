@@ -0,0 +1,10 @@
+-- Kolom tanggal sebelumnya bertipe VARCHAR sehingga EXTRACT(...) harus melakukan cast di setiap baris
+-- dan index (user_id, date) tidak bisa dipakai untuk query rentang. Nilai lama diasumsikan berformat
+-- ISO (yyyy-MM-dd untuk date, yyyy-MM untuk month), sesuai format yang sudah dipakai oleh query laporan.
+-- Index komposit yang memakai kolom ini dibangun ulang otomatis oleh ALTER COLUMN ... TYPE.
+
+ALTER TABLE expense ALTER COLUMN date TYPE DATE USING CAST(NULLIF(TRIM(date), '') AS DATE);
+ALTER TABLE income ALTER COLUMN date TYPE DATE USING CAST(NULLIF(TRIM(date), '') AS DATE);
+
+-- Bulan budget disimpan sebagai tanggal 1 pada bulan tersebut
+ALTER TABLE budget ALTER COLUMN month TYPE DATE USING TO_DATE(NULLIF(TRIM(month), ''), 'YYYY-MM');
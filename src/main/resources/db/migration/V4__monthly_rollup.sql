@@ -0,0 +1,39 @@
+-- Rollup bulanan per user untuk endpoint analitik: satu baris per (user, jenis transaksi, bulan, dimensi)
+-- berisi jumlah baris dan total amount. Diperbarui oleh service di transaksi yang sama dengan setiap
+-- create/update/delete, sehingga endpoint analitik cukup membaca beberapa puluh baris rollup.
+--
+-- Transaksi tanpa tanggal disimpan pada period 0001-01-01 dan dimensi NULL disimpan sebagai string kosong,
+-- karena kolom primary key tidak boleh NULL; query analitik mengembalikannya lagi sebagai NULL.
+-- Dimensi: '' untuk expense, source untuk income, category untuk budget.
+
+CREATE TABLE IF NOT EXISTS monthly_rollup (
+    user_id      BIGINT           NOT NULL REFERENCES app_user (id) ON DELETE CASCADE,
+    entity_type  VARCHAR(16)      NOT NULL,
+    period       DATE             NOT NULL,
+    dimension    VARCHAR(255)     NOT NULL,
+    row_count    BIGINT           NOT NULL,
+    amount_total DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (user_id, entity_type, period, dimension)
+);
+
+-- Backfill dari data yang sudah ada
+INSERT INTO monthly_rollup (user_id, entity_type, period, dimension, row_count, amount_total)
+SELECT user_id, 'EXPENSE', COALESCE(CAST(date_trunc('month', date) AS DATE), DATE '0001-01-01'), '',
+       COUNT(*), COALESCE(SUM(amount), 0)
+FROM expense
+GROUP BY 1, 3
+ON CONFLICT DO NOTHING;
+
+INSERT INTO monthly_rollup (user_id, entity_type, period, dimension, row_count, amount_total)
+SELECT user_id, 'INCOME', COALESCE(CAST(date_trunc('month', date) AS DATE), DATE '0001-01-01'), COALESCE(source, ''),
+       COUNT(*), COALESCE(SUM(amount), 0)
+FROM income
+GROUP BY 1, 3, 4
+ON CONFLICT DO NOTHING;
+
+INSERT INTO monthly_rollup (user_id, entity_type, period, dimension, row_count, amount_total)
+SELECT user_id, 'BUDGET', COALESCE(month, DATE '0001-01-01'), COALESCE(category, ''),
+       COUNT(*), COALESCE(SUM(amount), 0)
+FROM budget
+GROUP BY 1, 3, 4
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,7 @@
+-- Index untuk direktori user (GET /api/users). Unique index bawaan pada username mengikuti collation
+-- database sehingga tidak bisa dipakai untuk LIKE 'prefix%' kecuali collation-nya "C"; text_pattern_ops
+-- membandingkan per karakter sehingga filter prefix username menjadi index range scan.
+-- Filter email bersifat case-insensitive, sehingga index dibuat pada LOWER(email).
+
+CREATE INDEX IF NOT EXISTS idx_app_user_username_pattern ON app_user (username text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_app_user_email_lower ON app_user (LOWER(email));
@@ -0,0 +1,6 @@
+-- Kolom version untuk optimistic locking (@Version) pada transaksi. Setiap update, baik lewat entity maupun
+-- PATCH satu statement, menaikkan version; klien yang mengirim version lama mendapat 409 Conflict.
+
+ALTER TABLE expense ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE income ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE budget ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
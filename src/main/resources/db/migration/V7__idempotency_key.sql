@@ -0,0 +1,20 @@
+-- Respons dari create yang dikirim dengan header Idempotency-Key, agar request ulang (retry klien) mendapat respons
+-- yang sama tanpa membuat baris duplikat, juga setelah restart. Baris diklaim di transaksi yang sama dengan create,
+-- sehingga request kembar yang datang bersamaan menunggu lalu membaca respons yang tersimpan.
+--
+-- scope berisi method dan path (misalnya "POST /api/expenses"); request_hash adalah SHA-256 body request untuk
+-- menolak key yang dipakai ulang dengan body berbeda; response_body disimpan terkompresi gzip.
+-- Baris yang lebih tua dari app.idempotency.ttl diabaikan dan dibersihkan berkala.
+
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    scope           VARCHAR(255)             NOT NULL,
+    idempotency_key VARCHAR(255)             NOT NULL,
+    request_hash    BYTEA                    NOT NULL,
+    status_code     INTEGER,
+    content_type    VARCHAR(255),
+    response_body   BYTEA,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (scope, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_created_at ON idempotency_key (created_at);
@@ -0,0 +1,6 @@
+-- Kategori pengeluaran, dicocokkan dengan budget.category untuk perbandingan anggaran dan realisasi.
+--
+-- Mulai versi ini rollup expense memakai category sebagai dimensi (sebelumnya selalu ''). Expense yang sudah ada
+-- belum memiliki kategori, sehingga baris rollup-nya (dimensi '') tetap benar tanpa backfill.
+
+ALTER TABLE expense ADD COLUMN IF NOT EXISTS category VARCHAR(255);
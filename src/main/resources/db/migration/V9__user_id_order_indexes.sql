@@ -0,0 +1,7 @@
+-- Index untuk urutan default listing per user (GET .../user/{userId}, sort=id). V1 membuang index user_id tunggal
+-- karena tercakup oleh (user_id, date, id) dan (user_id, amount, id), tetapi kedua index itu tidak memberi urutan id
+-- di dalam satu user; tanpa index ini setiap halaman menyaring dan mengurutkan seluruh baris milik user.
+
+CREATE INDEX IF NOT EXISTS idx_expense_user_id_id ON expense (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_income_user_id_id ON income (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_budget_user_id_id ON budget (user_id, id);
@@ -0,0 +1,59 @@
+package com.finance.app;
+
+import com.finance.app.util.SectionExecutor;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Menjalankan aplikasi dengan {@code spring.threads.virtual.enabled=true}. Mode ini hanya aktif di runtime Java 21+,
+ * sehingga test dilewati di Java 17 dan dijalankan oleh profile {@code java21} (aktif otomatis di JDK 21).
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsApplicationTests {
+    @Autowired
+    private Environment environment;
+    @Autowired
+    private ServletWebServerApplicationContext context;
+    @Autowired
+    private SectionExecutor summarySectionExecutor;
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void virtualThreadsAreActive() {
+        assertThat(Threading.VIRTUAL.isActive(environment)).isTrue();
+    }
+
+    @Test
+    void tomcatServesRequestsOnVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(VirtualThreadExecutor.class);
+        assertThat(restTemplate.getForEntity("/actuator/health", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void summarySectionsRunOnVirtualThreads() throws Exception {
+        Thread thread = summarySectionExecutor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        // Thread#isVirtual dipanggil lewat refleksi agar test tetap terkompilasi dengan baseline Java 17
+        assertThat((Boolean) Thread.class.getMethod("isVirtual").invoke(thread)).isTrue();
+    }
+}
@@ -0,0 +1,208 @@
+package com.finance.app.cache;
+
+import com.finance.app.repository.projection.AmountTotals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserAggregateCacheTest {
+    private static final Long USER_ID = 1L;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final UserAggregateCache<Row> cache =
+            new UserAggregateCache<>(100, TTL, Row::id, Row::amount, nanos::get);
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void deltaIsAppliedOnlyAfterCommit() {
+        CountingLoader loader = new CountingLoader(2, 30.0);
+        load(loader);
+
+        begin();
+        cache.recordCreated(USER_ID, new Row(3L, 50.0));
+        assertTotals(cache.getTotals(USER_ID, loader), 2, 30.0);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertTotals(cache.getTotals(USER_ID, loader), 3, 80.0);
+        assertThat(loader.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void tiesAreBrokenByIdLikeTheTopAndBottomQueries() {
+        cache.getMax(USER_ID, () -> Optional.of(new Row(5L, 50.0)));
+        cache.getMin(USER_ID, () -> Optional.of(new Row(5L, 10.0)));
+
+        cache.recordCreated(USER_ID, List.of(new Row(7L, 50.0), new Row(3L, 50.0), new Row(6L, 10.0), new Row(2L, 10.0)));
+
+        // Top: amount DESC, id DESC; bottom: amount ASC, id ASC
+        assertThat(cache.getMax(USER_ID, failingLoader())).contains(new Row(7L, 50.0));
+        assertThat(cache.getMin(USER_ID, failingLoader())).contains(new Row(2L, 10.0));
+
+        // Baris lain yang diubah menjadi setara dengan ekstrem hanya menggantikannya jika ID-nya menang
+        cache.recordUpdated(USER_ID, 20.0, new Row(9L, 50.0));
+        cache.recordUpdated(USER_ID, 20.0, new Row(8L, 10.0));
+        assertThat(cache.getMax(USER_ID, failingLoader())).contains(new Row(9L, 50.0));
+        assertThat(cache.getMin(USER_ID, failingLoader())).contains(new Row(2L, 10.0));
+    }
+
+    @Test
+    void rollbackLeavesCacheUnchanged() {
+        CountingLoader loader = new CountingLoader(2, 30.0);
+        load(loader);
+        Row max = new Row(1L, 20.0);
+        cache.getMax(USER_ID, () -> Optional.of(max));
+
+        begin();
+        cache.recordCreated(USER_ID, new Row(3L, 50.0));
+        cache.recordDeleted(USER_ID, 1L, 20.0);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTotals(cache.getTotals(USER_ID, loader), 2, 30.0);
+        assertThat(cache.getMax(USER_ID, failingLoader())).contains(max);
+        assertThat(loader.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void reloadWhileDeltaIsPendingIsNotPublished() {
+        CountingLoader loader = new CountingLoader(2, 30.0);
+
+        begin();
+        cache.recordCreated(USER_ID, new Row(3L, 50.0));
+        // Query berjalan sebelum commit; hasilnya belum memuat baris baru
+        assertTotals(cache.getTotals(USER_ID, loader), 2, 30.0);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        loader.set(3, 80.0);
+        assertTotals(cache.getTotals(USER_ID, loader), 3, 80.0);
+        assertThat(loader.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void reloadOverlappingCommittedWriteIsNotPublished() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<AmountTotals> racingLoader = () -> {
+            if (calls.incrementAndGet() == 1) {
+                // Penulisan lain selesai di tengah query; snapshot query sudah tidak bisa dipercaya
+                cache.recordCreated(USER_ID, new Row(3L, 50.0));
+                return totals(2, 30.0);
+            }
+            return totals(3, 80.0);
+        };
+
+        assertTotals(cache.getTotals(USER_ID, racingLoader), 2, 30.0);
+        assertTotals(cache.getTotals(USER_ID, racingLoader), 3, 80.0);
+        assertTotals(cache.getTotals(USER_ID, racingLoader), 3, 80.0);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void deletingExtremeRowMarksItUnknown() {
+        cache.getMax(USER_ID, () -> Optional.of(new Row(1L, 20.0)));
+        cache.recordDeleted(USER_ID, 1L, 20.0);
+
+        Row next = new Row(2L, 10.0);
+        assertThat(cache.getMax(USER_ID, () -> Optional.of(next))).contains(next);
+        assertThat(cache.getMax(USER_ID, failingLoader())).contains(next);
+    }
+
+    @Test
+    void entryExpiresAfterTtlSinceCreation() {
+        CountingLoader loader = new CountingLoader(2, 30.0);
+        load(loader);
+
+        nanos.addAndGet(TTL.toNanos() / 2);
+        // Pembaruan tidak memperpanjang umur entry
+        cache.recordCreated(USER_ID, List.of(new Row(3L, 50.0)));
+        assertTotals(cache.getTotals(USER_ID, loader), 3, 80.0);
+        assertThat(loader.calls.get()).isEqualTo(1);
+
+        nanos.addAndGet(TTL.toNanos() / 2 + 1);
+        loader.set(3, 80.5);
+        assertTotals(cache.getTotals(USER_ID, loader), 3, 80.5);
+        assertThat(loader.calls.get()).isEqualTo(2);
+    }
+
+    private void load(CountingLoader loader) {
+        cache.getTotals(USER_ID, loader);
+        assertThat(loader.calls.get()).isEqualTo(1);
+    }
+
+    private static void begin() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private static void assertTotals(AmountTotals totals, long count, double total) {
+        assertThat(totals.getCount()).isEqualTo(count);
+        assertThat(totals.getTotal()).isEqualTo(total);
+    }
+
+    private static <V> Supplier<V> failingLoader() {
+        return () -> {
+            throw new AssertionError("unexpected database load");
+        };
+    }
+
+    private static AmountTotals totals(long count, double total) {
+        return new AmountTotals() {
+            @Override
+            public Long getCount() {
+                return count;
+            }
+
+            @Override
+            public Double getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private record Row(Long id, Double amount) {
+    }
+
+    private static class CountingLoader implements Supplier<AmountTotals> {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile AmountTotals result;
+
+        CountingLoader(long count, double total) {
+            set(count, total);
+        }
+
+        void set(long count, double total) {
+            result = totals(count, total);
+        }
+
+        @Override
+        public AmountTotals get() {
+            calls.incrementAndGet();
+            return result;
+        }
+    }
+}
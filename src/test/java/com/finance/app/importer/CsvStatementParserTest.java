@@ -0,0 +1,132 @@
+package com.finance.app.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvStatementParserTest {
+
+    @Test
+    void readsColumnsByHeaderName() throws IOException {
+        List<StatementRecord> records = parse("""
+                Amount,Category,Date,Memo,Type,Source
+                -12.50,food,2024-01-15,Lunch,expense,
+                1000,,2024-01-31,January pay,income,ACME
+                """);
+
+        assertThat(records).hasSize(2);
+        StatementRecord lunch = records.get(0);
+        assertThat(lunch.getRow()).isEqualTo(1);
+        assertThat(lunch.getDate()).isEqualTo("2024-01-15");
+        assertThat(lunch.getAmount()).isEqualTo("-12.50");
+        assertThat(lunch.getDescription()).isEqualTo("Lunch");
+        assertThat(lunch.getType()).isEqualTo("expense");
+        assertThat(lunch.getCategory()).isEqualTo("food");
+        assertThat(lunch.getSource()).isNull();
+
+        StatementRecord pay = records.get(1);
+        assertThat(pay.getRow()).isEqualTo(2);
+        assertThat(pay.getSource()).isEqualTo("ACME");
+        assertThat(pay.getCategory()).isNull();
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndNewlines() throws IOException {
+        List<StatementRecord> records = parse("""
+                date,amount,description
+                2024-01-15,-45.00,"Dinner, drinks"
+                2024-01-16,-5.00,"He said ""hi""\"
+                2024-01-17,-7.25,"first line
+                second line"
+                2024-01-18,-1.00,plain
+                """);
+
+        assertThat(records).extracting(StatementRecord::getDescription)
+                .containsExactly("Dinner, drinks", "He said \"hi\"", "first line\nsecond line", "plain");
+        assertThat(records).extracting(StatementRecord::getRow).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(records.get(3).getDate()).isEqualTo("2024-01-18");
+    }
+
+    @Test
+    void skipsByteOrderMark() throws IOException {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = "date,amount\n2024-01-15,10\n".getBytes(StandardCharsets.UTF_8);
+        byte[] input = new byte[bom.length + body.length];
+        System.arraycopy(bom, 0, input, 0, bom.length);
+        System.arraycopy(body, 0, input, bom.length, body.length);
+
+        List<StatementRecord> records = parse(input);
+
+        assertThat(records).singleElement().satisfies(record -> {
+            assertThat(record.getDate()).isEqualTo("2024-01-15");
+            assertThat(record.getAmount()).isEqualTo("10");
+        });
+    }
+
+    @Test
+    void blankValuesShortRowsAndEmptyLinesAreTolerated() throws IOException {
+        List<StatementRecord> records = parse("""
+                date,amount,description,category
+                 2024-01-15 , 10 ,,
+
+                2024-01-16,20
+                """);
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getDate()).isEqualTo("2024-01-15");
+        assertThat(records.get(0).getAmount()).isEqualTo("10");
+        assertThat(records.get(0).getDescription()).isNull();
+        assertThat(records.get(1).getCategory()).isNull();
+    }
+
+    @Test
+    void invalidAmountsAndDatesArePassedThroughForValidation() throws IOException {
+        // Parser tidak menafsirkan nilai; validasi dilakukan tahap klasifikasi pipeline
+        List<StatementRecord> records = parse("""
+                date,amount
+                15/01/2024,"1,000.00"
+                2024-02-30,abc
+                """);
+
+        assertThat(records).extracting(StatementRecord::getDate).containsExactly("15/01/2024", "2024-02-30");
+        assertThat(records).extracting(StatementRecord::getAmount).containsExactly("1,000.00", "abc");
+    }
+
+    @Test
+    void headerWithoutRequiredColumnsIsRejected() {
+        assertThatThrownBy(() -> parse("description,amount\nLunch,10\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("'date' and 'amount'");
+        assertThatThrownBy(() -> parse(""))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void malformedCsvReportsLastGoodRow() {
+        assertThatThrownBy(() -> parse("date,amount,description\n2024-01-15,10,ok\n2024-01-16,20,\"unterminated\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Malformed CSV after row 1");
+    }
+
+    private static List<StatementRecord> parse(String csv) throws IOException {
+        return parse(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<StatementRecord> parse(byte[] csv) throws IOException {
+        List<StatementRecord> records = new ArrayList<>();
+        try (StatementParser parser = new CsvStatementParser(new ByteArrayInputStream(csv))) {
+            StatementRecord record;
+            while ((record = parser.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,121 @@
+package com.finance.app.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OfxStatementParserTest {
+
+    @Test
+    void readsSgmlWithoutClosingTags() throws IOException {
+        List<StatementRecord> records = parse("""
+                OFXHEADER:100
+                DATA:OFXSGML
+                VERSION:102
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS>
+                <CURDEF>IDR
+                <BANKTRANLIST>
+                <DTSTART>20240101
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240115120000.000[+7:WIB]
+                <TRNAMT>-45000.00
+                <FITID>1
+                <NAME>WARUNG MAKAN
+                <MEMO>Makan siang
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20240131
+                <TRNAMT>5000000
+                <NAME>PT ACME
+                </STMTTRN>
+                </BANKTRANLIST>
+                <LEDGERBAL><BALAMT>4955000<DTASOF>20240131
+                </STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """);
+
+        assertThat(records).hasSize(2);
+        StatementRecord lunch = records.get(0);
+        assertThat(lunch.getRow()).isEqualTo(1);
+        assertThat(lunch.getDate()).isEqualTo("2024-01-15");
+        assertThat(lunch.getAmount()).isEqualTo("-45000.00");
+        assertThat(lunch.getDescription()).isEqualTo("Makan siang");
+        assertThat(lunch.getSource()).isEqualTo("WARUNG MAKAN");
+
+        StatementRecord salary = records.get(1);
+        assertThat(salary.getRow()).isEqualTo(2);
+        assertThat(salary.getDate()).isEqualTo("2024-01-31");
+        assertThat(salary.getAmount()).isEqualTo("5000000");
+        assertThat(salary.getDescription()).isEqualTo("PT ACME");
+    }
+
+    @Test
+    void readsXmlOnASingleLine() throws IOException {
+        List<StatementRecord> records = parse("<?xml version=\"1.0\"?><OFX><BANKTRANLIST>"
+                + "<stmttrn><DTPOSTED>20240201</DTPOSTED><TRNAMT>-10.5</TRNAMT><NAME>Tom &amp; Jerry &lt;Cafe&gt;</NAME></stmttrn>"
+                + "<STMTTRN><DTPOSTED>20240202</DTPOSTED><TRNAMT>20</TRNAMT><MEMO></MEMO><NAME>Refund</NAME></STMTTRN>"
+                + "</BANKTRANLIST></OFX>");
+
+        assertThat(records).extracting(StatementRecord::getDate).containsExactly("2024-02-01", "2024-02-02");
+        assertThat(records).extracting(StatementRecord::getDescription).containsExactly("Tom & Jerry <Cafe>", "Refund");
+    }
+
+    @Test
+    void fieldsOutsideTransactionsAreIgnored() throws IOException {
+        List<StatementRecord> records = parse("<OFX><NAME>Bank<TRNAMT>999<STMTTRN><TRNAMT>1<DTPOSTED>20240301</STMTTRN><TRNAMT>2</OFX>");
+
+        assertThat(records).singleElement().satisfies(record -> {
+            assertThat(record.getAmount()).isEqualTo("1");
+            assertThat(record.getSource()).isNull();
+        });
+    }
+
+    @Test
+    void missingAndMalformedValuesArePassedThroughForValidation() throws IOException {
+        List<StatementRecord> records = parse("""
+                <STMTTRN><DTPOSTED>2024<TRNAMT>abc</STMTTRN>
+                <STMTTRN><NAME>No amount</STMTTRN>
+                """);
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getDate()).isEqualTo("2024");
+        assertThat(records.get(0).getAmount()).isEqualTo("abc");
+        assertThat(records.get(1).getDate()).isNull();
+        assertThat(records.get(1).getAmount()).isNull();
+    }
+
+    @Test
+    void unterminatedTransactionIsDropped() throws IOException {
+        assertThat(parse("<STMTTRN><DTPOSTED>20240101<TRNAMT>5")).isEmpty();
+    }
+
+    @Test
+    void oversizedElementIsRejected() {
+        String longName = "x".repeat(5000);
+        assertThatThrownBy(() -> parse("<STMTTRN><NAME>" + longName + "</STMTTRN>"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("near transaction 1");
+    }
+
+    private static List<StatementRecord> parse(String ofx) throws IOException {
+        List<StatementRecord> records = new ArrayList<>();
+        try (StatementParser parser = new OfxStatementParser(new ByteArrayInputStream(ofx.getBytes(StandardCharsets.UTF_8)))) {
+            StatementRecord record;
+            while ((record = parser.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,201 @@
+package com.finance.app.importer;
+
+import com.finance.app.importer.StatementImportPipeline.StatementSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementImportPipelineTest {
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int BATCH_SIZE = 3;
+
+    private final StatementImportPipeline pipeline = new StatementImportPipeline(1, 2, QUEUE_CAPACITY, BATCH_SIZE);
+    private final List<List<ImportedTransaction>> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void close() {
+        pipeline.close();
+    }
+
+    @Test
+    void importsAndClassifiesInBatches() throws Exception {
+        ImportJob job = run(csv("""
+                date,amount,description,type,source,category
+                2024-01-01,-10,Lunch,,,food
+                2024-01-02,2500,Salary,,ACME,ignored
+                2024-01-03,15,Refund,expense,,shopping
+                2024-01-04,-20,Transfer in,credit,Mom,
+                2024-01-05,-30,Coffee,DEBIT,,
+                2024-01-06,40,Bonus,Income,ACME,
+                2024-01-07,-50,Rent,,,housing
+                """), collecting());
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getRowsParsed().get()).isEqualTo(7);
+        assertThat(job.getIncomesImported().get()).isEqualTo(3);
+        assertThat(job.getExpensesImported().get()).isEqualTo(4);
+        assertThat(job.getRowsRejected().get()).isZero();
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(BATCH_SIZE));
+
+        List<ImportedTransaction> written = batches.stream().flatMap(List::stream).toList();
+        assertThat(written).extracting(ImportedTransaction::getRow).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(written).extracting(ImportedTransaction::isIncome).containsExactly(false, true, false, true, false, true, false);
+        assertThat(written).extracting(ImportedTransaction::getAmount).containsExactly(10.0, 2500.0, 15.0, 20.0, 30.0, 40.0, 50.0);
+
+        ImportedTransaction lunch = written.get(0);
+        assertThat(lunch.getDate()).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(lunch.getCategory()).isEqualTo("food");
+        assertThat(lunch.getSource()).isNull();
+
+        ImportedTransaction salary = written.get(1);
+        assertThat(salary.getSource()).isEqualTo("ACME");
+        assertThat(salary.getCategory()).isNull();
+    }
+
+    @Test
+    void invalidRowsAreRejectedWithoutFailingTheJob() throws Exception {
+        ImportJob job = run(csv("""
+                date,amount,type,description
+                2024-02-30,10,,
+                15/01/2024,10,,
+                2024-01-01,abc,,
+                2024-01-01,"1,000.00",,
+                2024-01-01,0,,
+                2024-01-01,1e400,,
+                2024-01-01,NaN,,
+                ,10,,
+                2024-01-01,10,transfer,
+                2024-01-01,10,,%s
+                2024-01-02,-12.5,,ok
+                """.formatted("x".repeat(256))), collecting());
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getRowsParsed().get()).isEqualTo(11);
+        assertThat(job.getRowsRejected().get()).isEqualTo(10);
+        assertThat(job.getExpensesImported().get()).isEqualTo(1);
+        assertThat(job.getErrors()).containsExactly(
+                "Row 1: invalid date or amount",
+                "Row 2: invalid date or amount",
+                "Row 3: invalid date or amount",
+                "Row 4: invalid date or amount",
+                "Row 5: amount must be a non-zero number",
+                "Row 6: amount must be a non-zero number",
+                "Row 7: amount must be a non-zero number",
+                "Row 8: date and amount are required",
+                "Row 9: type must be income, expense, credit, or debit",
+                "Row 10: description, source, and category must not exceed 255 characters");
+    }
+
+    @Test
+    void parserFailureFailsTheJob() throws Exception {
+        ImportJob job = run(() -> new GeneratingParser(50, new IOException("Malformed CSV after row 50: unexpected EOF")), collecting());
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+        assertThat(job.getFailure()).isEqualTo("Malformed CSV after row 50: unexpected EOF");
+        assertThat(job.getFinishedAt()).isNotNull();
+        // Baris sebelum kegagalan sudah ditulis; job tetap ditandai gagal
+        assertThat(job.getExpensesImported().get()).isEqualTo(50);
+    }
+
+    @Test
+    void parserErrorFailsTheJobInsteadOfHanging() throws Exception {
+        ImportJob job = run(() -> new GeneratingParser(10, new StackOverflowError()), collecting());
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+        assertThat(job.getFailure()).isEqualTo("StackOverflowError");
+    }
+
+    @Test
+    void writerFailureStopsBlockedStages() throws Exception {
+        // Parser jauh lebih cepat dari writer yang gagal, sehingga tahap parse dan klasifikasi tertahan di antrean penuh
+        ImportJob failed = run(() -> new GeneratingParser(10_000, null), (job, batch) -> {
+            throw new IllegalStateException("database unavailable");
+        });
+
+        assertThat(failed.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+        assertThat(failed.getFailure()).isEqualTo("database unavailable");
+        assertThat(failed.getRowsParsed().get()).isLessThan(10_000);
+
+        // Thread tahap milik job yang gagal sudah kembali ke pool
+        ImportJob next = run(() -> new GeneratingParser(100, null), collecting());
+        assertThat(next.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(next.getExpensesImported().get()).isEqualTo(100);
+    }
+
+    @Test
+    void sourceFailureFailsTheJob() throws Exception {
+        ImportJob job = run(() -> {
+            throw new IOException("CSV header must contain 'date' and 'amount' columns");
+        }, collecting());
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+        assertThat(job.getFailure()).isEqualTo("CSV header must contain 'date' and 'amount' columns");
+    }
+
+    private ImportJob run(StatementSource source, BatchWriter writer) throws InterruptedException {
+        ImportJob job = new ImportJob("job", 1L, StatementFormat.CSV, 0);
+        CountDownLatch finished = new CountDownLatch(1);
+        pipeline.submit(job, source, writer, finished::countDown);
+        assertThat(finished.await(10, TimeUnit.SECONDS)).as("job finished").isTrue();
+        return job;
+    }
+
+    private BatchWriter collecting() {
+        return (job, batch) -> {
+            batches.add(List.copyOf(batch));
+            for (ImportedTransaction transaction : batch) {
+                (transaction.isIncome() ? job.getIncomesImported() : job.getExpensesImported()).incrementAndGet();
+            }
+        };
+    }
+
+    private static StatementSource csv(String content) {
+        return () -> StatementFormat.CSV.openParser(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Menghasilkan {@code count} record expense yang valid, lalu melempar {@code failure} (jika ada).
+     */
+    private static class GeneratingParser implements StatementParser {
+        private final int count;
+        private final Throwable failure;
+        private int row;
+
+        GeneratingParser(int count, Throwable failure) {
+            this.count = count;
+            this.failure = failure;
+        }
+
+        @Override
+        public StatementRecord next() throws IOException {
+            if (row < count) {
+                row++;
+                return new StatementRecord(row, "2024-01-01", "-1", null, null, null, null);
+            }
+            if (failure instanceof IOException e) {
+                throw e;
+            }
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            if (failure instanceof Error e) {
+                throw e;
+            }
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.finance.app.monitoring;
+
+import com.finance.app.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogAspectTest {
+
+    @Test
+    void safeTypesAreLoggedAsIs() {
+        String logged = SlowQueryLogAspect.parameters(
+                new String[]{"userId", "from", "month", "limit", "page", "active", "amount", "none"},
+                new Object[]{42L, LocalDate.of(2024, 1, 31), YearMonth.of(2024, 2), Limit.of(10), PageRequest.of(0, 20),
+                        true, 12.5, null});
+
+        assertThat(logged).isEqualTo("{userId=42, from=2024-01-31, month=2024-02, limit=" + Limit.of(10)
+                + ", page=" + PageRequest.of(0, 20) + ", active=true, amount=12.5, none=null}");
+    }
+
+    @Test
+    void everythingElseIsMaskedToItsType() {
+        User user = User.builder().username("alice").email("alice@example.com").password("secret").build();
+
+        String logged = SlowQueryLogAspect.parameters(
+                new String[]{"email", "description", "source", "user", "filters"},
+                new Object[]{"alice@example.com", "Dinner with Bob", "ACME Payroll", user, Map.of("q", "rent")});
+
+        assertThat(logged).isEqualTo("{email=<String>, description=<String>, source=<String>, user=<User>, filters=1 entries}");
+        assertThat(logged).doesNotContain("alice", "Bob", "ACME", "secret", "rent");
+    }
+
+    @Test
+    void collectionsShowValuesOnlyWhenEveryElementIsSafe() {
+        String logged = SlowQueryLogAspect.parameters(
+                new String[]{"ids", "emails", "terms"},
+                new Object[]{List.of(1L, 2L, 3L), List.of("a@example.com"), new String[]{"rent", "food"}});
+
+        assertThat(logged).isEqualTo("{ids=3 items [1, 2, 3], emails=1 items <String>, terms=2 items <String>}");
+    }
+
+    @Test
+    void missingParameterNamesFallBackToPosition() {
+        assertThat(SlowQueryLogAspect.parameters(null, new Object[]{7, "secret"})).isEqualTo("{arg0=7, arg1=<String>}");
+    }
+}
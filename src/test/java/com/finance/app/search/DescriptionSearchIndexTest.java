@@ -0,0 +1,260 @@
+package com.finance.app.search;
+
+import com.finance.app.repository.projection.DescriptionRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DescriptionSearchIndexTest {
+    private static final Long USER_ID = 1L;
+
+    private final DescriptionSearchIndex index = new DescriptionSearchIndex(10_000, Duration.ofMinutes(10), Runnable::run);
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void addUpdateAndRemoveChangeResults() {
+        Supplier<List<DescriptionRow>> loader = rows(row(1L, "Coffee beans"), row(2L, "Groceries"));
+        assertThat(search("coffee", loader)).containsExactly(1L);
+
+        index.recordSaved(USER_ID, 3L, "Iced coffee");
+        assertThat(search("coffee", loader)).containsExactlyInAnyOrder(1L, 3L);
+
+        index.recordSaved(USER_ID, 1L, "Tea leaves");
+        assertThat(search("coffee", loader)).containsExactly(3L);
+        assertThat(search("tea", loader)).containsExactly(1L);
+
+        index.recordDeleted(USER_ID, 3L);
+        assertThat(search("coffee", loader)).isEmpty();
+
+        index.recordSavedAll(USER_ID, List.of(row(4L, "coffee shop"), row(5L, "COFFEE")), DescriptionRow::getId, DescriptionRow::getDescription);
+        index.recordDeletedAll(USER_ID, List.of(4L));
+        assertThat(search("coffee", loader)).containsExactly(5L);
+    }
+
+    @Test
+    void loaderRunsOnlyOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<List<DescriptionRow>> loader = () -> {
+            calls.incrementAndGet();
+            return List.of(row(1L, "Coffee beans"));
+        };
+
+        search("coffee", loader);
+        search("beans", loader);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackWriteIsNotIndexed() {
+        Supplier<List<DescriptionRow>> loader = rows(row(1L, "Coffee beans"));
+        search("coffee", loader);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.recordSaved(USER_ID, 2L, "Coffee filter");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(search("coffee", loader)).containsExactly(1L);
+    }
+
+    @Test
+    void shortKeywordsScanUserDocuments() {
+        Supplier<List<DescriptionRow>> loader = rows(row(1L, "Tax refund"), row(2L, "Taxi"), row(3L, "Rent"));
+
+        assertThat(search("ax", loader)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(search("T", loader)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(search("zz", loader)).isEmpty();
+    }
+
+    @Test
+    void trigramCandidatesAreVerifiedAgainstTheKeyword() {
+        // Kedua deskripsi memuat trigram "abc" dan "bcd", tetapi hanya satu yang memuat "abcd" secara berurutan
+        Supplier<List<DescriptionRow>> loader = rows(row(1L, "abc bcd"), row(2L, "xabcdx"));
+
+        assertThat(search("abcd", loader)).containsExactly(2L);
+    }
+
+    @Test
+    void rankingPrefersExactThenWordStartThenPosition() {
+        Supplier<List<DescriptionRow>> loader = rows(
+                row(1L, "monthly rent"),
+                row(2L, "parental fee"),
+                row(3L, "Rent"),
+                row(4L, "rent deposit"));
+
+        assertThat(search("rent", loader)).containsExactly(3L, 4L, 1L, 2L);
+        assertThat(index.search(USER_ID, "rent", 2, loader)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void matchingFoldsCaseAndUnicodeForms() {
+        Supplier<List<DescriptionRow>> loader = rows(
+                row(1L, "CAFÉ Ubud"),
+                // Huruf e diikuti combining acute accent (bentuk terurai)
+                row(2L, "Cafe\u0301 latte"),
+                row(3L, "ＡＴＭ withdrawal"),
+                row(4L, "ÜBERWEISUNG"));
+
+        assertThat(search("café", loader)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(search("CAFÉ", loader)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(search("atm", loader)).containsExactly(3L);
+        assertThat(search("überweisung", loader)).containsExactly(4L);
+        assertThat(search("cafe ", loader)).isEmpty();
+    }
+
+    @Test
+    void foldingIgnoresServerLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            Supplier<List<DescriptionRow>> loader = rows(row(1L, "INVOICE PAID"));
+            assertThat(search("invoice", loader)).containsExactly(1L);
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void writesDuringLoadAreReplayed() {
+        Supplier<List<DescriptionRow>> loader = () -> {
+            // Snapshot database sudah diambil; perubahan berikut terjadi sebelum index terpasang
+            List<DescriptionRow> snapshot = new ArrayList<>(List.of(row(1L, "Coffee beans"), row(2L, "Coffee grinder")));
+            index.recordSaved(USER_ID, 3L, "Coffee filter");
+            index.recordDeleted(USER_ID, 2L);
+            index.recordSaved(USER_ID, 1L, "Coffee beans");
+            return snapshot;
+        };
+
+        assertThat(search("coffee", loader)).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void failedLoadIsRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<List<DescriptionRow>> loader = () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return List.of(row(1L, "Coffee beans"));
+        };
+
+        try {
+            search("coffee", loader);
+        } catch (IllegalStateException expected) {
+            // Index yang gagal dimuat dibuang dari cache
+        }
+        assertThat(search("coffee", loader)).containsExactly(1L);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void staleHitsAreToppedUpToTheLimit() {
+        Supplier<List<DescriptionRow>> loader = rows(
+                row(1L, "Coffee"), row(2L, "Coffee"), row(3L, "Coffee"), row(4L, "Coffee"), row(5L, "Coffee"), row(6L, "Coffee"));
+        // Baris 6, 5 dan 4 (ranking teratas) sudah diubah di database, tetapi index belum menerima perubahannya
+        Map<Long, DescriptionRow> database = new HashMap<>();
+        List.of(row(1L, "Coffee"), row(2L, "Coffee"), row(3L, "Coffee"), row(4L, "Tea"), row(5L, "Tea"))
+                .forEach(row -> database.put(row.getId(), row));
+        List<List<Long>> fetches = new ArrayList<>();
+        Function<List<Long>, List<DescriptionRow>> fetch = ids -> {
+            fetches.add(ids);
+            return ids.stream().map(database::get).filter(Objects::nonNull).toList();
+        };
+
+        List<DescriptionRow> rows = index.search(USER_ID, "coffee", 2, loader, fetch, DescriptionRow::getId, DescriptionRow::getDescription);
+
+        assertThat(rows).extracting(DescriptionRow::getId).containsExactly(3L, 2L);
+        // Setiap putaran menggandakan batas dan hanya mengambil kandidat yang belum diambil
+        assertThat(fetches).containsExactly(List.of(6L, 5L), List.of(4L, 3L), List.of(2L, 1L));
+
+        assertThat(index.search(USER_ID, "coffee", 5, loader, fetch, DescriptionRow::getId, DescriptionRow::getDescription))
+                .extracting(DescriptionRow::getId).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void weightCountsDocumentsAndPostingEntries() {
+        TrigramIndex trigrams = new TrigramIndex();
+        trigrams.ensureLoaded(rows(row(1L, "abcd")));
+        // 1 deskripsi + trigram "abc" dan "bcd"
+        assertThat(trigrams.weight()).isEqualTo(3);
+
+        // "abcabc" memiliki trigram abc, bca, cab
+        trigrams.upsert(2L, "abcabc");
+        assertThat(trigrams.weight()).isEqualTo(2 + 2 + 3);
+
+        trigrams.remove(1L);
+        assertThat(trigrams.weight()).isEqualTo(1 + 3);
+    }
+
+    @Test
+    void cacheIsBoundedByIndexWeightNotUserCount() {
+        DescriptionSearchIndex small = new DescriptionSearchIndex(20, Duration.ofMinutes(10), Runnable::run);
+        AtomicInteger lightLoads = new AtomicInteger();
+        AtomicInteger heavyLoads = new AtomicInteger();
+        Supplier<List<DescriptionRow>> light = () -> {
+            lightLoads.incrementAndGet();
+            return List.of(row(1L, "Rent"));
+        };
+        Supplier<List<DescriptionRow>> heavy = () -> {
+            heavyLoads.incrementAndGet();
+            return List.of(row(1L, "Monthly rent"), row(2L, "Rent deposit"), row(3L, "Parental fee"));
+        };
+
+        small.search(2L, "rent", 10, light);
+        small.search(2L, "rent", 10, light);
+        assertThat(lightLoads.get()).isEqualTo(1);
+
+        // Index user dengan riwayat besar melebihi batas bobot sehingga tidak disimpan di cache
+        small.search(3L, "rent", 10, heavy);
+        small.search(3L, "rent", 10, heavy);
+        assertThat(heavyLoads.get()).isEqualTo(2);
+
+        // Index yang tumbuh lewat perubahan ikut ditimbang ulang
+        small.recordSavedAll(2L, List.of(row(2L, "Monthly rent"), row(3L, "Rent deposit")), DescriptionRow::getId, DescriptionRow::getDescription);
+        small.search(2L, "rent", 10, light);
+        assertThat(lightLoads.get()).isEqualTo(2);
+    }
+
+    private List<Long> search(String keyword, Supplier<List<DescriptionRow>> loader) {
+        return index.search(USER_ID, keyword, 50, loader);
+    }
+
+    private static Supplier<List<DescriptionRow>> rows(DescriptionRow... rows) {
+        return () -> List.of(rows);
+    }
+
+    private static DescriptionRow row(Long id, String description) {
+        return new DescriptionRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package com.finance.app.service;
+
+import com.finance.app.dto.response.BudgetResponse;
+import com.finance.app.dto.response.CursorPageResponse;
+import com.finance.app.exception.InvalidRequestException;
+import com.finance.app.model.Budget;
+import com.finance.app.model.User;
+import com.finance.app.repository.BudgetRepository;
+import com.finance.app.repository.UserRepository;
+import com.finance.app.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Paginasi keyset budget terhadap database sebenarnya, dengan kunci urutan {@link YearMonth} yang disimpan sebagai
+ * tanggal awal bulan: setiap baris muncul tepat satu kali, termasuk baris dengan bulan yang sama. Data dibuat di
+ * dalam transaksi test dan di-rollback setelahnya.
+ */
+@SpringBootTest
+@Transactional
+class BudgetKeysetPaginationTest {
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+    private static final YearMonth DECEMBER = YearMonth.of(2023, 12);
+
+    @Autowired
+    private BudgetService budgetService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    private Long userId;
+    private List<Budget> budgets;
+
+    @BeforeEach
+    void createBudgets() {
+        User user = userRepository.save(User.builder()
+                .username("budget-keyset-" + System.nanoTime())
+                .email("keyset@example.com")
+                .password("secret")
+                .build());
+        userId = user.getId();
+
+        // Beberapa budget berbagi bulan (dan amount) yang sama, termasuk melewati batas tahun
+        budgets = budgetRepository.saveAll(List.of(
+                budget(user, JANUARY, 100.0),
+                budget(user, DECEMBER, 100.0),
+                budget(user, JANUARY, 250.0),
+                budget(user, JANUARY, 100.0),
+                budget(user, DECEMBER, 50.0),
+                budget(user, null, 100.0),
+                budget(user, DECEMBER, null)));
+        budgetRepository.flush();
+    }
+
+    @Test
+    void monthPagesVisitEveryRowWithMonthOnceInOrder() {
+        List<Long> expected = expected(Budget::getMonth);
+
+        for (int size = 1; size <= expected.size() + 1; size++) {
+            assertThat(walk("month", size)).as("size=" + size).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void amountPagesVisitEveryRowWithAmountOnceInOrder() {
+        List<Long> expected = expected(Budget::getAmount);
+
+        for (int size = 1; size <= expected.size() + 1; size++) {
+            assertThat(walk("amount", size)).as("size=" + size).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void nextCursorRoundTripsTheLastMonthAndId() {
+        List<Long> expected = expected(Budget::getMonth);
+
+        CursorPageResponse<BudgetResponse> page = budgetService.getBudgetsByUserIdAfterCursor(userId, "month", "", 2);
+        BudgetResponse last = page.getContent().get(1);
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor(), "month");
+
+        assertThat(last.getMonth()).isEqualTo(JANUARY);
+        assertThat(YearMonth.parse(cursor.getValue())).isEqualTo(JANUARY);
+        assertThat(cursor.getId()).isEqualTo(last.getId());
+
+        // Baris ketiga masih berada di bulan yang sama dengan cursor; urutan dilanjutkan berdasarkan id
+        CursorPageResponse<BudgetResponse> next = budgetService.getBudgetsByUserIdAfterCursor(userId, "month", page.getNextCursor(), 2);
+        assertThat(next.getContent()).extracting(BudgetResponse::getId).containsExactlyElementsOf(expected.subList(2, 4));
+        assertThat(next.getContent().get(0).getMonth()).isEqualTo(JANUARY);
+        assertThat(next.getContent().get(1).getMonth()).isEqualTo(DECEMBER);
+    }
+
+    @Test
+    void invalidMonthCursorsAreRejected() {
+        String amountCursor = KeysetCursor.encode("amount", 100.0, 1L);
+        String badMonth = KeysetCursor.encode("month", "2024-13", 1L);
+        String fullDate = KeysetCursor.encode("month", "2024-01-01", 1L);
+
+        assertThatThrownBy(() -> budgetService.getBudgetsByUserIdAfterCursor(userId, "month", amountCursor, 10))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> budgetService.getBudgetsByUserIdAfterCursor(userId, "month", badMonth, 10))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Invalid cursor month: 2024-13");
+        assertThatThrownBy(() -> budgetService.getBudgetsByUserIdAfterCursor(userId, "month", fullDate, 10))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Invalid cursor month: 2024-01-01");
+    }
+
+    private List<Long> walk(String sortBy, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        for (int pages = 0; cursor != null; pages++) {
+            assertThat(pages).as("page count").isLessThanOrEqualTo(budgets.size());
+            CursorPageResponse<BudgetResponse> page = budgetService.getBudgetsByUserIdAfterCursor(userId, sortBy, cursor, size);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(size);
+            page.getContent().forEach(budget -> ids.add(budget.getId()));
+            cursor = page.getNextCursor();
+        }
+        return ids;
+    }
+
+    private <K extends Comparable<K>> List<Long> expected(Function<Budget, K> key) {
+        return budgets.stream()
+                .filter(budget -> key.apply(budget) != null)
+                .sorted(Comparator.comparing(key).thenComparing(Budget::getId).reversed())
+                .map(Budget::getId)
+                .toList();
+    }
+
+    private static Budget budget(User user, YearMonth month, Double amount) {
+        return Budget.builder()
+                .user(user)
+                .month(month)
+                .amount(amount)
+                .category("food")
+                .description("keyset")
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.finance.app.service;
+
+import com.finance.app.dto.response.BudgetResponse;
+import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.dto.response.IncomeResponse;
+import com.finance.app.model.Budget;
+import com.finance.app.model.Expense;
+import com.finance.app.model.Income;
+import com.finance.app.model.User;
+import com.finance.app.repository.BudgetRepository;
+import com.finance.app.repository.ExpenseRepository;
+import com.finance.app.repository.IncomeRepository;
+import com.finance.app.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pencarian deskripsi lewat service: hasil index disaring ulang dengan normalisasi yang sama (NFKC + lowercase),
+ * sehingga keyword yang setara secara NFKC tidak terbuang di tahap penyaringan.
+ */
+@SpringBootTest
+@Transactional
+class DescriptionSearchServiceTest {
+    // huruf é dalam bentuk terurai (e + combining acute) dan karakter full-width
+    private static final String DECOMPOSED_CAFE = "Cafe\u0301";
+    private static final String FULL_WIDTH_CAFE = "\uFF23\uFF21\uFF26\uFF25\u0301";
+
+    @Autowired
+    private ExpanseService expanseService;
+    @Autowired
+    private IncomeService incomeService;
+    @Autowired
+    private BudgetService budgetService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    @Autowired
+    private IncomeRepository incomeRepository;
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = userRepository.save(User.builder()
+                .username("search-" + System.nanoTime())
+                .email("search@example.com")
+                .password("secret")
+                .build());
+    }
+
+    @Test
+    void expenseSearchKeepsNfkcEquivalentMatches() {
+        Expense cafe = expenseRepository.save(Expense.builder().user(user).date(LocalDate.of(2024, 1, 1)).amount(4.5).description("Caf\u00E9 cr\u00E8me").build());
+        Expense office = expenseRepository.save(Expense.builder().user(user).date(LocalDate.of(2024, 1, 2)).amount(30.0).description("O\uFB03ce supplies").build());
+        expenseRepository.flush();
+
+        assertThat(expanseService.getExpensesByDescriptionContainingIgnoreCase(user.getId(), DECOMPOSED_CAFE, 10))
+                .extracting(ExpenseResponse::getId).containsExactly(cafe.getId());
+        assertThat(expanseService.getExpensesByDescriptionContainingIgnoreCase(user.getId(), FULL_WIDTH_CAFE, 10))
+                .extracting(ExpenseResponse::getId).containsExactly(cafe.getId());
+        assertThat(expanseService.getExpensesByDescriptionContainingIgnoreCase(user.getId(), "office", 10))
+                .extracting(ExpenseResponse::getId).containsExactly(office.getId());
+    }
+
+    @Test
+    void incomeSearchKeepsNfkcEquivalentMatches() {
+        Income income = incomeRepository.save(Income.builder().user(user).date(LocalDate.of(2024, 1, 1)).amount(100.0).source("Shop").description("Caf\u00E9 sales").build());
+        incomeRepository.flush();
+
+        assertThat(incomeService.getIncomesByDescriptionContainingIgnoreCase(user.getId(), DECOMPOSED_CAFE, 10))
+                .extracting(IncomeResponse::getId).containsExactly(income.getId());
+        assertThat(incomeService.getIncomesByDescriptionContainingIgnoreCase(user.getId(), FULL_WIDTH_CAFE, 10))
+                .extracting(IncomeResponse::getId).containsExactly(income.getId());
+    }
+
+    @Test
+    void budgetSearchKeepsNfkcEquivalentMatches() {
+        Budget budget = budgetRepository.save(Budget.builder().user(user).month(YearMonth.of(2024, 1)).amount(50.0).category("food").description("Caf\u00E9 visits").build());
+        budgetRepository.flush();
+
+        assertThat(budgetService.getBudgetsByDescriptionContaining(user.getId(), DECOMPOSED_CAFE, 10))
+                .extracting(BudgetResponse::getId).containsExactly(budget.getId());
+        assertThat(budgetService.getBudgetsByDescriptionContaining(user.getId(), FULL_WIDTH_CAFE, 10))
+                .extracting(BudgetResponse::getId).containsExactly(budget.getId());
+    }
+}
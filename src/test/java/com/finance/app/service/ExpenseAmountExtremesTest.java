@@ -0,0 +1,77 @@
+package com.finance.app.service;
+
+import com.finance.app.dto.request.ExpenseRequest;
+import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.model.User;
+import com.finance.app.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Max/min dilayani dari cache agregat yang diperbarui setelah commit, sedangkan top/bottom selalu dari database;
+ * pada amount yang sama keduanya harus memilih baris yang sama. Test ini tidak transaksional agar delta cache
+ * benar-benar diterapkan; user beserta datanya dihapus setelahnya.
+ */
+@SpringBootTest
+class ExpenseAmountExtremesTest {
+    @Autowired
+    private ExpanseService expanseService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = userRepository.save(User.builder()
+                .username("extremes-" + System.nanoTime())
+                .email("extremes@example.com")
+                .password("secret")
+                .build()).getId();
+    }
+
+    @AfterEach
+    void deleteUser() {
+        userService.deleteUser(userId);
+    }
+
+    @Test
+    void maxAndMinMatchTopAndBottomOnTiesAfterInserts() {
+        create(50.0);
+        create(10.0);
+        // Cache terisi dari database sebelum baris setara berikutnya dibuat
+        assertSameAsK1();
+
+        create(50.0);
+        create(10.0);
+        create(50.0);
+        assertSameAsK1();
+    }
+
+    private void assertSameAsK1() {
+        ExpenseResponse max = expanseService.getMaxAmountExpenseByUserId(userId);
+        ExpenseResponse min = expanseService.getMinAmountExpenseByUserId(userId);
+
+        assertThat(max.getId()).isEqualTo(expanseService.getTopAmountExpensesByUserId(userId, 1).get(0).getId());
+        assertThat(min.getId()).isEqualTo(expanseService.getBottomAmountExpensesByUserId(userId, 1).get(0).getId());
+    }
+
+    private void create(double amount) {
+        expanseService.createExpense(ExpenseRequest.builder()
+                .userId(userId)
+                .amount(amount)
+                .date(LocalDate.of(2024, 5, 1))
+                .description("tie")
+                .category("test")
+                .build());
+    }
+}
@@ -0,0 +1,153 @@
+package com.finance.app.service;
+
+import com.finance.app.dto.response.CursorPageResponse;
+import com.finance.app.dto.response.ExpenseResponse;
+import com.finance.app.exception.InvalidRequestException;
+import com.finance.app.model.Expense;
+import com.finance.app.model.User;
+import com.finance.app.repository.ExpenseRepository;
+import com.finance.app.repository.UserRepository;
+import com.finance.app.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Paginasi keyset terhadap database sebenarnya: setiap baris muncul tepat satu kali saat halaman ditelusuri, termasuk
+ * baris dengan nilai urutan yang sama. Data dibuat di dalam transaksi test dan di-rollback setelahnya.
+ */
+@SpringBootTest
+@Transactional
+class ExpenseKeysetPaginationTest {
+    private static final LocalDate DAY_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2024, 3, 2);
+
+    @Autowired
+    private ExpanseService expanseService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    private Long userId;
+    private List<Expense> expenses;
+
+    @BeforeEach
+    void createExpenses() {
+        User user = userRepository.save(User.builder()
+                .username("keyset-" + System.nanoTime())
+                .email("keyset@example.com")
+                .password("secret")
+                .build());
+        userId = user.getId();
+
+        // Banyak baris berbagi tanggal dan amount yang sama sehingga urutan ditentukan oleh id
+        expenses = expenseRepository.saveAll(List.of(
+                expense(user, DAY_1, 10.0),
+                expense(user, DAY_2, 10.0),
+                expense(user, DAY_1, 25.5),
+                expense(user, DAY_1, 10.0),
+                expense(user, DAY_2, 5.0),
+                expense(user, DAY_1, 25.5),
+                expense(user, null, 10.0),
+                expense(user, DAY_2, null)));
+        expenseRepository.flush();
+    }
+
+    @Test
+    void datePagesVisitEveryDatedRowOnceInOrder() {
+        List<Long> expected = expected(Expense::getDate);
+
+        for (int size = 1; size <= expected.size() + 1; size++) {
+            assertThat(walk("date", size)).as("size=" + size).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void amountPagesVisitEveryRowWithAmountOnceInOrder() {
+        List<Long> expected = expected(Expense::getAmount);
+
+        for (int size = 1; size <= expected.size() + 1; size++) {
+            assertThat(walk("amount", size)).as("size=" + size).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void lastFullPageHasNoNextCursor() {
+        // 7 baris bertanggal, halaman berisi 7: baris tambahan tidak ada sehingga tidak ada halaman kosong berikutnya
+        CursorPageResponse<ExpenseResponse> page = expanseService.getExpensesByUserIdAfterCursor(userId, "date", "", 7);
+
+        assertThat(page.getContent()).hasSize(7);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorForTiedRowContinuesWithinTheTie() {
+        List<Long> expected = expected(Expense::getDate);
+        Expense tied = expenses.stream().filter(expense -> expense.getId().equals(expected.get(1))).findFirst().orElseThrow();
+
+        String cursor = KeysetCursor.encode("date", tied.getDate(), tied.getId());
+        CursorPageResponse<ExpenseResponse> page = expanseService.getExpensesByUserIdAfterCursor(userId, "date", cursor, 100);
+
+        assertThat(page.getContent()).extracting(ExpenseResponse::getId).containsExactlyElementsOf(expected.subList(2, expected.size()));
+    }
+
+    @Test
+    void invalidCursorsAreRejected() {
+        String amountCursor = KeysetCursor.encode("amount", 10.0, 1L);
+        String badDate = KeysetCursor.encode("date", "not-a-date", 1L);
+        String badAmount = KeysetCursor.encode("amount", "ten", 1L);
+
+        assertThatThrownBy(() -> expanseService.getExpensesByUserIdAfterCursor(userId, "date", amountCursor, 10))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> expanseService.getExpensesByUserIdAfterCursor(userId, "date", badDate, 10))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Invalid cursor date: not-a-date");
+        assertThatThrownBy(() -> expanseService.getExpensesByUserIdAfterCursor(userId, "amount", badAmount, 10))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Invalid cursor amount: ten");
+        assertThatThrownBy(() -> expanseService.getExpensesByUserIdAfterCursor(userId, "date", "%%%", 10))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    private List<Long> walk(String sortBy, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        for (int pages = 0; cursor != null; pages++) {
+            assertThat(pages).as("page count").isLessThanOrEqualTo(expenses.size());
+            CursorPageResponse<ExpenseResponse> page = expanseService.getExpensesByUserIdAfterCursor(userId, sortBy, cursor, size);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(size);
+            page.getContent().forEach(expense -> ids.add(expense.getId()));
+            cursor = page.getNextCursor();
+        }
+        return ids;
+    }
+
+    private <K extends Comparable<K>> List<Long> expected(Function<Expense, K> key) {
+        return expenses.stream()
+                .filter(expense -> key.apply(expense) != null)
+                .sorted(Comparator.comparing(key).thenComparing(Expense::getId).reversed())
+                .map(Expense::getId)
+                .toList();
+    }
+
+    private static Expense expense(User user, LocalDate date, Double amount) {
+        return Expense.builder()
+                .user(user)
+                .date(date)
+                .amount(amount)
+                .description("keyset")
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.finance.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.app.model.Expense;
+import com.finance.app.model.Income;
+import com.finance.app.model.User;
+import com.finance.app.repository.ExpenseRepository;
+import com.finance.app.repository.IncomeRepository;
+import com.finance.app.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ringkasan user tetap lengkap walaupun hanya satu izin bulkhead yang tersedia: thread request tidak boleh menahan
+ * koneksi (open-in-view) selagi section paralelnya menunggu izin yang sama. Bulkhead diset dua izin (Flyway butuh
+ * dua koneksi saat startup) dan test menahan salah satunya selama request.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.db.bulkhead.max-concurrent=2",
+        "app.db.bulkhead.max-wait=1s"
+})
+class UserSummaryBulkheadTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = userRepository.save(User.builder()
+                .username("bulkhead-" + System.nanoTime())
+                .email("bulkhead@example.com")
+                .password("secret")
+                .build());
+        expenseRepository.save(Expense.builder().user(user).date(LocalDate.of(2024, 3, 1)).amount(40.0).description("Rent").build());
+        incomeRepository.save(Income.builder().user(user).date(LocalDate.of(2024, 3, 1)).amount(100.0).source("ACME").description("Salary").build());
+    }
+
+    @AfterEach
+    void deleteUser() {
+        userService.deleteUser(user.getId());
+    }
+
+    @Test
+    void summarySucceedsWithSinglePermitAvailable() throws Exception {
+        ResponseEntity<String> response;
+        try (Connection held = dataSource.getConnection()) {
+            response = restTemplate.getForEntity("/api/users/{id}/summary", String.class, user.getId());
+        }
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode summary = objectMapper.readTree(response.getBody()).get("data");
+        assertThat(summary.get("unavailableSections")).isEmpty();
+        assertThat(summary.get("username").asText()).isEqualTo(user.getUsername());
+        assertThat(summary.at("/expense/total").asDouble()).isEqualTo(40.0);
+        assertThat(summary.at("/income/max/amount").asDouble()).isEqualTo(100.0);
+    }
+}
@@ -0,0 +1,165 @@
+package com.finance.app.util;
+
+import com.finance.app.dto.response.HistogramBucketResponse;
+import com.finance.app.exception.InvalidRequestException;
+import com.finance.app.repository.projection.BucketTotals;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HistogramBucketTest {
+
+    @Test
+    void parsesBucketNamesCaseInsensitively() {
+        assertThat(HistogramBucket.from("Week")).isEqualTo(HistogramBucket.WEEK);
+        assertThat(HistogramBucket.from("QUARTER")).isEqualTo(HistogramBucket.QUARTER);
+        assertThatThrownBy(() -> HistogramBucket.from("fortnight"))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("allowed: day, week, month, quarter, year");
+    }
+
+    @Test
+    void truncatesToBucketStart() {
+        LocalDate sunday = LocalDate.of(2024, 8, 18);
+
+        assertThat(HistogramBucket.DAY.truncate(sunday)).isEqualTo(sunday);
+        assertThat(HistogramBucket.WEEK.truncate(sunday)).isEqualTo(LocalDate.of(2024, 8, 12));
+        assertThat(HistogramBucket.WEEK.truncate(LocalDate.of(2024, 8, 12))).isEqualTo(LocalDate.of(2024, 8, 12));
+        assertThat(HistogramBucket.MONTH.truncate(sunday)).isEqualTo(LocalDate.of(2024, 8, 1));
+        assertThat(HistogramBucket.QUARTER.truncate(sunday)).isEqualTo(LocalDate.of(2024, 7, 1));
+        assertThat(HistogramBucket.QUARTER.truncate(LocalDate.of(2024, 12, 31))).isEqualTo(LocalDate.of(2024, 10, 1));
+        assertThat(HistogramBucket.YEAR.truncate(sunday)).isEqualTo(LocalDate.of(2024, 1, 1));
+    }
+
+    @Test
+    void bucketEndIsInclusive() {
+        assertThat(HistogramBucket.MONTH.end(LocalDate.of(2024, 2, 10))).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(HistogramBucket.QUARTER.end(LocalDate.of(2023, 11, 5))).isEqualTo(LocalDate.of(2023, 12, 31));
+        assertThat(HistogramBucket.WEEK.end(LocalDate.of(2024, 8, 14))).isEqualTo(LocalDate.of(2024, 8, 18));
+    }
+
+    @Test
+    void weekCrossingYearBoundaryStaysOneBucket() {
+        // 2024-12-30 adalah hari Senin; minggunya berakhir 2025-01-05
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 8);
+
+        List<HistogramBucketResponse> buckets = HistogramBucket.WEEK.fill(from, to, List.of(
+                totals(LocalDate.of(2024, 12, 30), 2, 30.0),
+                totals(LocalDate.of(2025, 1, 6), 1, 5.0)));
+
+        assertThat(buckets).extracting(HistogramBucketResponse::getStart)
+                .containsExactly(LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 6));
+        assertThat(buckets.get(0).getEnd()).isEqualTo(LocalDate.of(2025, 1, 5));
+        assertThat(buckets.get(0).getCount()).isEqualTo(2);
+        assertThat(buckets.get(0).getSum()).isEqualTo(30.0);
+    }
+
+    @Test
+    void quarterBucketSumsMonthlyRollupRows() {
+        List<HistogramBucketResponse> buckets = HistogramBucket.QUARTER.fill(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 9, 30), List.of(
+                totals(LocalDate.of(2024, 4, 1), 2, 20.0),
+                totals(LocalDate.of(2024, 5, 1), 3, 30.0),
+                totals(LocalDate.of(2024, 6, 1), 5, 50.0),
+                totals(LocalDate.of(2024, 8, 1), 1, 7.0)));
+
+        assertThat(buckets).hasSize(2);
+        HistogramBucketResponse q2 = buckets.get(0);
+        assertThat(q2.getStart()).isEqualTo(LocalDate.of(2024, 4, 1));
+        assertThat(q2.getEnd()).isEqualTo(LocalDate.of(2024, 6, 30));
+        assertThat(q2.getCount()).isEqualTo(10);
+        assertThat(q2.getSum()).isEqualTo(100.0);
+        assertThat(q2.getAvg()).isEqualTo(10.0);
+        assertThat(buckets.get(1).getCount()).isEqualTo(1);
+        assertThat(buckets.get(1).getSum()).isEqualTo(7.0);
+    }
+
+    @Test
+    void rangeStartingMidBucketIsExpandedToWholeBuckets() {
+        LocalDate from = LocalDate.of(2024, 1, 15);
+        LocalDate to = LocalDate.of(2024, 3, 10);
+
+        List<HistogramBucketResponse> buckets = HistogramBucket.MONTH.fill(from, to, List.of(totals(LocalDate.of(2024, 1, 1), 4, 40.0)));
+
+        assertThat(buckets).extracting(HistogramBucketResponse::getStart)
+                .containsExactly(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1));
+        assertThat(buckets.get(0).getCount()).isEqualTo(4);
+        assertThat(buckets.get(2).getEnd()).isEqualTo(LocalDate.of(2024, 3, 31));
+    }
+
+    @Test
+    void emptyBucketsHaveZeroCountAndNullAverage() {
+        List<HistogramBucketResponse> buckets = HistogramBucket.DAY.fill(LocalDate.of(2024, 2, 12), LocalDate.of(2024, 2, 15), List.of(
+                totals(LocalDate.of(2024, 2, 13), 2, 9.0)));
+
+        assertThat(buckets).hasSize(4);
+        assertThat(buckets).extracting(HistogramBucketResponse::getCount).containsExactly(0L, 2L, 0L, 0L);
+        assertThat(buckets).extracting(HistogramBucketResponse::getSum).containsExactly(0.0, 9.0, 0.0, 0.0);
+        assertThat(buckets).extracting(HistogramBucketResponse::getAvg).containsExactly(null, 4.5, null, null);
+
+        assertThat(HistogramBucket.YEAR.fill(LocalDate.of(2020, 6, 1), LocalDate.of(2021, 6, 1), List.of()))
+                .allSatisfy(bucket -> {
+                    assertThat(bucket.getCount()).isZero();
+                    assertThat(bucket.getAvg()).isNull();
+                });
+    }
+
+    @Test
+    void nullSumCountsAsZero() {
+        List<HistogramBucketResponse> buckets = HistogramBucket.DAY.fill(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1), List.of(
+                totals(LocalDate.of(2024, 1, 1), 1, null)));
+
+        assertThat(buckets.get(0).getSum()).isEqualTo(0.0);
+        assertThat(buckets.get(0).getAvg()).isEqualTo(0.0);
+    }
+
+    @Test
+    void rangeIsLimitedToMaxBuckets() {
+        LocalDate from = LocalDate.of(2020, 1, 1);
+
+        assertThatNoException().isThrownBy(() -> HistogramBucket.DAY.requireRange(from, from.plusDays(HistogramBucket.MAX_BUCKETS - 1)));
+        assertThatThrownBy(() -> HistogramBucket.DAY.requireRange(from, from.plusDays(HistogramBucket.MAX_BUCKETS)))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("1000 buckets");
+
+        // Bucket dihitung setelah rentang diperluas: hari Minggu di akhir rentang tidak menambah minggu baru
+        LocalDate monday = LocalDate.of(2024, 1, 1);
+        assertThatNoException().isThrownBy(() -> HistogramBucket.WEEK.requireRange(monday, monday.plusWeeks(HistogramBucket.MAX_BUCKETS - 1).plusDays(6)));
+        assertThatThrownBy(() -> HistogramBucket.WEEK.requireRange(monday, monday.plusWeeks(HistogramBucket.MAX_BUCKETS)))
+                .isInstanceOf(InvalidRequestException.class);
+
+        assertThat(HistogramBucket.DAY.fill(from, from.plusDays(HistogramBucket.MAX_BUCKETS - 1), List.of()))
+                .hasSize(HistogramBucket.MAX_BUCKETS);
+    }
+
+    @Test
+    void rangeMustNotBeReversed() {
+        assertThatThrownBy(() -> HistogramBucket.MONTH.requireRange(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("from must not be after to");
+    }
+
+    private static BucketTotals totals(LocalDate bucket, long count, Double sum) {
+        return new BucketTotals() {
+            @Override
+            public LocalDate getBucket() {
+                return bucket;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+
+            @Override
+            public Double getSum() {
+                return sum;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.finance.app.util;
+
+import com.finance.app.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null, "date")).isNull();
+        assertThat(KeysetCursor.decode("", "date")).isNull();
+        assertThat(KeysetCursor.decode("  ", "date")).isNull();
+    }
+
+    @Test
+    void dateCursorRoundTrips() {
+        String token = KeysetCursor.encode("date", LocalDate.of(2024, 2, 29), 12345L);
+
+        KeysetCursor cursor = KeysetCursor.decode(token, "date");
+
+        assertThat(cursor.getSortBy()).isEqualTo("date");
+        assertThat(cursor.getId()).isEqualTo(12345L);
+        assertThat(LocalDate.parse(cursor.getValue())).isEqualTo(LocalDate.of(2024, 2, 29));
+    }
+
+    @Test
+    void monthCursorRoundTrips() {
+        String token = KeysetCursor.encode("month", YearMonth.of(2023, 12), 99L);
+
+        KeysetCursor cursor = KeysetCursor.decode(token, "month");
+
+        assertThat(cursor.getId()).isEqualTo(99L);
+        assertThat(YearMonth.parse(cursor.getValue())).isEqualTo(YearMonth.of(2023, 12));
+    }
+
+    @Test
+    void amountCursorRoundTripsExactly() {
+        for (double amount : new double[]{0.1, 1e-7, -42.5, 123456789.987654321, Double.MIN_VALUE}) {
+            KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode("amount", amount, 7L), "amount");
+
+            assertThat(Double.valueOf(cursor.getValue())).isEqualTo(amount);
+        }
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = KeysetCursor.encode("month", "2024-12", Long.MAX_VALUE);
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(token, "month").getId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void valueMayContainSeparator() {
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode("name", "a|b", 1L), "name");
+
+        assertThat(cursor.getValue()).isEqualTo("a|b");
+    }
+
+    @Test
+    void cursorFromAnotherSortIsRejected() {
+        String token = KeysetCursor.encode("amount", 10.0, 1L);
+
+        assertThatThrownBy(() -> KeysetCursor.decode(token, "date"))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Cursor does not match sortBy=date");
+    }
+
+    @Test
+    void garbageAndTamperedTokensAreRejected() {
+        assertInvalid("not base64!");
+        assertInvalid("a+b/c==");
+        assertInvalid(raw("date"));
+        assertInvalid(raw("date|2024-01-01"));
+        assertInvalid(raw("date|abc|2024-01-01"));
+        assertInvalid(raw("date|99999999999999999999|2024-01-01"));
+        assertInvalid(raw("|1|2024-01-01"));
+    }
+
+    private static void assertInvalid(String token) {
+        assertThatThrownBy(() -> KeysetCursor.decode(token, "date"))
+                .as(token)
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    private static String raw(String content) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(content.getBytes(StandardCharsets.UTF_8));
+    }
+}